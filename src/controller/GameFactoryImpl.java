@@ -3,16 +3,17 @@ package controller;
 import model.Game;
 import model.GameImpl;
 import model.Room;
+import model.SplitRandom;
 import model.maze.Maze;
 import model.maze.MazeGenerationException;
 import model.maze.MazeImpl;
+import model.maze.MazeTopologyCache;
 import model.player.ModelPlayer;
 import model.player.PlayerImpl;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.Random;
 import java.util.stream.Collectors;
 
 /**
@@ -23,6 +24,33 @@ import java.util.stream.Collectors;
  */
 public class GameFactoryImpl implements GameFactory {
   
+  /**
+   * The number of mazes kept by a factory's own cache.
+   */
+  public static final int DEFAULT_MAZE_CACHE_CAPACITY = 32;
+  
+  private final MazeTopologyCache mazeCache;
+  
+  /**
+   * Constructs a factory with its own cache of generated mazes.
+   */
+  public GameFactoryImpl() {
+    this(new MazeTopologyCache(DEFAULT_MAZE_CACHE_CAPACITY));
+  }
+  
+  /**
+   * Constructs a factory that reuses mazes from a cache,
+   * which may be shared with other factories.
+   * @param mazeCache the cache of generated mazes
+   * @throws IllegalArgumentException if the cache is null
+   */
+  public GameFactoryImpl(MazeTopologyCache mazeCache) throws IllegalArgumentException {
+    if (mazeCache == null) {
+      throw new IllegalArgumentException("Maze cache must not be null");
+    }
+    this.mazeCache = mazeCache;
+  }
+  
   @Override
   public Game createGame(
       int rowCount,
@@ -34,8 +62,11 @@ public class GameFactoryImpl implements GameFactory {
       int arrowCount,
       long seed)
       throws IllegalArgumentException, MazeGenerationException {
-    Random random = new Random(seed);
-    Maze maze = new MazeImpl(rowCount, colCount, batCount, pitCount, wraps, random);
+    //Games share the immutable layout of the maze but each
+    //game gets its own rooms to explore and move through
+    Maze maze = new MazeImpl(
+        mazeCache.getTopology(rowCount, colCount, wraps, batCount, pitCount, seed),
+        SplitRandom.forStream(seed, SplitRandom.BAT_STREAM));
     
     List<ModelPlayer> players = new ArrayList<ModelPlayer>();
     for (int i = 1; i <= playerCount; ++i) {
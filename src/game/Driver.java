@@ -2,12 +2,22 @@ package game;
 
 import controller.Controller;
 import controller.GameFactoryImpl;
+import model.SplitRandom;
+import model.maze.MazeGenerationException;
+import simulation.ParallelSimulator;
+import simulation.Policy;
+import simulation.RandomPolicy;
+import simulation.SimulationResult;
+import simulation.Simulator;
 import view.View;
 import view.graphical.GraphicalView;
 import view.text.TextView;
 
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongFunction;
 
 /**
  * A driver that creates a game of Hunt the Wumpus.
@@ -15,6 +25,9 @@ import java.io.InputStreamReader;
  *
  */
 public class Driver {
+
+  private static final String INVALID_ARGUMENTS =
+      "Invalid arguments. Expected either '--text', '--gui' or '--simulate [option=value ...]'";
   
   /**
    * Entry point for the program.
@@ -23,8 +36,13 @@ public class Driver {
    */
   public static void main(String[] args) throws IOException {
     
+    if (args.length > 0 && args[0].equals("--simulate")) {
+      simulate(args);
+      return;
+    }
+
     if (args.length != 1) {
-      System.out.println("Invalid arguments. Expected either '--text' or '--gui'");
+      System.out.println(INVALID_ARGUMENTS);
       return;
     }
     
@@ -33,7 +51,7 @@ public class Driver {
       guiMode = true;
     }
     else if (!args[0].equals("--text")) {
-      System.out.println("Invalid arguments. Expected either '--text' or '--gui'");
+      System.out.println(INVALID_ARGUMENTS);
       return;
     }
     
@@ -48,4 +66,123 @@ public class Driver {
     Controller controller = new Controller(view, new GameFactoryImpl());
     controller.start();
   }
+
+  /**
+   * Plays a batch of games without a view and prints their combined outcome.
+   * @param args the command line arguments, where every argument
+   *      after '--simulate' is an option of the form name=value
+   */
+  private static void simulate(String[] args) {
+    Map<String, String> options = new LinkedHashMap<String, String>();
+    options.put("rows", "10");
+    options.put("cols", "10");
+    options.put("wraps", "false");
+    options.put("bats", "3");
+    options.put("pits", "3");
+    options.put("players", "1");
+    options.put("arrows", "3");
+    options.put("seed", "0");
+    options.put("games", "1000");
+    options.put("turns", "1000");
+    options.put("threads", Integer.toString(Runtime.getRuntime().availableProcessors()));
+    options.put("scaling", "false");
+
+    for (int i = 1; i < args.length; ++i) {
+      int separator = args[i].indexOf('=');
+      if (separator < 0 || !options.containsKey(args[i].substring(0, separator))) {
+        System.out.println(String.format(
+            "Invalid simulation option '%s'. Expected one of %s as name=value",
+            args[i],
+            options.keySet()));
+        return;
+      }
+      options.put(args[i].substring(0, separator), args[i].substring(separator + 1));
+    }
+
+    try {
+      int rowCount = Integer.parseInt(options.get("rows"));
+      int colCount = Integer.parseInt(options.get("cols"));
+      boolean wraps = Boolean.parseBoolean(options.get("wraps"));
+      int batCount = Integer.parseInt(options.get("bats"));
+      int pitCount = Integer.parseInt(options.get("pits"));
+      int playerCount = Integer.parseInt(options.get("players"));
+      int arrowCount = Integer.parseInt(options.get("arrows"));
+      int maxTurns = Integer.parseInt(options.get("turns"));
+      long firstSeed = Long.parseLong(options.get("seed"));
+      int gameCount = Integer.parseInt(options.get("games"));
+      int threadCount = Integer.parseInt(options.get("threads"));
+
+      //Every task gets its own factory so that no maze cache is shared between threads
+      ParallelSimulator simulator = new ParallelSimulator(() -> new Simulator(
+          new GameFactoryImpl(),
+          rowCount,
+          colCount,
+          wraps,
+          batCount,
+          pitCount,
+          playerCount,
+          arrowCount,
+          maxTurns));
+      LongFunction<Policy> policyFactory =
+          seed -> new RandomPolicy(SplitRandom.forStream(seed, SplitRandom.POLICY_STREAM));
+
+      if (Boolean.parseBoolean(options.get("scaling"))) {
+        printScalingReport(simulator, firstSeed, gameCount, policyFactory, threadCount);
+      }
+      else {
+        System.out.println(simulator.run(firstSeed, gameCount, policyFactory, threadCount));
+      }
+    }
+    catch (NumberFormatException e) {
+      System.out.println("Invalid simulation option. " + e.getMessage());
+    }
+    catch (IllegalArgumentException | MazeGenerationException e) {
+      System.out.println("Simulation failed. " + e.getMessage());
+    }
+  }
+
+  /**
+   * Plays the same batch of games on 1, 2, 4 and so on up to a number of
+   * threads and prints the throughput of each run relative to one thread.
+   * @param simulator the simulator that plays the games
+   * @param firstSeed the seed of the first game
+   * @param gameCount the number of games in the batch
+   * @param policyFactory creates the policy for the game with a seed
+   * @param maxThreadCount the largest number of threads to play the games on
+   * @throws IllegalArgumentException if the batch is invalid
+   * @throws MazeGenerationException if a maze for a game cannot be generated
+   */
+  private static void printScalingReport(
+      ParallelSimulator simulator,
+      long firstSeed,
+      int gameCount,
+      LongFunction<Policy> policyFactory,
+      int maxThreadCount)
+      throws IllegalArgumentException, MazeGenerationException {
+    SimulationResult baseline = null;
+    int threadCount = 1;
+    while (threadCount <= maxThreadCount) {
+      SimulationResult result =
+          simulator.run(firstSeed, gameCount, policyFactory, threadCount);
+      if (baseline == null) {
+        baseline = result;
+        System.out.println(result);
+        System.out.println();
+      }
+      System.out.println(String.format(
+          "Threads: %d, throughput: %.1f games/s, speedup: %.2fx%s",
+          threadCount,
+          result.getGamesPerSecond(),
+          result.getGamesPerSecond() / baseline.getGamesPerSecond(),
+          result.hasSameOutcomes(baseline) ? "" : ", OUTCOMES DIFFER"));
+
+      //Always finish with the largest number of threads
+      if (threadCount < maxThreadCount && threadCount * 2 > maxThreadCount) {
+        threadCount = maxThreadCount;
+      }
+      else {
+        threadCount *= 2;
+      }
+    }
+  }
 }
@@ -0,0 +1,291 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index of where arrows land. For every room, direction and distance up
+ * to a maximum, the index stores the room that an arrow shot that way comes
+ * to rest in, and for every room, every way of shooting an arrow into it.
+ * The index is built the first time it is queried by following each tunnel
+ * once. Rooms are found in the index by the index of their cell, so once it
+ * is built a shot from a room of a generated maze is resolved by reading the
+ * room's place in the index and then the shot's target from arrays, without
+ * hashing. Rooms without a cell index are found by a map instead.
+ * @author Liam Scholte
+ *
+ */
+public class ArrowIndex {
+
+  private static final Direction[] DIRECTIONS = Direction.values();
+  private static final int NO_ROOM = -1;
+
+  private final List<? extends ReadOnlyRoom> startingRooms;
+  private final int maxDistance;
+
+  private List<ReadOnlyRoom> rooms;
+
+  //The room in the index for each cell, or NO_ROOM, and the
+  //rooms in the index that do not have a cell index
+  private int[] roomsByCell;
+  private Map<ReadOnlyRoom, Integer> uncelledRooms;
+
+  //The room at the other end of the tunnel from each room in each
+  //direction, and the direction the tunnel is travelling in there
+  private int[] nextRooms;
+  private int[] nextDirections;
+
+  //The room an arrow rests in, or NO_ROOM if it hits a wall first, for
+  //the shot at ((room * 4 + direction) * maxDistance + distance - 1)
+  private int[] targets;
+
+  //The shots into each room, as positions in the targets, with the
+  //shots into room i between solutionOffsets[i] and solutionOffsets[i + 1]
+  private int[] solutionOffsets;
+  private int[] solutions;
+
+  /**
+   * Constructs an index of the arrows shot from a set of rooms. Rooms
+   * that the arrows land in are added to the index as they are found.
+   * @param rooms the non-hallway rooms to shoot from
+   * @param maxDistance the greatest distance that an arrow is shot
+   * @throws IllegalArgumentException if the rooms are null
+   *      or the maximum distance is not positive
+   */
+  public ArrowIndex(List<? extends ReadOnlyRoom> rooms, int maxDistance)
+      throws IllegalArgumentException {
+    if (rooms == null) {
+      throw new IllegalArgumentException("Rooms must not be null");
+    }
+    if (maxDistance < 1) {
+      throw new IllegalArgumentException("Maximum distance must be positive");
+    }
+    this.startingRooms = rooms;
+    this.maxDistance = maxDistance;
+  }
+
+  /**
+   * Gets the greatest distance that the index holds.
+   * @return the maximum distance
+   */
+  public int getMaxDistance() {
+    return maxDistance;
+  }
+
+  /**
+   * Gets the room that an arrow shot from a room lands in.
+   * @param room the room to shoot from
+   * @param direction the direction to shoot in
+   * @param distance the number of rooms the arrow travels
+   * @return the room the arrow lands in, or null if the arrow hits
+   *      a wall first or the room is not in the index
+   * @throws IllegalArgumentException if the room or direction is null
+   *      or the distance is not between 1 and the maximum distance
+   */
+  public ReadOnlyRoom getTarget(ReadOnlyRoom room, Direction direction, int distance)
+      throws IllegalArgumentException {
+    if (room == null) {
+      throw new IllegalArgumentException("Room must not be null");
+    }
+    if (direction == null) {
+      throw new IllegalArgumentException("Direction must not be null");
+    }
+    if (distance < 1 || distance > maxDistance) {
+      throw new IllegalArgumentException(
+          String.format("Distance must be between 1 and %d", maxDistance));
+    }
+
+    build();
+    int index = findRoom(room);
+    if (index == NO_ROOM) {
+      return null;
+    }
+    int target = targets[getShot(index, direction.ordinal(), distance)];
+    return target == NO_ROOM ? null : rooms.get(target);
+  }
+
+  /**
+   * Gets every way of shooting an arrow into a room from the rooms
+   * in the index, up to the maximum distance.
+   * @param target the room to be hit
+   * @return the ways of shooting into the room, which is empty
+   *      if the room is not in the index
+   * @throws IllegalArgumentException if the room is null
+   */
+  public List<FiringSolution> getFiringSolutions(ReadOnlyRoom target)
+      throws IllegalArgumentException {
+    if (target == null) {
+      throw new IllegalArgumentException("Room must not be null");
+    }
+
+    build();
+    int index = findRoom(target);
+    if (index == NO_ROOM) {
+      return Collections.emptyList();
+    }
+
+    List<FiringSolution> firingSolutions =
+        new ArrayList<FiringSolution>(solutionOffsets[index + 1] - solutionOffsets[index]);
+    for (int i = solutionOffsets[index]; i < solutionOffsets[index + 1]; ++i) {
+      int shot = solutions[i];
+      int distance = shot % maxDistance + 1;
+      int direction = shot / maxDistance % DIRECTIONS.length;
+      int room = shot / maxDistance / DIRECTIONS.length;
+      firingSolutions.add(new FiringSolution(rooms.get(room), DIRECTIONS[direction], distance));
+    }
+    return firingSolutions;
+  }
+
+  /**
+   * Gets the number of rooms in the index, including
+   * the rooms that were found by following tunnels.
+   */
+  int getRoomCount() {
+    build();
+    return rooms.size();
+  }
+
+  /**
+   * Gets the room with an index.
+   */
+  ReadOnlyRoom getRoom(int index) {
+    build();
+    return rooms.get(index);
+  }
+
+  /**
+   * Gets the index of a room, or -1 if the room is not in the index.
+   */
+  int getRoomIndex(ReadOnlyRoom room) {
+    build();
+    return findRoom(room);
+  }
+
+  /**
+   * Gets the index of the room at the other end of the tunnel leaving
+   * a room in a direction, or -1 if there is no tunnel that way.
+   */
+  int getNextRoom(int room, Direction direction) {
+    build();
+    return nextRooms[room * DIRECTIONS.length + direction.ordinal()];
+  }
+
+  /**
+   * Gets the direction of travel on arriving at the other end of the tunnel
+   * leaving a room in a direction. Only meaningful if there is a tunnel that way.
+   */
+  Direction getNextDirection(int room, Direction direction) {
+    build();
+    return DIRECTIONS[nextDirections[room * DIRECTIONS.length + direction.ordinal()]];
+  }
+
+  private int getShot(int room, int direction, int distance) {
+    return (room * DIRECTIONS.length + direction) * maxDistance + distance - 1;
+  }
+
+  private void build() {
+    if (targets != null) {
+      return;
+    }
+
+    rooms = new ArrayList<ReadOnlyRoom>();
+    roomsByCell = new int[0];
+    uncelledRooms = new HashMap<ReadOnlyRoom, Integer>();
+    for (ReadOnlyRoom room : startingRooms) {
+      getOrAddRoom(room);
+    }
+
+    //Follow each tunnel once. The rooms and headings at the other end of
+    //the tunnels are stored for each room and direction of travel
+    nextRooms = new int[rooms.size() * DIRECTIONS.length];
+    nextDirections = new int[rooms.size() * DIRECTIONS.length];
+    for (int i = 0; i < rooms.size(); ++i) {
+      if ((i + 1) * DIRECTIONS.length > nextRooms.length) {
+        nextRooms = Arrays.copyOf(nextRooms, nextRooms.length * 2);
+        nextDirections = Arrays.copyOf(nextDirections, nextDirections.length * 2);
+      }
+      for (Direction direction : DIRECTIONS) {
+        int step = i * DIRECTIONS.length + direction.ordinal();
+        Heading heading = rooms.get(i).getNonHallNeighbour(direction);
+        if (heading.getRoom() == null) {
+          nextRooms[step] = NO_ROOM;
+          continue;
+        }
+        nextRooms[step] = getOrAddRoom(heading.getRoom());
+        nextDirections[step] = heading.getDirection().ordinal();
+      }
+    }
+
+    //An arrow keeps its heading from tunnel to tunnel until it
+    //has travelled its distance or there is no tunnel to follow
+    int[] shotTargets = new int[rooms.size() * DIRECTIONS.length * maxDistance];
+    int[] solutionCounts = new int[rooms.size() + 1];
+    for (int i = 0; i < rooms.size(); ++i) {
+      for (int direction = 0; direction < DIRECTIONS.length; ++direction) {
+        int room = i;
+        int heading = direction;
+        for (int distance = 1; distance <= maxDistance; ++distance) {
+          int shot = getShot(i, direction, distance);
+          if (room != NO_ROOM) {
+            int step = room * DIRECTIONS.length + heading;
+            room = nextRooms[step];
+            heading = nextDirections[step];
+          }
+          shotTargets[shot] = room;
+          if (room != NO_ROOM) {
+            ++solutionCounts[room + 1];
+          }
+        }
+      }
+    }
+
+    solutionOffsets = new int[rooms.size() + 1];
+    for (int i = 0; i < rooms.size(); ++i) {
+      solutionOffsets[i + 1] = solutionOffsets[i] + solutionCounts[i + 1];
+    }
+    int[] nextSolution = Arrays.copyOf(solutionOffsets, rooms.size());
+    solutions = new int[solutionOffsets[rooms.size()]];
+    for (int shot = 0; shot < shotTargets.length; ++shot) {
+      if (shotTargets[shot] != NO_ROOM) {
+        solutions[nextSolution[shotTargets[shot]]++] = shot;
+      }
+    }
+    targets = shotTargets;
+  }
+
+  private int findRoom(ReadOnlyRoom room) {
+    int cell = room.getCellIndex();
+    if (cell < 0) {
+      Integer index = uncelledRooms.get(room);
+      return index == null ? NO_ROOM : index;
+    }
+    return cell < roomsByCell.length ? roomsByCell[cell] : NO_ROOM;
+  }
+
+  private int getOrAddRoom(ReadOnlyRoom room) {
+    int index = findRoom(room);
+    if (index != NO_ROOM) {
+      return index;
+    }
+
+    index = rooms.size();
+    rooms.add(room);
+    int cell = room.getCellIndex();
+    if (cell < 0) {
+      uncelledRooms.put(room, index);
+    }
+    else {
+      if (cell >= roomsByCell.length) {
+        int oldLength = roomsByCell.length;
+        roomsByCell = Arrays.copyOf(roomsByCell, Math.max(cell + 1, oldLength * 2));
+        Arrays.fill(roomsByCell, oldLength, roomsByCell.length, NO_ROOM);
+      }
+      roomsByCell[cell] = index;
+    }
+    return index;
+  }
+}
@@ -1,5 +1,11 @@
 package model;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
 /**
  * Represents a direction of travel.
  * @author Liam Scholte
@@ -8,6 +14,23 @@ package model;
 public enum Direction {
   NORTH, SOUTH, EAST, WEST;
   
+  private static final Direction[] DIRECTIONS = values();
+  
+  //The set of directions for each of the 16 exit masks
+  private static final List<Set<Direction>> SETS_BY_MASK = new ArrayList<Set<Direction>>();
+  
+  static {
+    for (int exitMask = 0; exitMask < 1 << DIRECTIONS.length; ++exitMask) {
+      Set<Direction> directions = EnumSet.noneOf(Direction.class);
+      for (Direction direction : DIRECTIONS) {
+        if ((exitMask & direction.getMask()) != 0) {
+          directions.add(direction);
+        }
+      }
+      SETS_BY_MASK.add(Collections.unmodifiableSet(directions));
+    }
+  }
+  
   /**
    * Gets the direction that is opposite of
    * {@code this} direction.
@@ -22,4 +45,42 @@ public enum Direction {
       default: return null;
     }
   }
+  
+  /**
+   * Gets the bit that represents {@code this} direction
+   * within a 4-bit exit mask.
+   * @return the bit for this direction
+   */
+  public int getMask() {
+    return 1 << ordinal();
+  }
+  
+  /**
+   * Gets the direction whose ordinal is specified without
+   * copying the array of directions like {@link #values()}.
+   * @param ordinal the ordinal of the direction
+   * @return the direction
+   * @throws IllegalArgumentException if there is no direction with the ordinal
+   */
+  public static Direction fromOrdinal(int ordinal) throws IllegalArgumentException {
+    if (ordinal < 0 || ordinal >= DIRECTIONS.length) {
+      throw new IllegalArgumentException("There is no direction with ordinal " + ordinal);
+    }
+    return DIRECTIONS[ordinal];
+  }
+  
+  /**
+   * Gets the directions whose bits are set in an exit mask. The same
+   * unmodifiable set is returned every time for the same mask.
+   * @param exitMask the 4-bit exit mask
+   * @return the set of directions in the mask
+   * @throws IllegalArgumentException if the mask has bits other than the
+   *      bits of the four directions
+   */
+  public static Set<Direction> fromMask(int exitMask) throws IllegalArgumentException {
+    if (exitMask < 0 || exitMask >= SETS_BY_MASK.size()) {
+      throw new IllegalArgumentException("Invalid exit mask " + exitMask);
+    }
+    return SETS_BY_MASK.get(exitMask);
+  }
 }
@@ -1,25 +1,32 @@
 package model;
 
-import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 /**
  * An event that will invoke behaviours associated with
  * one or more listeners when the event is raised.
+ * Listeners may either ignore the details of the event
+ * or receive them as arguments of type {@code T}.
  * @author Liam Scholte
  *
+ * @param <T> the type of the arguments passed to listeners
  */
-public class Event {
-    
-  private List<Runnable> listeners;
-  
+public class Event<T> {
+
+  //A copy-on-write list, so raising the event walks a snapshot and
+  //listeners may be added or removed while the event is being raised.
+  //Runnables are wrapped when they are added, so every listener is a Consumer
+  private final List<Consumer<? super T>> listeners;
+
   /**
    * Constructs an event with no listeners.
    */
   public Event() {
-    listeners = new LinkedList<Runnable>();
+    listeners = new CopyOnWriteArrayList<Consumer<? super T>>();
   }
-  
+
   /**
    * Adds a Runnable that is invoked upon {@code this}
    * event being raised.
@@ -31,14 +38,97 @@ public class Event {
       throw new IllegalArgumentException(
           "The runnable cannot be null");
     }
-    listeners.add(runnable);
+    listeners.add(new RunnableListener(runnable));
+  }
+
+  /**
+   * Adds a listener that is passed the arguments of
+   * {@code this} event each time it is raised.
+   * @param listener the listener to invoke
+   * @throws IllegalArgumentException if the listener is null
+   */
+  public void subscribe(Consumer<? super T> listener) throws IllegalArgumentException {
+    if (listener == null) {
+      throw new IllegalArgumentException(
+          "The listener cannot be null");
+    }
+    listeners.add(listener);
   }
-  
+
+  /**
+   * Removes a Runnable previously added with {@link #addListener(Runnable)}.
+   * @param runnable the Runnable to remove
+   * @return {@code true} if the runnable was removed,
+   *      {@code false} if it was not a listener
+   */
+  public synchronized boolean removeListener(Runnable runnable) {
+    for (int i = 0; i < listeners.size(); ++i) {
+      Consumer<? super T> listener = listeners.get(i);
+      if (listener instanceof RunnableListener
+          && ((RunnableListener)listener).runnable == runnable) {
+        listeners.remove(i);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Removes a listener previously added with {@link #subscribe(Consumer)}.
+   * @param listener the listener to remove
+   * @return {@code true} if the listener was removed,
+   *      {@code false} if it was not a listener
+   */
+  public synchronized boolean unsubscribe(Consumer<? super T> listener) {
+    for (int i = 0; i < listeners.size(); ++i) {
+      if (listeners.get(i) == listener) {
+        listeners.remove(i);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Determines if the event has any listeners, so that
+   * arguments need not be created for an event no one hears.
+   * @return {@code true} if there is at least one listener
+   */
+  public boolean hasListeners() {
+    return !listeners.isEmpty();
+  }
+
   /**
    * Raises this event, invoking all attached listeners.
+   * Listeners that take arguments receive null.
    */
   public void raise() {
-    listeners.forEach(runnable -> runnable.run());
+    raise(null);
+  }
+
+  /**
+   * Raises this event, invoking all attached listeners.
+   * @param args the arguments passed to listeners that take arguments
+   */
+  public void raise(T args) {
+    for (Consumer<? super T> listener : listeners) {
+      listener.accept(args);
+    }
   }
 
+  /**
+   * Adapts a Runnable to a listener that ignores the arguments of the event.
+   */
+  private static final class RunnableListener implements Consumer<Object> {
+    private final Runnable runnable;
+
+    public RunnableListener(Runnable runnable) {
+      this.runnable = runnable;
+    }
+
+    @Override
+    public void accept(Object args) {
+      runnable.run();
+    }
+  }
 }
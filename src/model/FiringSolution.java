@@ -0,0 +1,51 @@
+package model;
+
+/**
+ * Represents a way to shoot an arrow into a room: the
+ * room to shoot from, the direction and the distance.
+ * @author Liam Scholte
+ *
+ */
+public class FiringSolution {
+  
+  private final ReadOnlyRoom room;
+  private final Direction direction;
+  private final int distance;
+  
+  /**
+   * Constructs a FiringSolution.
+   * @param room the room to shoot from
+   * @param direction the direction to shoot in
+   * @param distance the number of rooms the arrow travels
+   */
+  public FiringSolution(ReadOnlyRoom room, Direction direction, int distance) {
+    this.room = room;
+    this.direction = direction;
+    this.distance = distance;
+  }
+  
+  /**
+   * Gets the room to shoot from.
+   * @return the room to shoot from
+   */
+  public ReadOnlyRoom getRoom() {
+    return room;
+  }
+  
+  /**
+   * Gets the direction to shoot in.
+   * @return the direction to shoot in
+   */
+  public Direction getDirection() {
+    return direction;
+  }
+  
+  /**
+   * Gets the number of rooms the arrow travels.
+   * @return the distance to shoot
+   */
+  public int getDistance() {
+    return distance;
+  }
+
+}
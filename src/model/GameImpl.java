@@ -1,14 +1,21 @@
 package model;
 
 import model.maze.ReadOnlyMaze;
+import model.maze.SafeRegions;
 import model.player.ModelPlayer;
 import model.player.Player;
 import model.player.ReadOnlyPlayer;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 
@@ -25,6 +32,7 @@ public class GameImpl implements Game {
   
   private Queue<ModelPlayer> playerQueue;
   private List<Player> allPlayers;
+  private List<ReadOnlyPlayer> readOnlyPlayers;
   
   private ReadOnlyMaze maze;
     
@@ -36,6 +44,28 @@ public class GameImpl implements Game {
   //   will continue if there are more wumpuses remaining
   private boolean wumpusAlive;
   
+  //Every shot and every question about shots is answered by one index of
+  //arrows. The wumpus and pits never move, so the rooms that an arrow can reach
+  //the wumpus from are only found again for a player who shoots a different
+  //distance. Every safe room in a region that a player can walk around has the
+  //same answer, so the answer is stored for the whole region and moving within
+  //it costs nothing
+  private ArrowIndex arrowIndex;
+  private Set<ReadOnlyRoom> shootableRooms;
+  private int shootableDistance;
+  private Map<ReadOnlyRoom, Boolean> winnableFromRoom;
+  
+  //Mazes laid out from a topology have their safe regions labelled up front,
+  //so the answer for a safe cell is a flag of its region. A player standing
+  //among bats can only step into the rooms at the ends of its tunnels, so
+  //their regions answer for it
+  private BitSet shootableRegions;
+  
+  //The route to the nearest room to shoot from only depends on the starting
+  //room, since the hazards never move, so each room's hint is found once
+  private HintEngine hintEngine;
+  private Map<ReadOnlyRoom, Hint> hintFromRoom;
+  
   /**
    * Constructs a game of Hunt the Wumpus.
    * @param maze the maze of rooms to use for the game
@@ -55,8 +85,19 @@ public class GameImpl implements Game {
         
     playerQueue = new LinkedList<ModelPlayer>(players);
     allPlayers = new ArrayList<Player>(players);
+    readOnlyPlayers = Collections.unmodifiableList(allPlayers);
     this.maze = maze;    
     wumpusAlive = true;
+    winnableFromRoom = new HashMap<ReadOnlyRoom, Boolean>();
+    hintFromRoom = new HashMap<ReadOnlyRoom, Hint>();
+    
+    //The index follows the tunnels the first time it is used, and holds the
+    //shots of the player who shoots the farthest. A game without players
+    //is already over, so its index is never used
+    arrowIndex = new ArrowIndex(
+        maze.getRooms(),
+        players.stream().mapToInt(p -> p.getMaxShootDistance()).max().orElse(1));
+    playerQueue.forEach(p -> p.setArrowIndex(arrowIndex));
 
     //Invoked when a player kills the wumpus.
     //This is used to determine the winner of the game
@@ -72,7 +113,7 @@ public class GameImpl implements Game {
   public boolean isWinnable() throws IllegalStateException {
     ModelPlayer player = playerQueue.peek();
     if (isOver()) {
-      player.equals(getWinner());
+      return player != null && player.equals(winner);
     }
    
     if (!player.isAlive() || player.getArrowCount() <= 0) {
@@ -83,26 +124,37 @@ public class GameImpl implements Game {
     //only if wumpuses are killed in a specific order to free up a space
     //for the player to stand safely
     
-    ReadOnlyRoom wumpusRoom =
-        maze
-            .getRooms()
-            .stream()
-            .filter(room -> room.hasWumpus())
-            .findFirst()
-            .get();
+    findShootableRooms();
+    
+    if (maze.getSafeRegions() != null) {
+      return isWinnableInRegions(player.getRoom());
+    }
     
-    //Find all locations in which a player could safely stand and shoot an arrow to kill the wumpus
-    Set<ReadOnlyRoom> shootableRooms = new HashSet<ReadOnlyRoom>();
-    getAllRoomsShootable(shootableRooms, wumpusRoom);
-      
-    //Find all locations accessible from player's current position
-    //(accessible superbat makes every room accessible)
-    Set<ReadOnlyRoom> accessibleRoomsByPlayer = new HashSet<ReadOnlyRoom>();
-    getAllRoomsAccessibleToPlayer(accessibleRoomsByPlayer, player.getRoom());
-      
-    //Check if there is any room that the player can access AND shoot the wumpus from
-    accessibleRoomsByPlayer.retainAll(shootableRooms);
-    return !accessibleRoomsByPlayer.isEmpty();
+    Boolean winnable = winnableFromRoom.get(player.getRoom());
+    if (winnable == null) {
+      winnable = isWinnableFrom(player.getRoom());
+    }
+    return winnable;
+  }
+  
+  @Override
+  public Hint getHint() throws IllegalStateException {
+    ModelPlayer player = playerQueue.peek();
+    if (isOver() || !player.isAlive() || player.getArrowCount() <= 0) {
+      return null;
+    }
+    
+    findShootableRooms();
+    if (hintEngine == null || hintEngine.getMaxShootDistance() != player.getMaxShootDistance()) {
+      hintEngine = new HintEngine(arrowIndex, getWumpusRoom(), player.getMaxShootDistance());
+      hintFromRoom.clear();
+    }
+    
+    //Rooms without a route are stored too, so they are not searched again
+    if (!hintFromRoom.containsKey(player.getRoom())) {
+      hintFromRoom.put(player.getRoom(), hintEngine.findHint(player.getRoom()));
+    }
+    return hintFromRoom.get(player.getRoom());
   }
   
   @Override
@@ -125,7 +177,7 @@ public class GameImpl implements Game {
   
   @Override
   public List<ReadOnlyPlayer> getPlayers() {
-    return new ArrayList<ReadOnlyPlayer>(allPlayers);
+    return readOnlyPlayers;
   }
   
   @Override
@@ -143,8 +195,9 @@ public class GameImpl implements Game {
     if (isOver()) {
       throw new IllegalStateException("The game is over");
     }
-    getNextAlivePlayer().move(direction);
+    playerQueue.peek().move(direction);
     playerQueue.add(playerQueue.remove());
+    removeDeadPlayers();
   }
 
   @Override
@@ -152,8 +205,9 @@ public class GameImpl implements Game {
     if (isOver()) {
       throw new IllegalStateException("The game is over");
     }
-    getNextAlivePlayer().shootArrow(direction, distance);
+    playerQueue.peek().shootArrow(direction, distance);
     playerQueue.add(playerQueue.remove());
+    removeDeadPlayers();
   }
   
   @Override
@@ -161,65 +215,161 @@ public class GameImpl implements Game {
     if (isOver()) {
       throw new IllegalStateException("The game is over");
     }
-    getNextAlivePlayer().kill();
+    playerQueue.peek().kill();
     playerQueue.remove();
+    removeDeadPlayers();
   }
   
-  private ModelPlayer getNextAlivePlayer() {
-    while (!playerQueue.isEmpty()) {
-      ModelPlayer player = playerQueue.peek();
-      if (player.isAlive()) {
-        return player;
-      }
+  private void removeDeadPlayers() {
+    //Players who died during a turn are removed once the turn is over,
+    //so that the player at the head of the queue is always alive
+    while (!playerQueue.isEmpty() && !playerQueue.peek().isAlive()) {
       playerQueue.remove();
     }
+  }
+  
+  private void findShootableRooms() {
+    int maxShootDistance = playerQueue.peek().getMaxShootDistance();
+    if (shootableRooms != null && shootableDistance == maxShootDistance) {
+      return;
+    }
     
-    //Expectation here is that methods calling this should never reach this because
-    //this implies that the game is over
-    return null;
-  }
-  
-  private void getAllRoomsAccessibleToPlayer(
-      Set<ReadOnlyRoom> accessibleRooms,
-      ReadOnlyRoom startingRoom) {    
-    accessibleRooms.add(startingRoom);    
-    for (Direction direction : Direction.values()) {
-      ReadOnlyRoom roomToCheck = startingRoom.getNonHallNeighbour(direction).getRoom();
-      if (roomToCheck != null) {
-        if (!accessibleRooms.contains(roomToCheck)) {
-          if (roomToCheck.hasBats()) {
-            //Everything is accessible. Early out
-            accessibleRooms.addAll(maze.getRooms());
-            return;
-          }
-          else if (!roomToCheck.hasWumpus() && !roomToCheck.hasPit()) {
-            getAllRoomsAccessibleToPlayer(accessibleRooms, roomToCheck);            
+    //Find all locations in which the current player could safely stand and shoot
+    //an arrow to kill the wumpus, forgetting the answers found for another distance
+    shootableRooms = new HashSet<ReadOnlyRoom>();
+    shootableDistance = maxShootDistance;
+    getAllRoomsShootable(shootableRooms, getWumpusRoom(), maxShootDistance);
+    winnableFromRoom.clear();
+    shootableRegions = null;
+  }
+  
+  private ReadOnlyRoom getWumpusRoom() {
+    return maze
+        .getRooms()
+        .stream()
+        .filter(room -> room.hasWumpus())
+        .findFirst()
+        .get();
+  }
+  
+  /**
+   * Checks if any room accessible from a starting room can shoot the wumpus
+   * and stores the answer for every safe room that was walked through, since
+   * those rooms can all reach each other.
+   * @param startingRoom the room to start from
+   * @return true if the wumpus can be shot after starting from the room
+   */
+  private boolean isWinnableFrom(ReadOnlyRoom startingRoom) {
+    Set<ReadOnlyRoom> accessibleRooms = new HashSet<ReadOnlyRoom>();
+    Deque<ReadOnlyRoom> roomsToCheck = new ArrayDeque<ReadOnlyRoom>();
+    accessibleRooms.add(startingRoom);
+    roomsToCheck.push(startingRoom);
+    
+    boolean winnable = shootableRooms.contains(startingRoom);
+    boolean searching = !winnable;
+    while (searching && !roomsToCheck.isEmpty()) {
+      ReadOnlyRoom room = roomsToCheck.pop();
+      for (Direction direction : Direction.values()) {
+        ReadOnlyRoom roomToCheck = room.getNonHallNeighbour(direction).getRoom();
+        if (roomToCheck == null || accessibleRooms.contains(roomToCheck)) {
+          continue;
+        }
+        if (roomToCheck.hasBats()) {
+          //Everything is accessible. Early out
+          winnable = !shootableRooms.isEmpty();
+          searching = false;
+          break;
+        }
+        else if (!roomToCheck.hasWumpus() && !roomToCheck.hasPit()) {
+          accessibleRooms.add(roomToCheck);
+          if (shootableRooms.contains(roomToCheck)) {
+            winnable = true;
+            searching = false;
+            break;
           }
+          roomsToCheck.push(roomToCheck);
         }
       }
     }
+    
+    //A player standing in a hazard, such as after being dropped there by
+    //bats, can leave it but not come back, so its answer is its own
+    if (startingRoom.hasBats() || startingRoom.hasWumpus() || startingRoom.hasPit()) {
+      winnableFromRoom.put(startingRoom, winnable);
+    }
+    else {
+      for (ReadOnlyRoom room : accessibleRooms) {
+        winnableFromRoom.put(room, winnable);
+      }
+    }
+    return winnable;
   }
   
-  private void getAllRoomsShootable(
-      Set<ReadOnlyRoom> shootableRooms,
-      ReadOnlyRoom startingRoom) {
-    for (Direction initialDirection : Direction.values()) {
-      Direction direction = initialDirection;
-      ReadOnlyRoom room = startingRoom;
-      for (int i = 0; i < playerQueue.peek().getMaxShootDistance(); ++i) {
-        Heading heading = room.getNonHallNeighbour(direction);
-        room = heading.getRoom();
-        direction = heading.getDirection();
-        
-        if (room == null) {
-          break;
+  /**
+   * Checks if any cell accessible from a starting room can shoot the wumpus
+   * using the safe regions of the maze.
+   * @param startingRoom the room to start from
+   * @return true if the wumpus can be shot after starting from the room
+   */
+  private boolean isWinnableInRegions(ReadOnlyRoom startingRoom) {
+    SafeRegions safeRegions = maze.getSafeRegions();
+    if (shootableRegions == null) {
+      shootableRegions = new BitSet(safeRegions.getRegionCount());
+      for (ReadOnlyRoom room : shootableRooms) {
+        int region = safeRegions.getRegion(getCell(room));
+        if (region != SafeRegions.UNSAFE) {
+          shootableRegions.set(region);
         }
-        
-        if (!room.hasPit() && !room.hasWumpus()) {
-          shootableRooms.add(room);          
+      }
+    }
+    
+    int region = safeRegions.getRegion(getCell(startingRoom));
+    if (region != SafeRegions.UNSAFE) {
+      return isWinnableInRegion(safeRegions, region);
+    }
+    
+    //A room with a hazard, such as bats that dropped the player among other
+    //bats, is only left for the rooms at the ends of its tunnels
+    if (shootableRooms.contains(startingRoom)) {
+      return true;
+    }
+    for (Direction direction : startingRoom.getAvailableDirections()) {
+      ReadOnlyRoom room = startingRoom.getNonHallNeighbour(direction).getRoom();
+      int neighbourRegion = safeRegions.getRegion(getCell(room));
+      if (neighbourRegion != SafeRegions.UNSAFE) {
+        if (isWinnableInRegion(safeRegions, neighbourRegion)) {
+          return true;
         }
       }
-
+      else if (room.hasBats() && !shootableRooms.isEmpty()) {
+        return true;
+      }
+    }
+    return false;
+  }
+  
+  private boolean isWinnableInRegion(SafeRegions safeRegions, int region) {
+    //Bats next to the region make every room accessible
+    return shootableRegions.get(region)
+        || (safeRegions.touchesBats(region) && !shootableRooms.isEmpty());
+  }
+  
+  private int getCell(ReadOnlyRoom room) {
+    Position position = room.getPosition();
+    return position.getY() * maze.getTopology().getCols() + position.getX();
+  }
+  
+  private void getAllRoomsShootable(
+      Set<ReadOnlyRoom> shootableRooms,
+      ReadOnlyRoom targetRoom,
+      int maxShootDistance) {
+    //The index holds the shots that land in the room, so this
+    //does not depend on tunnels being the same in both directions
+    for (FiringSolution solution : arrowIndex.getFiringSolutions(targetRoom)) {
+      ReadOnlyRoom room = solution.getRoom();
+      if (solution.getDistance() <= maxShootDistance && !room.hasPit() && !room.hasWumpus()) {
+        shootableRooms.add(room);
+      }
     }
   }
 }
@@ -0,0 +1,90 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents a hint for a player: the moves to make to reach
+ * a room that the wumpus can be shot from, and the shot to take there.
+ * @author Liam Scholte
+ *
+ */
+public class Hint {
+
+  private final List<Direction> moves;
+  private final int length;
+  private final FiringSolution firingSolution;
+
+  /**
+   * Constructs a Hint.
+   * @param moves the directions to move in, in order
+   * @param length the number of rooms entered while making the moves
+   * @param firingSolution the shot to take after the moves
+   * @throws IllegalArgumentException if the moves or firing solution is null
+   */
+  public Hint(List<Direction> moves, int length, FiringSolution firingSolution)
+      throws IllegalArgumentException {
+    if (moves == null) {
+      throw new IllegalArgumentException("Moves must not be null");
+    }
+    if (firingSolution == null) {
+      throw new IllegalArgumentException("Firing solution must not be null");
+    }
+    this.moves = Collections.unmodifiableList(new ArrayList<Direction>(moves));
+    this.length = length;
+    this.firingSolution = firingSolution;
+  }
+
+  /**
+   * Gets the directions to move in, which is empty if
+   * the wumpus can be shot from the player's room.
+   * @return an unmodifiable list of the moves
+   */
+  public List<Direction> getMoves() {
+    return moves;
+  }
+
+  /**
+   * Gets the number of rooms entered while making the moves,
+   * counting every room of the tunnels that are walked through.
+   * @return the length of the route
+   */
+  public int getLength() {
+    return length;
+  }
+
+  /**
+   * Gets the shot to take once the moves have been made.
+   * @return the firing solution
+   */
+  public FiringSolution getFiringSolution() {
+    return firingSolution;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder();
+    if (!moves.isEmpty()) {
+      builder.append("move ");
+      for (int i = 0; i < moves.size(); ++i) {
+        if (i > 0) {
+          builder.append(", ");
+        }
+        builder.append(moves.get(i).toString().toLowerCase());
+      }
+      builder.append(", then ");
+    }
+    int distance = firingSolution.getDistance();
+    builder.append(
+        String.format(
+            "shoot %s %d %s",
+            firingSolution.getDirection().toString().toLowerCase(),
+            distance,
+            distance == 1 ? "room" : "rooms"));
+    if (moves.isEmpty()) {
+      builder.append(" from here");
+    }
+    return builder.toString();
+  }
+}
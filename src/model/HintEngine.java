@@ -0,0 +1,218 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds the shortest safe route from a room to the nearest room that an
+ * arrow can be shot into a target room from. Rooms are the caves of an
+ * {@link ArrowIndex}, joined by tunnels that are weighted by the number of
+ * rooms walked through, and a route never enters a room with a hazard.
+ *
+ * <p>The first hint runs a single search outwards from every room that the
+ * target can be shot from at once, following the tunnels backwards. That
+ * leaves each room with its distance to the nearest of them and the first
+ * move of a shortest route, so every hint after it only walks its own route.
+ * The search keeps its distances, moves and priority queue in arrays of
+ * primitives, and an instance must not be used by several threads at once.
+ * @author Liam Scholte
+ *
+ */
+public class HintEngine {
+
+  private static final Direction[] DIRECTIONS = Direction.values();
+  private static final int UNREACHED = -1;
+
+  private final ArrowIndex arrowIndex;
+  private final int maxShootDistance;
+
+  //The shortest shot into the target from each room, with a
+  //distance of 0 for the rooms the target cannot be shot from
+  private final int[] shotDistances;
+  private final Direction[] shotDirections;
+
+  //The length of the shortest safe route from each room, or UNREACHED if
+  //there is none, and the first move of the route as (nextRoom * 4 + direction)
+  private int[] routeLengths;
+  private int[] firstMoves;
+
+  //A binary heap of rooms ordered by ((long)routeLength << 32 | room)
+  private long[] heap;
+  private int heapSize;
+
+  /**
+   * Constructs a hint engine for shooting into a room.
+   * @param arrowIndex the index of the shots between rooms
+   * @param targetRoom the room to shoot into
+   * @param maxShootDistance the greatest distance that an arrow may be shot
+   * @throws IllegalArgumentException if the index or room is null
+   *      or the distance is not between 1 and the index's maximum distance
+   */
+  public HintEngine(ArrowIndex arrowIndex, ReadOnlyRoom targetRoom, int maxShootDistance)
+      throws IllegalArgumentException {
+    if (arrowIndex == null) {
+      throw new IllegalArgumentException("Arrow index must not be null");
+    }
+    if (targetRoom == null) {
+      throw new IllegalArgumentException("Target room must not be null");
+    }
+    if (maxShootDistance < 1 || maxShootDistance > arrowIndex.getMaxDistance()) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Maximum shoot distance must be between 1 and %d",
+              arrowIndex.getMaxDistance()));
+    }
+    this.arrowIndex = arrowIndex;
+    this.maxShootDistance = maxShootDistance;
+
+    int roomCount = arrowIndex.getRoomCount();
+    shotDistances = new int[roomCount];
+    shotDirections = new Direction[roomCount];
+    for (FiringSolution solution : arrowIndex.getFiringSolutions(targetRoom)) {
+      int room = arrowIndex.getRoomIndex(solution.getRoom());
+      int distance = solution.getDistance();
+      if (distance > maxShootDistance || !isSafe(solution.getRoom())) {
+        continue;
+      }
+      if (shotDistances[room] == 0 || distance < shotDistances[room]) {
+        shotDistances[room] = distance;
+        shotDirections[room] = solution.getDirection();
+      }
+    }
+  }
+
+  /**
+   * Gets the greatest distance that the hints shoot an arrow.
+   * @return the maximum shoot distance
+   */
+  public int getMaxShootDistance() {
+    return maxShootDistance;
+  }
+
+  /**
+   * Finds the shortest route from a room to a room that the target can be
+   * shot from, without entering a room with a pit, the wumpus or bats.
+   * @param startingRoom the room to start from
+   * @return the route and the shot to take at its end, or null if no such
+   *      route exists, the room has a hazard or the room is not in the index
+   * @throws IllegalArgumentException if the room is null
+   */
+  public Hint findHint(ReadOnlyRoom startingRoom) throws IllegalArgumentException {
+    if (startingRoom == null) {
+      throw new IllegalArgumentException("Starting room must not be null");
+    }
+    int room = arrowIndex.getRoomIndex(startingRoom);
+    if (room < 0) {
+      return null;
+    }
+
+    findRoutes();
+    if (routeLengths[room] == UNREACHED) {
+      return null;
+    }
+
+    //Every tunnel has a length, so only the end of a route has a length of 0
+    int length = routeLengths[room];
+    List<Direction> moves = new ArrayList<Direction>();
+    while (routeLengths[room] > 0) {
+      moves.add(DIRECTIONS[firstMoves[room] % DIRECTIONS.length]);
+      room = firstMoves[room] / DIRECTIONS.length;
+    }
+    return new Hint(
+        moves,
+        length,
+        new FiringSolution(arrowIndex.getRoom(room), shotDirections[room], shotDistances[room]));
+  }
+
+  private void findRoutes() {
+    if (routeLengths != null) {
+      return;
+    }
+
+    int roomCount = shotDistances.length;
+    routeLengths = new int[roomCount];
+    firstMoves = new int[roomCount];
+    Arrays.fill(routeLengths, UNREACHED);
+    heap = new long[64];
+    heapSize = 0;
+    for (int room = 0; room < roomCount; ++room) {
+      if (shotDistances[room] != 0) {
+        routeLengths[room] = 0;
+        offer(room);
+      }
+    }
+
+    while (heapSize > 0) {
+      long entry = poll();
+      int room = (int)entry;
+      if ((int)(entry >>> 32) > routeLengths[room]) {
+        continue;
+      }
+
+      //A tunnel that leaves this room and arrives in another room
+      //is walked from that room by turning back at its end
+      ReadOnlyRoom current = arrowIndex.getRoom(room);
+      for (Direction direction : DIRECTIONS) {
+        int previous = arrowIndex.getNextRoom(room, direction);
+        if (previous < 0 || !isSafe(arrowIndex.getRoom(previous))) {
+          continue;
+        }
+        Direction move = arrowIndex.getNextDirection(room, direction).getOpposite();
+        if (arrowIndex.getNextRoom(previous, move) != room) {
+          continue;
+        }
+        int length = routeLengths[room] + current.getTunnelLength(direction);
+        if (routeLengths[previous] == UNREACHED || length < routeLengths[previous]) {
+          routeLengths[previous] = length;
+          firstMoves[previous] = room * DIRECTIONS.length + move.ordinal();
+          offer(previous);
+        }
+      }
+    }
+    heap = null;
+  }
+
+  private void offer(int room) {
+    long entry = ((long)routeLengths[room] << 32) | room;
+    if (heapSize == heap.length) {
+      heap = Arrays.copyOf(heap, heap.length * 2);
+    }
+    int child = heapSize++;
+    while (child > 0) {
+      int parent = (child - 1) >>> 1;
+      if (heap[parent] <= entry) {
+        break;
+      }
+      heap[child] = heap[parent];
+      child = parent;
+    }
+    heap[child] = entry;
+  }
+
+  private long poll() {
+    long first = heap[0];
+    long last = heap[--heapSize];
+    int parent = 0;
+    while (true) {
+      int child = parent * 2 + 1;
+      if (child >= heapSize) {
+        break;
+      }
+      if (child + 1 < heapSize && heap[child + 1] < heap[child]) {
+        ++child;
+      }
+      if (last <= heap[child]) {
+        break;
+      }
+      heap[parent] = heap[child];
+      parent = child;
+    }
+    heap[parent] = last;
+    return first;
+  }
+
+  private static boolean isSafe(ReadOnlyRoom room) {
+    return !room.hasPit() && !room.hasWumpus() && !room.hasBats();
+  }
+}
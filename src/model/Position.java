@@ -1,7 +1,5 @@
 package model;
 
-import java.util.Objects;
-
 /**
  * Represents a position in an XY-plane.
  * @author Liam Scholte
@@ -38,6 +36,53 @@ public final class Position {
     return y;
   }
   
+  /**
+   * Packs the coordinates into a single long, for use as a primitive key.
+   * @return the packed coordinates
+   */
+  public long pack() {
+    return pack(x, y);
+  }
+  
+  /**
+   * Packs coordinates into a single long, for use as a primitive key.
+   * The X coordinate is in the high 32 bits and the Y coordinate
+   * is in the low 32 bits.
+   * @param x the X coordinate
+   * @param y the Y coordinate
+   * @return the packed coordinates
+   */
+  public static long pack(int x, int y) {
+    return (long)x << 32 | (y & 0xffffffffL);
+  }
+  
+  /**
+   * Gets the X coordinate from packed coordinates.
+   * @param packedPosition the packed coordinates
+   * @return the X coordinate
+   */
+  public static int unpackX(long packedPosition) {
+    return (int)(packedPosition >> 32);
+  }
+  
+  /**
+   * Gets the Y coordinate from packed coordinates.
+   * @param packedPosition the packed coordinates
+   * @return the Y coordinate
+   */
+  public static int unpackY(long packedPosition) {
+    return (int)packedPosition;
+  }
+  
+  /**
+   * Constructs a position from packed coordinates.
+   * @param packedPosition the packed coordinates
+   * @return the position
+   */
+  public static Position unpack(long packedPosition) {
+    return new Position(unpackX(packedPosition), unpackY(packedPosition));
+  }
+  
   @Override
   public String toString() {
     return String.format("(%d, %d)", x, y);
@@ -45,14 +90,14 @@ public final class Position {
   
   @Override
   public boolean equals(Object other) {
-    if (!(other instanceof Position)) {
-      return false;
-    }
-    
     if (this == other) {
       return true;
     }
     
+    if (!(other instanceof Position)) {
+      return false;
+    }
+    
     Position otherPosition = (Position)other;
     
     return x == otherPosition.x && y == otherPosition.y;
@@ -60,6 +105,7 @@ public final class Position {
   
   @Override
   public int hashCode() {
-    return Objects.hash(x, y);
+    //The same value as Objects.hash(x, y) without boxing the coordinates
+    return 31 * (31 + x) + y;
   }
 }
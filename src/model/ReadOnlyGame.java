@@ -29,6 +29,18 @@ public interface ReadOnlyGame {
    */
   public boolean isWinnable() throws IllegalStateException;
   
+  /**
+   * Finds the shortest route that the current player can walk, without
+   * entering a room with a hazard, to a room that the wumpus can be shot
+   * from, along with the shot to take there.
+   * @return the hint, or null if the game is over, the player has no
+   *      arrows or no such route exists
+   * @throws IllegalStateException if the game has not started
+   */
+  public default Hint getHint() throws IllegalStateException {
+    return null;
+  }
+  
   /**
    * Determines if the game is over.
    * @return {@code true} if the game is over,
@@ -48,7 +60,8 @@ public interface ReadOnlyGame {
   
   /**
    * Gets all players in the game.
-   * @return the players in the game
+   * @return the players in the game, which may be
+   *      an unmodifiable view of the game's own list
    */  
   public List<ReadOnlyPlayer> getPlayers();
   
@@ -37,6 +37,16 @@ public interface ReadOnlyRoom  {
    */
   public Position getPosition();
   
+  /**
+   * Gets the index of the room's cell within its maze, where
+   * the cells are numbered row by row from 0.
+   * @return the index of the cell, or -1 if the room does
+   *      not belong to a maze that numbers its cells
+   */
+  public default int getCellIndex() {
+    return -1;
+  }
+  
   /**
    * Determines if this room has bats.
    * @return {@code true} if the room has bats,
@@ -104,4 +114,36 @@ public interface ReadOnlyRoom  {
    *      neighbouring room.
    */
   public Heading getNonHallNeighbour(Direction direction);
+  
+  /**
+   * Gets the number of rooms entered when travelling from this room to
+   * the next non-hallway room in the specified direction, including that
+   * room. A room with no neighbour in the direction has a tunnel length of 0,
+   * and a tunnel in a ring of hallways ends when it leads back to this room.
+   * @param direction the direction of travel
+   * @return the number of rooms in the tunnel
+   */
+  public default int getTunnelLength(Direction direction) {
+    Direction heading = direction;
+    ReadOnlyRoom room = getNeighbour(direction);
+    int length = 0;
+    while (room != null) {
+      ++length;
+      //Hallways cannot branch, so a tunnel with no end
+      //is a ring that leads back to this room
+      if (!room.isHallway() || room.equals(this)) {
+        return length;
+      }
+      //A hallway is left through whichever exit was not the way in
+      Direction entrance = heading.getOpposite();
+      for (Direction exit : room.getAvailableDirections()) {
+        if (exit != entrance) {
+          heading = exit;
+          break;
+        }
+      }
+      room = room.getNeighbour(heading);
+    }
+    return 0;
+  }
 }
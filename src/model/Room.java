@@ -5,14 +5,12 @@ import model.actions.EmptyRoomAction;
 import model.actions.PitRoomAction;
 import model.actions.RoomAction;
 import model.actions.WumpusRoomAction;
+import model.maze.ExplorationLog;
 import model.maze.Maze;
 
-import java.util.EnumMap;
-import java.util.EnumSet;
-import java.util.Map;
+import java.util.Arrays;
 import java.util.Random;
 import java.util.Set;
-import java.util.function.Predicate;
 
 /**
  * Represents a room within a maze.
@@ -22,9 +20,17 @@ import java.util.function.Predicate;
  */
 public class Room implements ReadOnlyRoom {
 
+  private static final int BATS_NEARBY = 1;
+  private static final int PIT_NEARBY = 2;
+  private static final int WUMPUS_NEARBY = 4;
+  private static final int NEARBY_HAZARDS_UNKNOWN = -1;
+
   private final Position position;
 
-  private Map<Direction, Room> roomMap;
+  //The neighbour in each direction, indexed by ordinal,
+  //and the bits of the directions that have a neighbour
+  private final Room[] neighbours;
+  private int exitMask;
 
   private RoomAction roomAction;
 
@@ -33,6 +39,21 @@ public class Room implements ReadOnlyRoom {
   private boolean hasBats;
   
   private boolean isExplored;
+  private final ExplorationLog explorationLog;
+  private final int index;
+  
+  //The tunnel leaving in each direction, indexed by ordinal,
+  //and the rooms whose tunnels pass through or end at this room
+  private Tunnel[] tunnels;
+  private Room[] dependentRooms;
+  private int dependentRoomCount;
+  
+  //The hazards in the rooms at the ends of the tunnels
+  private int nearbyHazards;
+  
+  //Set once the maze that the room belongs to is built, since the
+  //maze and the games played in it keep what they learn about it
+  private boolean isLayoutFixed;
 
   /**
    * Constructs a room in a maze.
@@ -40,9 +61,28 @@ public class Room implements ReadOnlyRoom {
    * @param position the position of the room
    */
   public Room(Position position) {
+    this(position, null, -1);
+  }
+  
+  /**
+   * Constructs a room in a maze that records in a log when it is explored.
+   * 
+   * @param position the position of the room
+   * @param explorationLog the log of explored rooms in the maze, or null
+   * @param index the index of the room within the log
+   * @throws IllegalArgumentException if there is a log and the index is negative
+   */
+  public Room(Position position, ExplorationLog explorationLog, int index)
+      throws IllegalArgumentException {
+    if (explorationLog != null && index < 0) {
+      throw new IllegalArgumentException("Index must not be negative");
+    }
     this.position = position;
+    this.explorationLog = explorationLog;
+    this.index = index;
     
-    roomMap = new EnumMap<Direction, Room>(Direction.class);
+    neighbours = new Room[Direction.values().length];
+    exitMask = 0;
     roomAction = new EmptyRoomAction();
 
     hasPit = false;
@@ -50,6 +90,8 @@ public class Room implements ReadOnlyRoom {
     hasBats = false;    
     
     isExplored = false;
+    
+    nearbyHazards = NEARBY_HAZARDS_UNKNOWN;
   }
 
   @Override
@@ -59,7 +101,7 @@ public class Room implements ReadOnlyRoom {
   
   @Override
   public int getExitCount() {
-    return (int)roomMap.values().stream().filter(room -> room != null).count();
+    return Integer.bitCount(exitMask);
   }
 
   @Override
@@ -71,7 +113,13 @@ public class Room implements ReadOnlyRoom {
    * Marks the room as explored.
    */
   public void explore() {
+    if (isExplored) {
+      return;
+    }
     isExplored = true;
+    if (explorationLog != null) {
+      explorationLog.record(index, this);
+    }
   }
 
   @Override
@@ -79,6 +127,11 @@ public class Room implements ReadOnlyRoom {
     return position;
   }
   
+  @Override
+  public int getCellIndex() {
+    return index;
+  }
+  
   @Override
   public boolean hasBats() {
     return hasBats;
@@ -96,25 +149,64 @@ public class Room implements ReadOnlyRoom {
   
   @Override
   public boolean areBatsNearby() {
-    return isSomethingNearby(roomToCheck -> roomToCheck.hasBats());
+    return (getNearbyHazards() & BATS_NEARBY) != 0;
   }
   
   @Override
   public boolean isPitNearby() {
-    return isSomethingNearby(roomToCheck -> roomToCheck.hasPit());
+    return (getNearbyHazards() & PIT_NEARBY) != 0;
   }
   
   @Override
   public boolean isWumpusNearby() {
-    return isSomethingNearby(roomToCheck -> roomToCheck.hasWumpus());
+    return (getNearbyHazards() & WUMPUS_NEARBY) != 0;
   }
   
-  private boolean isSomethingNearby(Predicate<ReadOnlyRoom> predicate) {
-    if (isHallway()) {
-      return false;
+  /**
+   * Gets the hazards in the neighbouring non-hallway rooms, finding
+   * them only if the tunnels or hazards have changed since the last call.
+   */
+  private int getNearbyHazards() {
+    if (nearbyHazards == NEARBY_HAZARDS_UNKNOWN) {
+      nearbyHazards = 0;
+      if (!isHallway()) {
+        for (Direction direction : getAvailableDirections()) {
+          nearbyHazards |= getNonHallNeighbour(direction, false).getMutableRoom().getHazards();
+        }
+      }
     }
-    for (Direction direction : getAvailableDirections()) {
-      if (predicate.test(getNonHallNeighbour(direction, false).getRoom())) {
+    return nearbyHazards;
+  }
+  
+  private int getHazards() {
+    int hazards = 0;
+    if (hasBats) {
+      hazards |= BATS_NEARBY;
+    }
+    if (hasPit) {
+      hazards |= PIT_NEARBY;
+    }
+    if (hasWumpus) {
+      hazards |= WUMPUS_NEARBY;
+    }
+    return hazards;
+  }
+  
+  /**
+   * Tells the rooms whose tunnels end at this room that it has a new hazard.
+   */
+  private void addNearbyHazard(int hazard) {
+    for (int i = 0; i < dependentRoomCount; ++i) {
+      Room room = dependentRooms[i];
+      if (room.nearbyHazards != NEARBY_HAZARDS_UNKNOWN && room.hasTunnelEndingAt(this)) {
+        room.nearbyHazards |= hazard;
+      }
+    }
+  }
+  
+  private boolean hasTunnelEndingAt(Room room) {
+    for (Tunnel tunnel : tunnels) {
+      if (tunnel != null && tunnel.end.getMutableRoom() == room) {
         return true;
       }
     }
@@ -123,14 +215,7 @@ public class Room implements ReadOnlyRoom {
   
   @Override
   public Set<Direction> getAvailableDirections() {
-    Set<Direction> availableDirections = EnumSet.noneOf(Direction.class);
-    for (Direction direction : Direction.values()) {
-      if (getNeighbour(direction) != null) {
-        availableDirections.add(direction);
-      }
-    }
-    
-    return availableDirections;
+    return Direction.fromMask(exitMask);
   }
   
   @Override
@@ -139,9 +224,11 @@ public class Room implements ReadOnlyRoom {
   }
 
   private Room getNeighbour(Direction direction, boolean shouldVisit) {
-    Room neighbour = roomMap.get(direction);
+    Room neighbour = neighbours[direction.ordinal()];
     if (neighbour != null) {
-      neighbour.isExplored |= shouldVisit;      
+      if (shouldVisit) {
+        neighbour.explore();
+      }
     }
     return neighbour;
   }
@@ -152,23 +239,110 @@ public class Room implements ReadOnlyRoom {
   }
   
   private MutableHeading getNonHallNeighbour(Direction direction, boolean shouldVisit) {
-    Room nextRoom = getNeighbour(direction, shouldVisit);
-    while (nextRoom != null && nextRoom.isHallway()) {   
-      for (Direction directionToTry : Direction.values()) {
-        if (directionToTry == direction.getOpposite()) {
-          continue;
-        }
-        
-        Room possibleNextRoom = nextRoom.getNeighbour(directionToTry, shouldVisit);
-        if (possibleNextRoom != null) {
-          nextRoom = possibleNextRoom;
-          direction = directionToTry;
-          break;
-        }
+    Tunnel tunnel = getTunnel(direction);
+    if (shouldVisit) {
+      for (Room room : tunnel.path) {
+        room.explore();
+      }
+    }
+    return tunnel.end;
+  }
+  
+  @Override
+  public int getTunnelLength(Direction direction) {
+    return getTunnel(direction).path.length;
+  }
+  
+  /**
+   * Gets the tunnel leaving in the specified direction,
+   * following the hallways the first time it is requested.
+   */
+  private Tunnel getTunnel(Direction direction) {
+    if (tunnels == null) {
+      tunnels = new Tunnel[Direction.values().length];
+    }
+    Tunnel tunnel = tunnels[direction.ordinal()];
+    if (tunnel == null) {
+      tunnel = findTunnel(direction);
+      tunnels[direction.ordinal()] = tunnel;
+      for (Room room : tunnel.path) {
+        room.addDependentRoom(this);
+      }
+    }
+    return tunnel;
+  }
+  
+  private Tunnel findTunnel(Direction direction) {
+    Room nextRoom = neighbours[direction.ordinal()];
+    int pathLength = 0;
+    Room[] path = new Room[nextRoom == null ? 0 : 1];
+    if (nextRoom != null) {
+      path[pathLength++] = nextRoom;
+    }
+    
+    //A ring made only of hallways has no end, so
+    //stop if the tunnel leads back to this room
+    while (nextRoom != null && nextRoom.isHallway() && nextRoom != this) {
+      //A hallway has exactly one exit other than the one just entered
+      int exitsAhead = nextRoom.exitMask & ~direction.getOpposite().getMask();
+      direction = Direction.fromOrdinal(Integer.numberOfTrailingZeros(exitsAhead));
+      nextRoom = nextRoom.neighbours[direction.ordinal()];
+      
+      if (pathLength == path.length) {
+        path = Arrays.copyOf(path, 2 * pathLength);
       }
+      path[pathLength++] = nextRoom;
     }
     
-    return new MutableHeading(nextRoom, direction); 
+    return new Tunnel(
+        new MutableHeading(nextRoom, direction),
+        Arrays.copyOf(path, pathLength));
+  }
+  
+  /**
+   * Forgets the tunnels that start at, pass through or end at this room
+   * since they may have changed.
+   */
+  private void invalidateTunnels() {
+    clearTunnels();
+    while (dependentRoomCount > 0) {
+      dependentRooms[dependentRoomCount - 1].clearTunnels();
+    }
+  }
+  
+  private void clearTunnels() {
+    nearbyHazards = NEARBY_HAZARDS_UNKNOWN;
+    if (tunnels == null) {
+      return;
+    }
+    for (int i = 0; i < tunnels.length; ++i) {
+      if (tunnels[i] != null) {
+        for (Room room : tunnels[i].path) {
+          room.removeDependentRoom(this);
+        }
+        tunnels[i] = null;
+      }
+    }
+  }
+  
+  private void addDependentRoom(Room room) {
+    if (dependentRooms == null) {
+      dependentRooms = new Room[2];
+    }
+    else if (dependentRoomCount == dependentRooms.length) {
+      dependentRooms = Arrays.copyOf(dependentRooms, 2 * dependentRoomCount);
+    }
+    dependentRooms[dependentRoomCount++] = room;
+  }
+  
+  private void removeDependentRoom(Room room) {
+    for (int i = 0; i < dependentRoomCount; ++i) {
+      if (dependentRooms[i] == room) {
+        dependentRooms[i] = dependentRooms[--dependentRoomCount];
+        dependentRooms[dependentRoomCount] = null;
+        return;
+      }
+    }
   }
   
   /**
@@ -197,24 +371,74 @@ public class Room implements ReadOnlyRoom {
     return getNonHallNeighbour(direction, true);
   }
 
+  /**
+   * Fixes the neighbours and hazards of the room, so that they can no longer
+   * be changed. The room can still be explored and entered.
+   */
+  public void fixLayout() {
+    isLayoutFixed = true;
+  }
+  
+  /**
+   * Gets whether the neighbours and hazards of the room can no longer be changed.
+   * @return true if the layout of the room is fixed
+   */
+  public boolean isLayoutFixed() {
+    return isLayoutFixed;
+  }
+  
   /**
    * Sets the room in the specified direction.
    * 
    * @param direction the direction of the room
    * @param room the room to set
+   * @throws IllegalStateException if the layout of this room, the room
+   *      being replaced or the room to set is fixed
    */
-  public void setNeighbour(Direction direction, Room room) {
+  public void setNeighbour(Direction direction, Room room) throws IllegalStateException {
+    Room otherRoom = neighbours[direction.ordinal()];
+    checkLayoutNotFixed();
+    if (otherRoom != null) {
+      otherRoom.checkLayoutNotFixed();
+    }
+    if (room != null) {
+      room.checkLayoutNotFixed();
+    }
     if (room == null) {
-      Room otherRoom = roomMap.get(direction);
       if (otherRoom == null) {
         return;
       }
-      roomMap.put(direction, null);
-      otherRoom.roomMap.put(direction.getOpposite(), null);
+      otherRoom.putNeighbour(direction.getOpposite(), null);
+      putNeighbour(direction, null);
     }
     else {
-      roomMap.put(direction, room);
-      room.roomMap.put(direction.getOpposite(), this); 
+      putNeighbour(direction, room);
+      room.putNeighbour(direction.getOpposite(), this); 
+    }
+    
+    //Only tunnels through the rooms whose neighbours changed are affected
+    invalidateTunnels();
+    if (otherRoom != null) {
+      otherRoom.invalidateTunnels();
+    }
+    if (room != null) {
+      room.invalidateTunnels();
+    }
+  }
+
+  private void checkLayoutNotFixed() throws IllegalStateException {
+    if (isLayoutFixed) {
+      throw new IllegalStateException("The layout of the room is fixed");
+    }
+  }
+
+  private void putNeighbour(Direction direction, Room room) {
+    neighbours[direction.ordinal()] = room;
+    if (room == null) {
+      exitMask &= ~direction.getMask();
+    }
+    else {
+      exitMask |= direction.getMask();
     }
   }
 
@@ -228,44 +452,86 @@ public class Room implements ReadOnlyRoom {
   }
   
   /**
-   * Adds bats to this room.
+   * Adds bats to this room that move players unpredictably.
    * @param maze the maze of possible rooms that
    *      the bats could teleport a player to
    * @throws IllegalStateException if the room already has bats
+   *      or the layout of the room is fixed
    * @throws IllegalArgumentException if the maze is null
    */
   public void addBats(Maze maze) throws IllegalStateException, IllegalArgumentException {
+    addBats(maze, new Random());
+  }
+  
+  /**
+   * Adds bats to this room.
+   * @param maze the maze of possible rooms that
+   *      the bats could teleport a player to
+   * @param random the source of randomness for the bats, which
+   *      should not be shared with other bats if games are to be replayed
+   * @throws IllegalStateException if the room already has bats
+   *      or the layout of the room is fixed
+   * @throws IllegalArgumentException if the maze or random number generator is null
+   */
+  public void addBats(Maze maze, Random random)
+      throws IllegalStateException, IllegalArgumentException {
+    checkLayoutNotFixed();
     if (hasBats) {
       throw new IllegalStateException("Room already has bats");
     }
     if (maze == null) {
       throw new IllegalArgumentException("Maze cannot be null");
     }
+    if (random == null) {
+      throw new IllegalArgumentException("Random cannot be null");
+    }
     hasBats = true;
-    roomAction = new BatsRoomAction(maze, new Random(), roomAction);
+    roomAction = new BatsRoomAction(maze, random, roomAction);
+    addNearbyHazard(BATS_NEARBY);
   }
 
   /**
    * Adds a pit to this room.
    * @throws IllegalStateException if the room already has a pit
+   *      or the layout of the room is fixed
    */
   public void addPit() throws IllegalStateException {
+    checkLayoutNotFixed();
     if (hasPit) {
       throw new IllegalStateException("Room already has a pit");
     }
     hasPit = true;
     roomAction = new PitRoomAction(roomAction);
+    addNearbyHazard(PIT_NEARBY);
   }
 
   /**
    * Adds a wumpus to this room.
    * @throws IllegalStateException if the room already has a wumpus
+   *      or the layout of the room is fixed
    */
   public void addWumpus() throws IllegalStateException {
+    checkLayoutNotFixed();
     if (hasWumpus) {
       throw new IllegalStateException("Room already has a wumpus");
     }
     hasWumpus = true;
     roomAction = new WumpusRoomAction(roomAction);
+    addNearbyHazard(WUMPUS_NEARBY);
+  }
+  
+  /**
+   * The path from a room to the next non-hallway room in one direction.
+   * @author Liam Scholte
+   *
+   */
+  private static class Tunnel {
+    private final MutableHeading end;
+    private final Room[] path;
+    
+    public Tunnel(MutableHeading end, Room[] path) {
+      this.end = end;
+      this.path = path;
+    }
   }
 }
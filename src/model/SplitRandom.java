@@ -0,0 +1,127 @@
+package model;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * A {@link Random} backed by a {@link SplittableRandom}, so that it can be
+ * passed anywhere a Random is expected while still being split into
+ * independent streams. Splitting is cheap and fully determined by the seed
+ * and the order of calls, so a whole game, or many games simulated in
+ * parallel, can be reproduced from one seed by giving each consumer of
+ * randomness its own stream.
+ *
+ * <p>Unlike Random, instances are not safe to share between threads.
+ * Split a stream for each thread instead.
+ * @author Liam Scholte
+ *
+ */
+public class SplitRandom extends Random {
+
+  /**
+   * The stream of a game's seed that generates the layout of the maze.
+   */
+  public static final int LAYOUT_STREAM = 0;
+
+  /**
+   * The stream of a game's seed that places the bats, pits and wumpus.
+   */
+  public static final int HAZARD_STREAM = 1;
+
+  /**
+   * The stream of a game's seed that is split between the rooms with bats.
+   */
+  public static final int BAT_STREAM = 2;
+
+  /**
+   * The stream of a game's seed that makes the decisions of simulated players.
+   */
+  public static final int POLICY_STREAM = 3;
+
+  private static final long serialVersionUID = 1L;
+
+  private SplittableRandom splittableRandom;
+
+  /**
+   * Constructs a random number generator.
+   * @param seed the seed of the generator
+   */
+  public SplitRandom(long seed) {
+    this(new SplittableRandom(seed));
+  }
+
+  private SplitRandom(SplittableRandom splittableRandom) {
+    this.splittableRandom = splittableRandom;
+  }
+
+  /**
+   * Gets one of the independent streams of a seed. The streams are the
+   * generators split in turn from a generator with the seed, so the same
+   * seed and stream always give the same numbers.
+   * @param seed the seed that the streams are split from
+   * @param stream the index of the stream, such as {@link #LAYOUT_STREAM}
+   * @return a generator for the stream
+   * @throws IllegalArgumentException if the stream is negative
+   */
+  public static SplitRandom forStream(long seed, int stream) throws IllegalArgumentException {
+    if (stream < 0) {
+      throw new IllegalArgumentException("Stream must not be negative");
+    }
+    SplittableRandom root = new SplittableRandom(seed);
+    for (int i = 0; i < stream; ++i) {
+      root.split();
+    }
+    return new SplitRandom(root.split());
+  }
+
+  /**
+   * Splits off a new generator whose numbers are independent of this one's.
+   * Both generators advance this generator's state, so splitting in the
+   * same order always gives the same streams.
+   * @return the new generator
+   */
+  public SplitRandom split() {
+    return new SplitRandom(splittableRandom.split());
+  }
+
+  /**
+   * Restarts the generator from a seed.
+   * @param seed the new seed
+   */
+  @Override
+  public synchronized void setSeed(long seed) {
+    //Also called by the constructor of Random before the
+    //constructors of this class replace the generator
+    splittableRandom = new SplittableRandom(seed);
+  }
+
+  @Override
+  protected int next(int bits) {
+    return splittableRandom.nextInt() >>> (32 - bits);
+  }
+
+  @Override
+  public int nextInt() {
+    return splittableRandom.nextInt();
+  }
+
+  @Override
+  public int nextInt(int bound) {
+    return splittableRandom.nextInt(bound);
+  }
+
+  @Override
+  public long nextLong() {
+    return splittableRandom.nextLong();
+  }
+
+  @Override
+  public boolean nextBoolean() {
+    return splittableRandom.nextBoolean();
+  }
+
+  @Override
+  public double nextDouble() {
+    return splittableRandom.nextDouble();
+  }
+}
@@ -0,0 +1,94 @@
+package model;
+
+/**
+ * A reusable position and direction of travel for following tunnels
+ * from one non-hallway room to the next. Unlike {@link Heading}, a cursor
+ * is updated in place, so following a long path such as the flight of an
+ * arrow needs only one cursor. The headings of a {@link Room} are cached,
+ * so advancing through rooms does not create any objects.
+ * @author Liam Scholte
+ *
+ */
+public class TunnelCursor {
+
+  private ReadOnlyRoom room;
+  private Direction direction;
+
+  /**
+   * Constructs a cursor.
+   * @param room the starting room
+   * @param direction the direction of travel
+   * @throws IllegalArgumentException if the room or direction is null
+   */
+  public TunnelCursor(ReadOnlyRoom room, Direction direction) throws IllegalArgumentException {
+    reset(room, direction);
+  }
+
+  /**
+   * Moves the cursor to a new starting room and direction.
+   * @param room the starting room
+   * @param direction the direction of travel
+   * @throws IllegalArgumentException if the room or direction is null
+   */
+  public void reset(ReadOnlyRoom room, Direction direction) throws IllegalArgumentException {
+    if (room == null) {
+      throw new IllegalArgumentException("Room must not be null");
+    }
+    if (direction == null) {
+      throw new IllegalArgumentException("Direction must not be null");
+    }
+    this.room = room;
+    this.direction = direction;
+  }
+
+  /**
+   * Gets the room the cursor is in.
+   * @return the current room
+   */
+  public ReadOnlyRoom getRoom() {
+    return room;
+  }
+
+  /**
+   * Gets the direction of travel, which is the direction
+   * the cursor was travelling when it entered the current room.
+   * @return the direction of travel
+   */
+  public Direction getDirection() {
+    return direction;
+  }
+
+  /**
+   * Moves the cursor through the tunnel ahead to the next non-hallway room.
+   * The cursor does not move if the current room has no exit in the
+   * direction of travel.
+   * @return {@code true} if the cursor moved, {@code false} otherwise
+   */
+  public boolean advance() {
+    Heading heading = room.getNonHallNeighbour(direction);
+    if (heading.getRoom() == null) {
+      return false;
+    }
+    room = heading.getRoom();
+    direction = heading.getDirection();
+    return true;
+  }
+
+  /**
+   * Moves the cursor through up to the specified number of tunnels,
+   * stopping early if there is no exit in the direction of travel.
+   * @param distance the number of tunnels to move through
+   * @return the number of tunnels moved through
+   * @throws IllegalArgumentException if the distance is negative
+   */
+  public int advance(int distance) throws IllegalArgumentException {
+    if (distance < 0) {
+      throw new IllegalArgumentException("Distance must not be negative");
+    }
+    int travelled = 0;
+    while (travelled < distance && advance()) {
+      ++travelled;
+    }
+    return travelled;
+  }
+}
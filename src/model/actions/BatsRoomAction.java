@@ -3,6 +3,7 @@ package model.actions;
 import model.Room;
 import model.maze.Maze;
 import model.player.ModelPlayer;
+import model.player.PlayerEventArgs;
 
 import java.util.List;
 import java.util.Random;
@@ -39,14 +40,19 @@ public class BatsRoomAction extends CompositeRoomAction {
     }
     
     if (random.nextBoolean()) {
-      player.getTakenByBatsEvent().raise();
-      
       List<Room> rooms = maze.getMutableRooms();
       Room destinationRoom = rooms.get(random.nextInt(rooms.size()));
+      if (player.getTakenByBatsEvent().hasListeners()) {
+        player.getTakenByBatsEvent().raise(
+            new PlayerEventArgs(player, player.getRoom(), destinationRoom));
+      }
+      
       player.setRoom(destinationRoom);
       return true;
     }
-    player.getDodgedBatsEvent().raise();
+    if (player.getDodgedBatsEvent().hasListeners()) {
+      player.getDodgedBatsEvent().raise(new PlayerEventArgs(player, player.getRoom()));
+    }
     return false;
   }
 
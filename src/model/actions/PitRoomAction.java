@@ -1,6 +1,7 @@
 package model.actions;
 
 import model.player.ModelPlayer;
+import model.player.PlayerEventArgs;
 
 /**
  * Represents an action that is performed on a
@@ -25,7 +26,9 @@ public class PitRoomAction extends CompositeRoomAction {
       return true;
     }
     player.kill();
-    player.getFellIntoPitEvent().raise();
+    if (player.getFellIntoPitEvent().hasListeners()) {
+      player.getFellIntoPitEvent().raise(new PlayerEventArgs(player, player.getRoom()));
+    }
     return true;
   }
 
@@ -1,6 +1,7 @@
 package model.actions;
 
 import model.player.ModelPlayer;
+import model.player.PlayerEventArgs;
 
 /**
  * Represents an action that is performed on a
@@ -25,7 +26,9 @@ public class WumpusRoomAction extends CompositeRoomAction {
       return true;
     }
     player.kill();
-    player.getKilledByWumpusEvent().raise();
+    if (player.getKilledByWumpusEvent().hasListeners()) {
+      player.getKilledByWumpusEvent().raise(new PlayerEventArgs(player, player.getRoom()));
+    }
     return true;
   }
 
@@ -0,0 +1,274 @@
+package model.maze;
+
+import model.Direction;
+import model.Position;
+import model.ReadOnlyRoom;
+
+import java.awt.Dimension;
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A maze topology that stores its cells as a pair of
+ * primitive arrays. The topology cannot be modified
+ * once constructed.
+ * @author Liam Scholte
+ *
+ */
+public final class ArrayMazeTopology implements MazeTopology {
+
+  private final int rows;
+  private final int cols;
+  private final boolean wraps;
+
+  private final byte[] exits;
+  private final byte[] hazards;
+
+  /**
+   * Constructs a topology from copies of the specified cells.
+   * @param rows the number of rows in the maze
+   * @param cols the number of columns in the maze
+   * @param wraps whether or not the maze wraps at the edges
+   * @param exits the exit mask of each cell
+   * @param hazards the hazard bits of each cell
+   * @throws IllegalArgumentException if rows or columns is not positive
+   *      or if the cell arrays do not have one entry per cell
+   */
+  public ArrayMazeTopology(int rows, int cols, boolean wraps, byte[] exits, byte[] hazards)
+      throws IllegalArgumentException {
+    this(rows, cols, wraps, exits, hazards, true);
+  }
+
+  private ArrayMazeTopology(
+      int rows,
+      int cols,
+      boolean wraps,
+      byte[] exits,
+      byte[] hazards,
+      boolean copyCells) throws IllegalArgumentException {
+    if (rows < 1 || cols < 1) {
+      throw new IllegalArgumentException(
+          "Number of rows and columns must both be positive");
+    }
+    if (exits == null || hazards == null) {
+      throw new IllegalArgumentException("Cells must not be null");
+    }
+    if (exits.length != rows * cols || hazards.length != rows * cols) {
+      throw new IllegalArgumentException(
+          "There must be exactly one exit mask and hazard entry per cell");
+    }
+    
+    this.rows = rows;
+    this.cols = cols;
+    this.wraps = wraps;
+    this.exits = copyCells ? exits.clone() : exits;
+    this.hazards = copyCells ? hazards.clone() : hazards;
+  }
+
+  /**
+   * Constructs a topology that takes ownership of the specified
+   * cells without copying them. Callers must not modify the
+   * arrays afterwards.
+   * @param rows the number of rows in the maze
+   * @param cols the number of columns in the maze
+   * @param wraps whether or not the maze wraps at the edges
+   * @param exits the exit mask of each cell
+   * @param hazards the hazard bits of each cell
+   * @return the topology
+   */
+  static ArrayMazeTopology adopt(int rows, int cols, boolean wraps, byte[] exits, byte[] hazards) {
+    return new ArrayMazeTopology(rows, cols, wraps, exits, hazards, false);
+  }
+
+  /**
+   * Generates the topology of a randomized maze. This produces the same
+   * layout and hazards as a {@link MazeImpl} constructed with the same
+   * parameters and an identically seeded random number generator, without
+   * creating any room objects.
+   * @param rows the number of rows in the maze
+   * @param cols the number of columns in the maze
+   * @param batCount the number of bats in the maze
+   * @param pitCount the number of pits in the maze
+   * @param wraps whether or not the rooms on the edge of the
+   *      maze wrap to the opposite side
+   * @param random the source of randomness for the maze
+   * @return the generated topology
+   * @throws IllegalArgumentException if rows or columns is not positive
+   * @throws IllegalArgumentException if the number of bats or pits is negative
+   * @throws IllegalArgumentException if dimensions of the maze could not possibly
+   *      support all the required entities (pits, bats, and wumpus)
+   */
+  public static ArrayMazeTopology generate(
+      int rows,
+      int cols,
+      int batCount,
+      int pitCount,
+      boolean wraps,
+      Random random) throws IllegalArgumentException {
+    int minRooms = KruskalMazeGenerator.getMinRooms(rows, cols, batCount, pitCount, wraps);
+    
+    KruskalMazeGenerator generator = new KruskalMazeGenerator(rows, cols, random);
+    generator.generate(wraps, minRooms);
+    byte[] hazards = generator.placeEntities(batCount, pitCount);
+    
+    return adopt(rows, cols, wraps, generator.getExits(), hazards);
+  }
+
+  /**
+   * Generates the topology of a randomized maze, drawing the layout and
+   * the hazards from separate sources of randomness so that either can
+   * be reproduced without the other.
+   * @param rows the number of rows in the maze
+   * @param cols the number of columns in the maze
+   * @param batCount the number of bats in the maze
+   * @param pitCount the number of pits in the maze
+   * @param wraps whether or not the rooms on the edge of the
+   *      maze wrap to the opposite side
+   * @param layoutRandom the source of randomness for the layout
+   * @param hazardRandom the source of randomness for the hazards
+   * @return the generated topology
+   * @throws IllegalArgumentException if rows or columns is not positive
+   * @throws IllegalArgumentException if the number of bats or pits is negative
+   * @throws IllegalArgumentException if dimensions of the maze could not possibly
+   *      support all the required entities (pits, bats, and wumpus)
+   */
+  public static ArrayMazeTopology generate(
+      int rows,
+      int cols,
+      int batCount,
+      int pitCount,
+      boolean wraps,
+      Random layoutRandom,
+      Random hazardRandom) throws IllegalArgumentException {
+    int minRooms = KruskalMazeGenerator.getMinRooms(rows, cols, batCount, pitCount, wraps);
+    
+    KruskalMazeGenerator generator = new KruskalMazeGenerator(rows, cols, layoutRandom);
+    generator.generate(wraps, minRooms);
+    byte[] hazards = generator.placeEntities(batCount, pitCount, hazardRandom);
+    
+    return adopt(rows, cols, wraps, generator.getExits(), hazards);
+  }
+
+  /**
+   * Generates the topology of a randomized maze on multiple threads. This
+   * produces the same layout and hazards as a {@link MazeImpl} constructed
+   * with the same parameters, pool and an identically seeded random number
+   * generator, regardless of the number of threads in the pool.
+   * @param rows the number of rows in the maze
+   * @param cols the number of columns in the maze
+   * @param batCount the number of bats in the maze
+   * @param pitCount the number of pits in the maze
+   * @param wraps whether or not the rooms on the edge of the
+   *      maze wrap to the opposite side
+   * @param random the source of randomness for the maze
+   * @param pool the pool that generates the layout
+   * @return the generated topology
+   * @throws IllegalArgumentException if rows or columns is not positive
+   * @throws IllegalArgumentException if the number of bats or pits is negative
+   * @throws IllegalArgumentException if dimensions of the maze could not possibly
+   *      support all the required entities (pits, bats, and wumpus)
+   */
+  public static ArrayMazeTopology generate(
+      int rows,
+      int cols,
+      int batCount,
+      int pitCount,
+      boolean wraps,
+      Random random,
+      ForkJoinPool pool) throws IllegalArgumentException {
+    int minRooms = KruskalMazeGenerator.getMinRooms(rows, cols, batCount, pitCount, wraps);
+    
+    KruskalMazeGenerator generator = new KruskalMazeGenerator(rows, cols, random);
+    generator.generate(wraps, minRooms, pool);
+    byte[] hazards = generator.placeEntities(batCount, pitCount);
+    
+    return adopt(rows, cols, wraps, generator.getExits(), hazards);
+  }
+
+  /**
+   * Captures the current layout of a maze, including its hallways,
+   * by walking outwards from its non-hallway rooms.
+   * @param maze the maze to capture
+   * @return a topology with the same layout and hazards as the maze
+   * @throws IllegalArgumentException if the maze is null
+   */
+  public static ArrayMazeTopology copyOf(ReadOnlyMaze maze) throws IllegalArgumentException {
+    if (maze == null) {
+      throw new IllegalArgumentException("Maze must not be null");
+    }
+
+    Dimension size = maze.getSize();
+    int rows = size.height;
+    int cols = size.width;
+    byte[] exits = new byte[rows * cols];
+    byte[] hazards = new byte[rows * cols];
+    boolean wraps = false;
+
+    BitSet visited = new BitSet(rows * cols);
+    Deque<ReadOnlyRoom> roomsToVisit = new ArrayDeque<ReadOnlyRoom>(maze.getRooms());
+    while (!roomsToVisit.isEmpty()) {
+      ReadOnlyRoom room = roomsToVisit.remove();
+      Position position = room.getPosition();
+      int index = position.getY() * cols + position.getX();
+      if (visited.get(index)) {
+        continue;
+      }
+      visited.set(index);
+
+      int exitMask = 0;
+      for (Direction direction : room.getAvailableDirections()) {
+        exitMask |= direction.getMask();
+        roomsToVisit.add(room.getNeighbour(direction));
+      }
+      exits[index] = (byte)exitMask;
+      hazards[index] = (byte)getHazards(room);
+
+      wraps |= position.getY() == 0 && (exitMask & Direction.NORTH.getMask()) != 0;
+      wraps |= position.getX() == 0 && (exitMask & Direction.WEST.getMask()) != 0;
+    }
+
+    return new ArrayMazeTopology(rows, cols, wraps, exits, hazards, false);
+  }
+
+  @Override
+  public int getRows() {
+    return rows;
+  }
+
+  @Override
+  public int getCols() {
+    return cols;
+  }
+
+  @Override
+  public boolean wraps() {
+    return wraps;
+  }
+
+  @Override
+  public int getExitMask(int index) {
+    return exits[index];
+  }
+
+  @Override
+  public int getHazards(int index) {
+    return hazards[index];
+  }
+
+  private static int getHazards(ReadOnlyRoom room) {
+    int hazardBits = 0;
+    if (room.hasBats()) {
+      hazardBits |= BATS;
+    }
+    if (room.hasPit()) {
+      hazardBits |= PIT;
+    }
+    if (room.hasWumpus()) {
+      hazardBits |= WUMPUS;
+    }
+    return hazardBits;
+  }
+}
@@ -0,0 +1,102 @@
+package model.maze;
+
+import java.util.Random;
+
+/**
+ * Collects the rows of a maze into memory so that they can be
+ * used as an {@link ArrayMazeTopology}.
+ * @author Liam Scholte
+ *
+ */
+public class ArrayTopologySink implements MazeRowSink {
+
+  private final int rows;
+  private final int cols;
+  private final boolean wraps;
+
+  private final byte[] exits;
+  private int rowCount;
+
+  /**
+   * Constructs a sink for a maze of the specified size.
+   * @param rows the number of rows in the maze
+   * @param cols the number of columns in the maze
+   * @param wraps whether or not the maze wraps at the edges
+   * @throws IllegalArgumentException if rows or columns is not positive
+   *      or if the maze is too large to be held in memory
+   */
+  public ArrayTopologySink(int rows, int cols, boolean wraps) throws IllegalArgumentException {
+    if (rows < 1 || cols < 1) {
+      throw new IllegalArgumentException(
+          "Number of rows and columns must both be positive");
+    }
+    if ((long)rows * cols > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException(
+          "The maze has too many cells to be held in memory");
+    }
+    this.rows = rows;
+    this.cols = cols;
+    this.wraps = wraps;
+    exits = new byte[rows * cols];
+    rowCount = 0;
+  }
+
+  @Override
+  public void acceptRow(int row, byte[] rowExits) throws IllegalArgumentException {
+    if (row != rowCount || rowExits.length != cols) {
+      throw new IllegalArgumentException(
+          "Rows must be supplied in order and have one entry per column");
+    }
+    System.arraycopy(rowExits, 0, exits, row * cols, cols);
+    ++rowCount;
+  }
+
+  /**
+   * Gets the collected maze with no hazards.
+   * @return the topology of the maze
+   * @throws IllegalStateException if not every row has been supplied
+   */
+  public ArrayMazeTopology getTopology() throws IllegalStateException {
+    checkComplete();
+    return new ArrayMazeTopology(rows, cols, wraps, exits, new byte[rows * cols]);
+  }
+
+  /**
+   * Gets the collected maze with bats, pits and a wumpus placed in random
+   * non-hallway rooms, in the same way as {@link MazeImpl}.
+   * @param batCount the number of bats in the maze
+   * @param pitCount the number of pits in the maze
+   * @param random the source of randomness for the placement
+   * @return the topology of the maze
+   * @throws IllegalStateException if not every row has been supplied
+   * @throws IllegalArgumentException if the maze does not have enough
+   *      non-hallway rooms for the entities
+   */
+  public ArrayMazeTopology getTopology(int batCount, int pitCount, Random random)
+      throws IllegalStateException, IllegalArgumentException {
+    checkComplete();
+    int minRooms = KruskalMazeGenerator.getMinRooms(rows, cols, batCount, pitCount, wraps);
+
+    int[] caves = new int[exits.length];
+    int caveCount = 0;
+    for (int index = 0; index < exits.length; ++index) {
+      if (Integer.bitCount(exits[index]) != 2) {
+        caves[caveCount++] = index;
+      }
+    }
+    if (caveCount < minRooms) {
+      throw new IllegalArgumentException(
+          "The maze does not have enough rooms for the required number of entities");
+    }
+
+    byte[] hazards = KruskalMazeGenerator.placeEntities(
+        caves, caveCount, exits.length, batCount, pitCount, random);
+    return new ArrayMazeTopology(rows, cols, wraps, exits, hazards);
+  }
+
+  private void checkComplete() throws IllegalStateException {
+    if (rowCount != rows) {
+      throw new IllegalStateException("Not every row of the maze has been supplied");
+    }
+  }
+}
@@ -0,0 +1,381 @@
+package model.maze;
+
+import model.Direction;
+import model.Heading;
+import model.Position;
+import model.ReadOnlyRoom;
+
+import java.awt.Dimension;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+/**
+ * A maze backed by a {@link MazeTopology} rather than by one
+ * {@link model.Room} object per cell. Rooms are handed out as
+ * lightweight views that are created on demand, so the memory
+ * used by the maze is dominated by the topology itself.
+ * The topology may be shared between several compact mazes
+ * since the explored state is kept by each maze.
+ * @author Liam Scholte
+ *
+ */
+public class CompactMaze implements ReadOnlyMaze {
+
+  private static final Direction[] DIRECTIONS = Direction.values();
+
+  private final MazeTopology topology;
+  //Found the first time they are needed, since most mazes never need them
+  private SafeRegions safeRegions;
+  private final int rows;
+  private final int cols;
+
+  private final ExplorationLog explorationLog;
+
+  //The number of non-hallway rooms, and the cell of each of them
+  //which is only built if rooms are looked up by index
+  private int roomCount;
+  private int[] roomCells;
+  private List<ReadOnlyRoom> rooms;
+
+  /**
+   * Constructs a compact maze.
+   * @param topology the layout of the maze
+   * @throws IllegalArgumentException if the topology is null
+   */
+  public CompactMaze(MazeTopology topology) throws IllegalArgumentException {
+    if (topology == null) {
+      throw new IllegalArgumentException("Topology must not be null");
+    }
+    this.topology = topology;
+    this.rows = topology.getRows();
+    this.cols = topology.getCols();
+    explorationLog = new ExplorationLog();
+    roomCount = -1;
+  }
+
+  @Override
+  public List<ReadOnlyRoom> getRooms() {
+    //An unmodifiable view whose rooms are only created as they are read
+    if (rooms == null) {
+      rooms = new AbstractList<ReadOnlyRoom>() {
+
+        @Override
+        public ReadOnlyRoom get(int index) {
+          return roomAt(index);
+        }
+
+        @Override
+        public int size() {
+          return roomCount();
+        }
+      };
+    }
+    return rooms;
+  }
+
+  @Override
+  public int roomCount() {
+    if (roomCount < 0) {
+      int count = 0;
+      for (int index = 0; index < rows * cols; ++index) {
+        if (!isHallway(index)) {
+          ++count;
+        }
+      }
+      roomCount = count;
+    }
+    return roomCount;
+  }
+
+  @Override
+  public ReadOnlyRoom roomAt(int index) throws IndexOutOfBoundsException {
+    if (roomCells == null) {
+      int[] cells = new int[roomCount()];
+      int count = 0;
+      for (int cell = 0; cell < rows * cols; ++cell) {
+        if (!isHallway(cell)) {
+          cells[count++] = cell;
+        }
+      }
+      roomCells = cells;
+    }
+    if (index < 0 || index >= roomCells.length) {
+      throw new IndexOutOfBoundsException("No room with index " + index);
+    }
+    return new CompactRoom(roomCells[index]);
+  }
+
+  @Override
+  public void forEachRoom(IntConsumer action) throws IllegalArgumentException {
+    if (action == null) {
+      throw new IllegalArgumentException("Action must not be null");
+    }
+    int index = 0;
+    for (int cell = 0; cell < rows * cols; ++cell) {
+      if (!isHallway(cell)) {
+        action.accept(index++);
+      }
+    }
+  }
+
+  @Override
+  public List<ReadOnlyRoom> getExploredRooms() {
+    return explorationLog.getExploredRooms();
+  }
+
+  @Override
+  public int getExplorationVersion() {
+    return explorationLog.getVersion();
+  }
+
+  @Override
+  public List<ReadOnlyRoom> getExploredRoomsSince(int version) throws IllegalArgumentException {
+    return explorationLog.getExploredRoomsSince(version);
+  }
+
+  @Override
+  public Dimension getSize() {
+    return new Dimension(cols, rows);
+  }
+
+  @Override
+  public boolean wraps() {
+    return topology.wraps();
+  }
+
+  @Override
+  public ReadOnlyRoom getRoomAt(int x, int y) {
+    if (topology.wraps()) {
+      x = Math.floorMod(x, cols);
+      y = Math.floorMod(y, rows);
+    }
+    else if (x < 0 || y < 0 || x >= cols || y >= rows) {
+      return null;
+    }
+    return new CompactRoom(getRoomIndex(y, x));
+  }
+
+  @Override
+  public MazeTopology getTopology() {
+    return topology;
+  }
+
+  @Override
+  public SafeRegions getSafeRegions() {
+    if (safeRegions == null) {
+      safeRegions = new SafeRegions(topology);
+    }
+    return safeRegions;
+  }
+
+  /**
+   * Gets the index of the cell at the specified row and column.
+   * @param row the row of the cell
+   * @param col the column of the cell
+   * @return the index of the cell
+   */
+  public int getRoomIndex(int row, int col) {
+    return row * cols + col;
+  }
+
+  /**
+   * Gets a view of the room for the specified cell.
+   * @param index the index of the cell
+   * @return the room, which may be a hallway
+   * @throws IndexOutOfBoundsException if the index is not within the maze
+   */
+  public ReadOnlyRoom getRoom(int index) throws IndexOutOfBoundsException {
+    if (index < 0 || index >= rows * cols) {
+      throw new IndexOutOfBoundsException("No cell with index " + index);
+    }
+    return new CompactRoom(index);
+  }
+
+  /**
+   * Marks the room for the specified cell as explored.
+   * @param index the index of the cell
+   */
+  public void explore(int index) {
+    explorationLog.record(index, new CompactRoom(index));
+  }
+
+  private boolean isHallway(int index) {
+    return Integer.bitCount(topology.getExitMask(index)) == 2;
+  }
+
+  private int getNeighbourIndex(int index, Direction direction) {
+    if ((topology.getExitMask(index) & direction.getMask()) == 0) {
+      return -1;
+    }
+
+    //Exits on the edge of the maze only exist when the maze wraps,
+    //so stepping off one side always arrives on the opposite side
+    int row = index / cols;
+    int col = index % cols;
+    switch (direction) {
+      case NORTH:
+        row = row == 0 ? rows - 1 : row - 1;
+        break;
+      case SOUTH:
+        row = row == rows - 1 ? 0 : row + 1;
+        break;
+      case EAST:
+        col = col == cols - 1 ? 0 : col + 1;
+        break;
+      default:
+        col = col == 0 ? cols - 1 : col - 1;
+        break;
+    }
+    return getRoomIndex(row, col);
+  }
+
+  /**
+   * Follows hallways from a cell until a non-hallway cell is reached.
+   * @param index the index of the starting cell
+   * @param direction the initial direction of travel
+   * @return the index of the cell that was reached in the upper 32 bits,
+   *      or -1 if there was no exit or the hallways loop, and the ordinal
+   *      of the direction of travel upon entering that cell in the lower 32 bits
+   */
+  private long findNonHallNeighbour(int index, Direction direction) {
+    int nextIndex = getNeighbourIndex(index, direction);
+    int directionOrdinal = direction.ordinal();
+    //A loop made only of hallways never reaches another room, and
+    //is known to be one once every cell could have been walked
+    int stepsLeft = rows * cols;
+    while (nextIndex >= 0 && isHallway(nextIndex)) {
+      if (stepsLeft-- == 0) {
+        return ((long)-1 << 32) | directionOrdinal;
+      }
+      //A hallway has exactly one exit other than the one just used
+      int otherExits =
+          topology.getExitMask(nextIndex)
+          & ~DIRECTIONS[directionOrdinal].getOpposite().getMask();
+      directionOrdinal = Integer.numberOfTrailingZeros(otherExits);
+      nextIndex = getNeighbourIndex(nextIndex, DIRECTIONS[directionOrdinal]);
+    }
+    return ((long)nextIndex << 32) | directionOrdinal;
+  }
+
+  /**
+   * A view of a single cell of a compact maze.
+   * @author Liam Scholte
+   *
+   */
+  private class CompactRoom implements ReadOnlyRoom {
+
+    private final int index;
+
+    public CompactRoom(int index) {
+      this.index = index;
+    }
+
+    @Override
+    public boolean isHallway() {
+      return CompactMaze.this.isHallway(index);
+    }
+
+    @Override
+    public int getExitCount() {
+      return Integer.bitCount(topology.getExitMask(index));
+    }
+
+    @Override
+    public boolean isExplored() {
+      return explorationLog.isExplored(index);
+    }
+
+    @Override
+    public Position getPosition() {
+      return new Position(index % cols, index / cols);
+    }
+
+    @Override
+    public int getCellIndex() {
+      return index;
+    }
+
+    @Override
+    public boolean hasBats() {
+      return (topology.getHazards(index) & MazeTopology.BATS) != 0;
+    }
+
+    @Override
+    public boolean hasPit() {
+      return (topology.getHazards(index) & MazeTopology.PIT) != 0;
+    }
+
+    @Override
+    public boolean hasWumpus() {
+      return (topology.getHazards(index) & MazeTopology.WUMPUS) != 0;
+    }
+
+    @Override
+    public boolean areBatsNearby() {
+      return isSomethingNearby(MazeTopology.BATS);
+    }
+
+    @Override
+    public boolean isPitNearby() {
+      return isSomethingNearby(MazeTopology.PIT);
+    }
+
+    @Override
+    public boolean isWumpusNearby() {
+      return isSomethingNearby(MazeTopology.WUMPUS);
+    }
+
+    private boolean isSomethingNearby(int hazard) {
+      if (isHallway()) {
+        return false;
+      }
+      for (Direction direction : DIRECTIONS) {
+        int neighbourIndex = (int)(findNonHallNeighbour(index, direction) >> 32);
+        if (neighbourIndex >= 0 && (topology.getHazards(neighbourIndex) & hazard) != 0) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public Set<Direction> getAvailableDirections() {
+      return Direction.fromMask(topology.getExitMask(index));
+    }
+
+    @Override
+    public ReadOnlyRoom getNeighbour(Direction direction) {
+      int neighbourIndex = getNeighbourIndex(index, direction);
+      return neighbourIndex < 0 ? null : new CompactRoom(neighbourIndex);
+    }
+
+    @Override
+    public Heading getNonHallNeighbour(Direction direction) {
+      long heading = findNonHallNeighbour(index, direction);
+      int neighbourIndex = (int)(heading >> 32);
+      return new Heading(
+          neighbourIndex < 0 ? null : new CompactRoom(neighbourIndex),
+          DIRECTIONS[(int)heading]);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof CompactRoom)) {
+        return false;
+      }
+      CompactRoom otherRoom = (CompactRoom)other;
+      return index == otherRoom.index && getMaze() == otherRoom.getMaze();
+    }
+
+    @Override
+    public int hashCode() {
+      return index;
+    }
+
+    private CompactMaze getMaze() {
+      return CompactMaze.this;
+    }
+  }
+}
@@ -0,0 +1,327 @@
+package model.maze;
+
+import model.Direction;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Generates a randomized maze one row at a time using Eller's algorithm.
+ * Only a few rows of the maze are held at once, so the memory used is
+ * proportional to the number of columns and mazes larger than the heap
+ * can be generated directly into a {@link MazeRowSink}.
+ *
+ * <p>Like {@link KruskalMazeGenerator}, the generated maze starts as a perfect maze,
+ * may wrap at the edges, and then has walls next to hallways removed until
+ * there are enough non-hallway rooms for the requested entities. Since the
+ * final number of non-hallway rooms is not known until the last row, walls
+ * are removed so that each row keeps up with its share of the required rooms.
+ * @author Liam Scholte
+ *
+ */
+public class EllerMazeGenerator {
+
+  private static final int NORTH = Direction.NORTH.getMask();
+  private static final int SOUTH = Direction.SOUTH.getMask();
+  private static final int EAST = Direction.EAST.getMask();
+  private static final int WEST = Direction.WEST.getMask();
+
+  private final int rows;
+  private final int cols;
+  private final boolean wraps;
+  private final int minRooms;
+  private final Random random;
+
+  private long caveCount;
+
+  /**
+   * Constructs a generator for a randomized maze.
+   * @param rows the number of rows in the maze
+   * @param cols the number of columns in the maze
+   * @param batCount the number of bats the maze must be able to hold
+   * @param pitCount the number of pits the maze must be able to hold
+   * @param wraps whether or not the rooms on the edge of the
+   *      maze wrap to the opposite side
+   * @param random the source of randomness for the maze
+   * @throws IllegalArgumentException if rows or columns is not positive
+   * @throws IllegalArgumentException if the number of bats or pits is negative
+   * @throws IllegalArgumentException if dimensions of the maze could not possibly
+   *      support all the required entities (pits, bats, and wumpus)
+   */
+  public EllerMazeGenerator(
+      int rows,
+      int cols,
+      int batCount,
+      int pitCount,
+      boolean wraps,
+      Random random) throws IllegalArgumentException {
+    this.minRooms = KruskalMazeGenerator.getMinRooms(rows, cols, batCount, pitCount, wraps);
+    this.rows = rows;
+    this.cols = cols;
+    this.wraps = wraps;
+    this.random = random;
+  }
+
+  /**
+   * Generates the maze, supplying each row to the sink once it will
+   * no longer change.
+   * @param sink the destination of the rows
+   * @return the number of non-hallway rooms in the maze
+   * @throws MazeGenerationException if the maze generation is unable to create
+   *      a maze with the required number of non-hallway rooms. All rows but
+   *      the last will have been supplied to the sink.
+   * @throws IOException if the sink is unable to store a row
+   */
+  public long generate(MazeRowSink sink) throws MazeGenerationException, IOException {
+    //The previous row is held back until the walls between it
+    //and the current row have been considered for removal
+    byte[] previousRow = new byte[cols];
+    byte[] currentRow = new byte[cols];
+    byte[] nextRow = new byte[cols];
+
+    //The set of each cell in the current row. Set ids are always
+    //relabelled to lie within [0, cols) so the working memory stays fixed.
+    int[] sets = new int[cols];
+    int[] nextSets = new int[cols];
+    int[] parent = new int[cols];
+    int[] setSizes = new int[cols];
+    int[] chosenCells = new int[cols];
+    boolean[] setHasExit = new boolean[cols];
+    int[] relabelledSets = new int[cols];
+
+    for (int col = 0; col < cols; ++col) {
+      sets[col] = col;
+    }
+
+    caveCount = 0;
+    for (int row = 0; row < rows; ++row) {
+      boolean isLastRow = row == rows - 1;
+
+      joinCellsInRow(currentRow, sets, parent, isLastRow);
+      if (!isLastRow) {
+        joinCellsToNextRow(
+            currentRow,
+            nextRow,
+            sets,
+            nextSets,
+            setSizes,
+            chosenCells,
+            setHasExit,
+            relabelledSets);
+      }
+
+      if (wraps) {
+        wrapRow(row, currentRow);
+      }
+
+      //The current row is now final apart from walls that are removed below
+      for (int col = 0; col < cols; ++col) {
+        if (!isHallway(currentRow[col])) {
+          ++caveCount;
+        }
+      }
+
+      long caveTarget = getCaveTarget(row);
+      if (row > 0) {
+        for (int col = 0; col < cols; ++col) {
+          if ((previousRow[col] & SOUTH) == 0) {
+            removeWallIfNeeded(previousRow, col, SOUTH, currentRow, col, NORTH, caveTarget);
+          }
+        }
+      }
+      for (int col = 0; col < cols - 1; ++col) {
+        if ((currentRow[col] & EAST) == 0) {
+          removeWallIfNeeded(currentRow, col, EAST, currentRow, col + 1, WEST, caveTarget);
+        }
+      }
+
+      if (row > 0) {
+        sink.acceptRow(row - 1, previousRow);
+      }
+
+      byte[] emptyRow = previousRow;
+      previousRow = currentRow;
+      currentRow = nextRow;
+      nextRow = emptyRow;
+      Arrays.fill(nextRow, (byte)0);
+
+      int[] swap = sets;
+      sets = nextSets;
+      nextSets = swap;
+    }
+
+    if (caveCount < minRooms) {
+      throw new MazeGenerationException(
+          "A maze with the required number of rooms could not be generated");
+    }
+    sink.acceptRow(rows - 1, previousRow);
+
+    return caveCount;
+  }
+
+  /**
+   * Randomly joins neighbouring cells of a row that belong to different sets.
+   * On the last row every such pair is joined so the maze is connected.
+   */
+  private void joinCellsInRow(
+      byte[] currentRow,
+      int[] sets,
+      int[] parent,
+      boolean isLastRow) {
+    for (int id = 0; id < cols; ++id) {
+      parent[id] = id;
+    }
+
+    for (int col = 0; col < cols - 1; ++col) {
+      int a = find(parent, sets[col]);
+      int b = find(parent, sets[col + 1]);
+      if (a != b && (isLastRow || random.nextBoolean())) {
+        parent[b] = a;
+        currentRow[col] |= EAST;
+        currentRow[col + 1] |= WEST;
+      }
+    }
+
+    for (int col = 0; col < cols; ++col) {
+      sets[col] = find(parent, sets[col]);
+    }
+  }
+
+  /**
+   * Randomly opens passages to the next row, making sure that every set
+   * has at least one passage, then assigns the sets of the next row.
+   */
+  private void joinCellsToNextRow(
+      byte[] currentRow,
+      byte[] nextRow,
+      int[] sets,
+      int[] nextSets,
+      int[] setSizes,
+      int[] chosenCells,
+      boolean[] setHasExit,
+      int[] relabelledSets) {
+    for (int id = 0; id < cols; ++id) {
+      setSizes[id] = 0;
+      setHasExit[id] = false;
+    }
+
+    for (int col = 0; col < cols; ++col) {
+      int set = sets[col];
+
+      //Pick a cell uniformly from each set in case none of its cells
+      //randomly receive a passage
+      ++setSizes[set];
+      if (random.nextInt(setSizes[set]) == 0) {
+        chosenCells[set] = col;
+      }
+
+      nextSets[col] = -1;
+      if (random.nextBoolean()) {
+        openPassageDown(currentRow, nextRow, col);
+        nextSets[col] = set;
+        setHasExit[set] = true;
+      }
+    }
+
+    for (int col = 0; col < cols; ++col) {
+      int set = sets[col];
+      if (!setHasExit[set] && chosenCells[set] == col) {
+        openPassageDown(currentRow, nextRow, col);
+        nextSets[col] = set;
+        setHasExit[set] = true;
+      }
+    }
+
+    //Relabel the sets so that ids stay within [0, cols), giving
+    //cells without a passage from above a set of their own
+    Arrays.fill(relabelledSets, -1);
+    int nextId = 0;
+    for (int col = 0; col < cols; ++col) {
+      if (nextSets[col] >= 0) {
+        if (relabelledSets[nextSets[col]] < 0) {
+          relabelledSets[nextSets[col]] = nextId++;
+        }
+        nextSets[col] = relabelledSets[nextSets[col]];
+      }
+    }
+    for (int col = 0; col < cols; ++col) {
+      if (nextSets[col] < 0) {
+        nextSets[col] = nextId++;
+      }
+    }
+  }
+
+  private void openPassageDown(byte[] currentRow, byte[] nextRow, int col) {
+    currentRow[col] |= SOUTH;
+    nextRow[col] |= NORTH;
+  }
+
+  private void wrapRow(int row, byte[] currentRow) {
+    if (row == 0) {
+      for (int col = 0; col < cols; ++col) {
+        currentRow[col] |= NORTH;
+      }
+    }
+    if (row == rows - 1) {
+      for (int col = 0; col < cols; ++col) {
+        currentRow[col] |= SOUTH;
+      }
+    }
+    currentRow[0] |= WEST;
+    currentRow[cols - 1] |= EAST;
+  }
+
+  /**
+   * Removes the wall between two cells if doing so converts a hallway into
+   * a non-hallway room, using the same rules as {@link KruskalMazeGenerator}.
+   */
+  private void removeWallIfNeeded(
+      byte[] rowA,
+      int colA,
+      int exitA,
+      byte[] rowB,
+      int colB,
+      int exitB,
+      long caveTarget) {
+    if (caveCount >= caveTarget) {
+      return;
+    }
+
+    boolean shouldConnectCells = false;
+    if (isHallway(rowA[colA]) && Integer.bitCount(rowB[colB]) != 1) {
+      ++caveCount;
+      shouldConnectCells = true;
+    }
+    if (isHallway(rowB[colB]) && Integer.bitCount(rowA[colA]) != 1) {
+      ++caveCount;
+      shouldConnectCells = true;
+    }
+
+    if (shouldConnectCells) {
+      rowA[colA] |= exitA;
+      rowB[colB] |= exitB;
+    }
+  }
+
+  /**
+   * Gets the number of non-hallway rooms that should exist once the
+   * specified row is final, spreading the required rooms evenly over
+   * the rows.
+   */
+  private long getCaveTarget(int row) {
+    return ((long)minRooms * (row + 1) + rows - 1) / rows;
+  }
+
+  private static boolean isHallway(int exitMask) {
+    return Integer.bitCount(exitMask) == 2;
+  }
+
+  private static int find(int[] parent, int x) {
+    while (parent[x] != x) {
+      parent[x] = parent[parent[x]];
+      x = parent[x];
+    }
+    return x;
+  }
+}
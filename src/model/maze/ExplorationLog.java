@@ -0,0 +1,135 @@
+package model.maze;
+
+import model.ReadOnlyRoom;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Records the rooms of a maze in the order they were explored.
+ * Every room explored increases the version of the log by one,
+ * so a view that remembers the version it last drew can ask for
+ * only the rooms explored since then.
+ * @author Liam Scholte
+ *
+ */
+public class ExplorationLog {
+
+  private final BitSet exploredCells;
+
+  private ReadOnlyRoom[] exploredRooms;
+  private int exploredRoomCount;
+
+  /**
+   * Constructs an empty log.
+   */
+  public ExplorationLog() {
+    exploredCells = new BitSet();
+    exploredRooms = new ReadOnlyRoom[16];
+    exploredRoomCount = 0;
+  }
+
+  /**
+   * Records that the room for a cell has been explored.
+   * Rooms that were already explored are ignored.
+   * @param index the index of the cell
+   * @param room the room for the cell
+   * @return true if the room had not been explored before
+   * @throws IllegalArgumentException if the index is negative or the room is null
+   */
+  public boolean record(int index, ReadOnlyRoom room) throws IllegalArgumentException {
+    if (index < 0) {
+      throw new IllegalArgumentException("Index must not be negative");
+    }
+    if (room == null) {
+      throw new IllegalArgumentException("Room must not be null");
+    }
+    if (exploredCells.get(index)) {
+      return false;
+    }
+    exploredCells.set(index);
+
+    if (exploredRoomCount == exploredRooms.length) {
+      exploredRooms = Arrays.copyOf(exploredRooms, 2 * exploredRoomCount);
+    }
+    exploredRooms[exploredRoomCount++] = room;
+    return true;
+  }
+
+  /**
+   * Gets whether the room for a cell has been explored.
+   * @param index the index of the cell
+   * @return true if the room has been explored
+   */
+  public boolean isExplored(int index) {
+    return index >= 0 && exploredCells.get(index);
+  }
+
+  /**
+   * Gets the version of the log, which is the number of rooms explored.
+   * @return the version of the log
+   */
+  public int getVersion() {
+    return exploredRoomCount;
+  }
+
+  /**
+   * Gets the rooms explored so far in the order they were explored.
+   * The list is not copied, and rooms explored afterwards are not added to it.
+   * @return an unmodifiable list of the explored rooms
+   */
+  public List<ReadOnlyRoom> getExploredRooms() {
+    return getExploredRoomsSince(0);
+  }
+
+  /**
+   * Gets the rooms explored after the log had the specified version, in the
+   * order they were explored. The list is not copied, and rooms explored
+   * afterwards are not added to it.
+   * @param version a version previously returned by {@link #getVersion()}
+   * @return an unmodifiable list of the rooms explored since the version
+   * @throws IllegalArgumentException if the version is negative or
+   *      greater than the current version
+   */
+  public List<ReadOnlyRoom> getExploredRoomsSince(int version) throws IllegalArgumentException {
+    if (version < 0 || version > exploredRoomCount) {
+      throw new IllegalArgumentException("Invalid exploration version " + version);
+    }
+    return new ExploredRoomList(exploredRooms, version, exploredRoomCount);
+  }
+
+  /**
+   * A range of the log. Entries are only ever appended to the array, and
+   * a larger array is a copy, so the range never changes once created.
+   * @author Liam Scholte
+   *
+   */
+  private static class ExploredRoomList extends AbstractList<ReadOnlyRoom>
+      implements RandomAccess {
+    private final ReadOnlyRoom[] rooms;
+    private final int fromIndex;
+    private final int toIndex;
+
+    public ExploredRoomList(ReadOnlyRoom[] rooms, int fromIndex, int toIndex) {
+      this.rooms = rooms;
+      this.fromIndex = fromIndex;
+      this.toIndex = toIndex;
+    }
+
+    @Override
+    public ReadOnlyRoom get(int index) {
+      if (index < 0 || index >= size()) {
+        throw new IndexOutOfBoundsException("No explored room with index " + index);
+      }
+      return rooms[fromIndex + index];
+    }
+
+    @Override
+    public int size() {
+      return toIndex - fromIndex;
+    }
+  }
+}
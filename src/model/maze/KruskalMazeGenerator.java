@@ -0,0 +1,869 @@
+package model.maze;
+
+import model.Direction;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Generates the layout of a randomized maze using Kruskal's algorithm.
+ * The grid graph is held entirely in primitive arrays: each edge is
+ * packed into an int as {@code cellIndex << 1 | orientation}, where the
+ * orientation determines whether the edge leads to the cell to the east
+ * or to the south.
+ * @author Liam Scholte
+ *
+ */
+class KruskalMazeGenerator {
+
+  private static final int EAST_EDGE = 0;
+  private static final int SOUTH_EDGE = 1;
+
+  /**
+   * The width and height of the tiles used by parallel generation.
+   */
+  private static final int TILE_SIZE = 256;
+
+  private final int rows;
+  private final int cols;
+  private final int roomCount;
+
+  private final Random random;
+
+  private byte[] exits;
+
+  private int[] caves;
+  private int caveCount;
+
+  /**
+   * Constructs a generator for a maze of the specified size.
+   * @param rows the number of rows in the maze
+   * @param cols the number of columns in the maze
+   * @param random the source of randomness for the layout
+   */
+  public KruskalMazeGenerator(int rows, int cols, Random random) {
+    this.rows = rows;
+    this.cols = cols;
+    this.roomCount = rows * cols;
+    this.random = random;
+  }
+
+  /**
+   * Validates the parameters of a maze and determines the number of
+   * non-hallway rooms needed to hold all of its entities.
+   * @param rows the number of rows in the maze
+   * @param cols the number of columns in the maze
+   * @param batCount the number of bats in the maze
+   * @param pitCount the number of pits in the maze
+   * @param wraps whether or not the maze wraps at the edges
+   * @return the minimum number of non-hallway rooms
+   * @throws IllegalArgumentException if rows or columns is not positive
+   * @throws IllegalArgumentException if the number of bats or pits is negative
+   * @throws IllegalArgumentException if dimensions of the maze could not possibly
+   *      support all the required entities (pits, bats, and wumpus)
+   */
+  public static int getMinRooms(int rows, int cols, int batCount, int pitCount, boolean wraps)
+      throws IllegalArgumentException {
+    if (rows < 1 || cols < 1) {
+      throw new IllegalArgumentException(
+          "Number of rows and columns must both be positive");
+    }
+
+    if (batCount < 0 || pitCount < 0) {
+      throw new IllegalArgumentException(
+          "Number of pits and bats must not be negative");
+    }
+
+    int minRooms = Math.max(1 + pitCount, batCount);
+    if (minRooms > getMaxRooms(rows, cols, wraps)) {
+      throw new IllegalArgumentException(
+          "The dimensions of the maze do not support the required number of rooms");
+    }
+    return minRooms;
+  }
+
+  /**
+   * Gets the largest number of non-hallway rooms that a connected
+   * maze of the specified size can have.
+   */
+  static long getMaxRooms(int rows, int cols, boolean wraps) {
+    long cellCount = (long)rows * cols;
+    if (wraps) {
+      //Every room of a fully open maze that wraps has four exits
+      return cellCount;
+    }
+
+    //The rooms between the two ends of a maze that is one room wide,
+    //and two of the rooms of a 2x2 maze, must always be hallways
+    if (rows == 1 || cols == 1 || (rows == 2 && cols == 2)) {
+      return Math.min(cellCount, 2);
+    }
+    return cellCount;
+  }
+
+  /**
+   * Generates the layout of the maze.
+   * @param wraps whether or not the rooms on the edge of the
+   *      maze wrap to the opposite side
+   * @param minRooms the minimum number of non-hallway rooms, which must
+   *      have been validated by {@link #getMinRooms}
+   */
+  public void generate(boolean wraps, int minRooms) {
+    exits = new byte[roomCount];
+    Walls walls = buildSpanningTree();
+    finishMaze(walls, wraps, minRooms);
+  }
+
+  /**
+   * Generates the layout of the maze, building the spanning tree of each
+   * tile of the maze in parallel. The tiles do not depend on the number of
+   * threads in the pool, so the same seed always produces the same maze.
+   * @param wraps whether or not the rooms on the edge of the
+   *      maze wrap to the opposite side
+   * @param minRooms the minimum number of non-hallway rooms, which must
+   *      have been validated by {@link #getMinRooms}
+   * @param pool the pool that builds the tiles
+   */
+  public void generate(boolean wraps, int minRooms, ForkJoinPool pool) {
+    exits = new byte[roomCount];
+    Walls walls = buildTiledSpanningTree(pool);
+    finishMaze(walls, wraps, minRooms);
+  }
+
+  /**
+   * Joins every cell into a single spanning tree.
+   * @return the edges that were not used by the spanning tree
+   */
+  private Walls buildSpanningTree() {
+    int[] edges = generateEdges();
+    shuffle(edges, random);
+
+    //Gives each cell its own tree to start
+    DisjointSetForest trees = new DisjointSetForest(roomCount);
+
+    //Start by creating a perfect maze by creating a spanning tree
+    //by joining trees together until there is one giant tree.
+    //Edges are taken from the end of the shuffled array, so the
+    //edges that are not used (the walls) are written back into the
+    //already consumed tail of the array in reverse order.
+    int remainingEdgeCount = edges.length;
+    int savedEdgeCount = 0;
+    while (remainingEdgeCount > 0 && trees.size() > 1) {
+      int edge = edges[--remainingEdgeCount];
+
+      int a = trees.find(getCellA(edge));
+      int b = trees.find(getCellB(edge));
+
+      //If cells A and B are not in same tree
+      if (a != b) {
+        //Combines the trees into one
+        trees.union(a, b);
+        connectCells(edge);
+      }
+      else {
+        //Both cells are already in the same tree, so
+        //connecting them would create a non-perfect maze
+        edges[edges.length - 1 - savedEdgeCount] = edge;
+        ++savedEdgeCount;
+      }
+    }
+
+    //The walls are the saved edges followed by any edges that remain
+    return new Walls(edges, savedEdgeCount, remainingEdgeCount);
+  }
+
+  /**
+   * Splits the maze into tiles, builds a spanning tree within each tile
+   * in parallel, and then joins the tiles together by considering the
+   * edges between tiles in a random order.
+   * @param pool the pool that builds the tiles
+   * @return the edges that were not used by the spanning tree
+   */
+  private Walls buildTiledSpanningTree(ForkJoinPool pool) {
+    int tileRows = (rows + TILE_SIZE - 1) / TILE_SIZE;
+    int tileCols = (cols + TILE_SIZE - 1) / TILE_SIZE;
+    int tileCount = tileRows * tileCols;
+
+    //Each tile gets its own random number generator derived from a
+    //single draw so that the tiles can be built in any order
+    long tileSeed = random.nextLong();
+    int[][] tileWalls = new int[tileCount][];
+    pool.invoke(new TileTask(tileSeed, tileCols, tileWalls, 0, tileCount));
+
+    //Each tile is now a single tree, so joining the tiles only
+    //needs a forest with one node per tile
+    int[] boundaryEdges = generateBoundaryEdges();
+    shuffle(boundaryEdges, random);
+    DisjointSetForest tiles = new DisjointSetForest(tileCount);
+    int boundaryWallCount = 0;
+    for (int i = 0; i < boundaryEdges.length; ++i) {
+      int edge = boundaryEdges[i];
+      int a = tiles.find(getTileIndex(getCellA(edge), tileCols));
+      int b = tiles.find(getTileIndex(getCellB(edge), tileCols));
+      if (a != b) {
+        tiles.union(a, b);
+        connectCells(edge);
+      }
+      else {
+        //Walls are compacted into the already consumed start of the array
+        boundaryEdges[boundaryWallCount++] = edge;
+      }
+    }
+
+    int wallCount = boundaryWallCount;
+    for (int[] walls : tileWalls) {
+      wallCount += walls.length;
+    }
+    int[] walls = new int[wallCount];
+    int wallIndex = 0;
+    for (int[] tile : tileWalls) {
+      System.arraycopy(tile, 0, walls, wallIndex, tile.length);
+      wallIndex += tile.length;
+    }
+    System.arraycopy(boundaryEdges, 0, walls, wallIndex, boundaryWallCount);
+    return new Walls(walls, 0, wallCount);
+  }
+
+  /**
+   * Builds the spanning tree of a single tile. Only the exits of cells
+   * within the tile are modified, so tiles can be built concurrently.
+   * @param tileIndex the index of the tile
+   * @param tileCols the number of tiles in each row of tiles
+   * @param tileRandom the source of randomness for the tile
+   * @return the edges within the tile that were not used by the spanning tree
+   */
+  private int[] buildTile(int tileIndex, int tileCols, Random tileRandom) {
+    int firstRow = tileIndex / tileCols * TILE_SIZE;
+    int firstCol = tileIndex % tileCols * TILE_SIZE;
+    int height = Math.min(TILE_SIZE, rows - firstRow);
+    int width = Math.min(TILE_SIZE, cols - firstCol);
+
+    int[] edges = new int[getInitialEdgeCount(height, width)];
+    int edgeIndex = 0;
+    for (int x = 0; x < width - 1; ++x) {
+      for (int y = 0; y < height; ++y) {
+        edges[edgeIndex++] = getRoomIndex(firstRow + y, firstCol + x) << 1 | EAST_EDGE;
+      }
+    }
+    for (int x = 0; x < width; ++x) {
+      for (int y = 0; y < height - 1; ++y) {
+        edges[edgeIndex++] = getRoomIndex(firstRow + y, firstCol + x) << 1 | SOUTH_EDGE;
+      }
+    }
+    shuffle(edges, tileRandom);
+
+    //Cells are numbered locally within the tile
+    DisjointSetForest trees = new DisjointSetForest(height * width);
+    int wallCount = 0;
+    for (int i = 0; i < edges.length; ++i) {
+      int edge = edges[i];
+      int cellA = getCellA(edge);
+      int cellB = getCellB(edge);
+      int a = trees.find((cellA / cols - firstRow) * width + cellA % cols - firstCol);
+      int b = trees.find((cellB / cols - firstRow) * width + cellB % cols - firstCol);
+      if (a != b) {
+        trees.union(a, b);
+        connectCells(edge);
+      }
+      else {
+        //Walls are compacted into the already consumed start of the array
+        edges[wallCount++] = edge;
+      }
+    }
+    return Arrays.copyOf(edges, wallCount);
+  }
+
+  /**
+   * Generates every edge that joins two different tiles.
+   */
+  private int[] generateBoundaryEdges() {
+    int verticalBoundaries = (cols - 1) / TILE_SIZE;
+    int horizontalBoundaries = (rows - 1) / TILE_SIZE;
+    int[] edges = new int[verticalBoundaries * rows + horizontalBoundaries * cols];
+    int edgeIndex = 0;
+    for (int x = TILE_SIZE - 1; x < cols - 1; x += TILE_SIZE) {
+      for (int y = 0; y < rows; ++y) {
+        edges[edgeIndex++] = getRoomIndex(y, x) << 1 | EAST_EDGE;
+      }
+    }
+    for (int y = TILE_SIZE - 1; y < rows - 1; y += TILE_SIZE) {
+      for (int x = 0; x < cols; ++x) {
+        edges[edgeIndex++] = getRoomIndex(y, x) << 1 | SOUTH_EDGE;
+      }
+    }
+    return edges;
+  }
+
+  private int getTileIndex(int cell, int tileCols) {
+    return cell / cols / TILE_SIZE * tileCols + cell % cols / TILE_SIZE;
+  }
+
+  /**
+   * Finishes a maze whose spanning tree has been built by wrapping it
+   * and converting hallways into non-hallway rooms.
+   * @param walls the edges that were not used by the spanning tree
+   * @param wraps whether or not the maze wraps
+   * @param minRooms the minimum number of non-hallway rooms
+   */
+  private void finishMaze(Walls walls, boolean wraps, int minRooms) {
+    //Remove remaining walls until the desired number of remaining
+    //walls is reached
+    while (walls.size() > getPerfectMazeEdgeCount(rows, cols)) {
+      connectCells(walls.removeLast());
+    }
+
+    //If wrapping was specified,
+    //then attach each outside cell to it's
+    //corresponding opposite cell
+    if (wraps) {
+      wrapCells();
+    }
+
+    caves = new int[roomCount];
+    caveCount = 0;
+    for (int index = 0; index < roomCount; ++index) {
+      if (!isHallway(index)) {
+        caves[caveCount++] = index;
+      }
+    }
+
+    for (int i = 0; i < walls.size() && caveCount < minRooms; ++i) {
+      int wall = walls.get(i);
+      int cellA = getCellA(wall);
+      int cellB = getCellB(wall);
+
+      boolean shouldConnectCells = false;
+      if (isHallway(cellA) && getExitCount(cellB) != 1) {
+        caves[caveCount++] = cellA;
+        shouldConnectCells = true;
+      }
+
+      if (isHallway(cellB) && getExitCount(cellA) != 1) {
+        caves[caveCount++] = cellB;
+        shouldConnectCells = true;
+      }
+
+      if (shouldConnectCells) {
+        connectCells(wall);
+      }
+    }
+
+    //Opening walls next to hallways is not always enough, so the
+    //remaining hallways are converted by walking them towards rooms
+    //that can take another exit
+    if (caveCount < minRooms) {
+      convertHallways(minRooms);
+    }
+
+    //As a last resort use a layout in which every room is a non-hallway room
+    if (caveCount < minRooms) {
+      buildOpenMaze(wraps);
+    }
+  }
+
+  /**
+   * Converts hallways into non-hallway rooms until the maze has the minimum
+   * number of non-hallway rooms or no hallway has a wall that can be removed.
+   * A hallway whose walls all lead to dead ends is joined to one of them,
+   * which turns that dead end into a hallway to be converted in turn.
+   * Walls are only ever removed, so this finishes after at most one step
+   * per wall.
+   * @param minRooms the minimum number of non-hallway rooms
+   */
+  private void convertHallways(int minRooms) {
+    //Each cell is pushed once to start with and once more for
+    //each wall removed, and every cell has at most two walls of its own
+    int[] hallways = new int[3 * roomCount];
+    int hallwayCount = 0;
+    for (int index = roomCount - 1; index >= 0; --index) {
+      if (isHallway(index)) {
+        hallways[hallwayCount++] = index;
+      }
+    }
+
+    while (hallwayCount > 0 && caveCount < minRooms) {
+      int index = hallways[--hallwayCount];
+      if (!isHallway(index)) {
+        continue;
+      }
+
+      int deadEndWall = -1;
+      int wall = -1;
+      for (Direction direction : Direction.values()) {
+        int neighbour = getGridNeighbour(index, direction);
+        if (neighbour < 0 || (exits[index] & direction.getMask()) != 0) {
+          continue;
+        }
+        if (getExitCount(neighbour) != 1) {
+          wall = getWall(index, direction);
+          break;
+        }
+        if (deadEndWall < 0) {
+          deadEndWall = getWall(index, direction);
+        }
+      }
+
+      if (wall < 0 && deadEndWall >= 0) {
+        wall = deadEndWall;
+      }
+      if (wall >= 0) {
+        int cellA = getCellA(wall);
+        int cellB = getCellB(wall);
+        caveCount -= getCaveCount(cellA, cellB);
+        connectCells(wall);
+        caveCount += getCaveCount(cellA, cellB);
+
+        //Joining a dead end to the hallway turns it into a hallway
+        hallways[hallwayCount++] = cellA == index ? cellB : cellA;
+      }
+    }
+
+    rebuildCaves();
+  }
+
+  /**
+   * Replaces the layout with one in which every room is a non-hallway room.
+   * When the maze wraps every passage is opened. Otherwise the passages
+   * form a comb: every passage is open along one axis, and along the other
+   * axis only the rooms away from the edges are joined, leaving the rooms
+   * on the two opposite edges as dead ends. This is used only for maze
+   * sizes that can support this many non-hallway rooms.
+   * @param wraps whether or not the maze wraps
+   */
+  private void buildOpenMaze(boolean wraps) {
+    Arrays.fill(exits, (byte)0);
+    for (int y = 0; y < rows; ++y) {
+      for (int x = 0; x < cols; ++x) {
+        int index = getRoomIndex(y, x);
+        boolean joinRow = wraps || rows == 2 || (y > 0 && y < rows - 1);
+        boolean joinCol = wraps || rows > 2 || (x > 0 && x < cols - 1);
+        if (x < cols - 1 && joinRow) {
+          connectCells(index << 1 | EAST_EDGE);
+        }
+        if (y < rows - 1 && joinCol) {
+          connectCells(index << 1 | SOUTH_EDGE);
+        }
+      }
+    }
+    if (wraps) {
+      wrapCells();
+    }
+    rebuildCaves();
+  }
+
+  /**
+   * Lists the non-hallway cells in order of their index.
+   */
+  private void rebuildCaves() {
+    caveCount = 0;
+    for (int index = 0; index < roomCount; ++index) {
+      if (!isHallway(index)) {
+        caves[caveCount++] = index;
+      }
+    }
+  }
+
+  private int getCaveCount(int cellA, int cellB) {
+    int count = isHallway(cellA) ? 0 : 1;
+    if (cellB != cellA && !isHallway(cellB)) {
+      ++count;
+    }
+    return count;
+  }
+
+  /**
+   * Gets the neighbouring cell in a direction without wrapping.
+   * @return the index of the neighbour, or -1 if there is none
+   */
+  private int getGridNeighbour(int index, Direction direction) {
+    int row = index / cols;
+    int col = index % cols;
+    switch (direction) {
+      case NORTH:
+        return row > 0 ? index - cols : -1;
+      case SOUTH:
+        return row < rows - 1 ? index + cols : -1;
+      case EAST:
+        return col < cols - 1 ? index + 1 : -1;
+      default:
+        return col > 0 ? index - 1 : -1;
+    }
+  }
+
+  /**
+   * Gets the edge between a cell and its neighbour in a direction.
+   */
+  private int getWall(int index, Direction direction) {
+    switch (direction) {
+      case NORTH:
+        return (index - cols) << 1 | SOUTH_EDGE;
+      case SOUTH:
+        return index << 1 | SOUTH_EDGE;
+      case EAST:
+        return index << 1 | EAST_EDGE;
+      default:
+        return (index - 1) << 1 | EAST_EDGE;
+    }
+  }
+
+  /**
+   * Randomly selects the cells that hold the bats, the pits and the wumpus.
+   * Must be called after the maze has been generated.
+   * @param batCount the number of bats in the maze
+   * @param pitCount the number of pits in the maze
+   * @return the hazard bits of each cell
+   */
+  public byte[] placeEntities(int batCount, int pitCount) {
+    return placeEntities(batCount, pitCount, random);
+  }
+
+  /**
+   * Randomly selects the cells that hold the bats, the pits and the wumpus
+   * using a different source of randomness than the layout.
+   * Must be called after the maze has been generated.
+   * @param batCount the number of bats in the maze
+   * @param pitCount the number of pits in the maze
+   * @param random the source of randomness for the placement
+   * @return the hazard bits of each cell
+   */
+  public byte[] placeEntities(int batCount, int pitCount, Random random) {
+    return placeEntities(caves, caveCount, roomCount, batCount, pitCount, random);
+  }
+
+  /**
+   * Randomly selects the cells that hold the bats, the pits and the wumpus.
+   * @param caves the indices of the non-hallway cells
+   * @param caveCount the number of non-hallway cells
+   * @param cellCount the number of cells in the maze
+   * @param batCount the number of bats in the maze
+   * @param pitCount the number of pits in the maze
+   * @param random the source of randomness for the placement
+   * @return the hazard bits of each cell
+   */
+  static byte[] placeEntities(
+      int[] caves,
+      int caveCount,
+      int cellCount,
+      int batCount,
+      int pitCount,
+      Random random) {
+    byte[] hazards = new byte[cellCount];
+
+    //The caves are chosen with a partial Fisher-Yates shuffle,
+    //so only one random number is drawn for each entity
+    int[] caveIndices = new int[caveCount];
+    for (int i = 0; i < caveCount; ++i) {
+      caveIndices[i] = i;
+    }
+
+    //Add the bats to random caves
+    for (int i = 0; i < batCount; ++i) {
+      hazards[caves[chooseIndex(caveIndices, i, random)]] |= MazeTopology.BATS;
+    }
+
+    //Continuing to shuffle the already shuffled indices from the start
+    //chooses the wumpus and pits independently of the bats
+
+    //Add the wumpus to a random cave
+    hazards[caves[chooseIndex(caveIndices, 0, random)]] |= MazeTopology.WUMPUS;
+
+    //Add the pits to random caves
+    for (int i = 1; i < 1 + pitCount; ++i) {
+      hazards[caves[chooseIndex(caveIndices, i, random)]] |= MazeTopology.PIT;
+    }
+
+    return hazards;
+  }
+
+  /**
+   * Performs one step of a Fisher-Yates shuffle, moving a randomly chosen
+   * value from the unshuffled part of the array into position i.
+   * @param values the values being shuffled
+   * @param i the position to fill
+   * @param random the source of randomness for the shuffle
+   * @return the value moved into position i
+   */
+  private static int chooseIndex(int[] values, int i, Random random) {
+    int j = i + random.nextInt(values.length - i);
+    int value = values[j];
+    values[j] = values[i];
+    values[i] = value;
+    return value;
+  }
+
+  /**
+   * Gets the exit mask of every cell. The generator retains
+   * ownership of the array.
+   * @return the exit masks
+   */
+  public byte[] getExits() {
+    return exits;
+  }
+
+  /**
+   * Gets the number of non-hallway cells.
+   * @return the number of non-hallway cells
+   */
+  public int getCaveCount() {
+    return caveCount;
+  }
+
+  /**
+   * Gets the index of a non-hallway cell. Non-hallway cells are
+   * ordered by index, followed by any hallways that were converted
+   * into non-hallways in the order they were converted. If walls next
+   * to hallways were not enough to create the required non-hallway
+   * cells, then the cells are ordered by index only.
+   * @param i the position of the cell among the non-hallway cells
+   * @return the index of the cell
+   */
+  public int getCave(int i) {
+    return caves[i];
+  }
+
+  /**
+   * Gets the number of remaining walls for an NxM perfect maze.
+   * @param rows the number of rows
+   * @param cols the number of columns
+   * @return the number of walls in a perfect maze of this size
+   */
+  private static int getPerfectMazeEdgeCount(int rows, int cols) {
+    int totalEdges = getInitialEdgeCount(rows, cols);
+    return totalEdges - rows * cols + 1;
+  }
+
+  private static int getInitialEdgeCount(int rows, int cols) {
+    return (cols - 1) * rows + (rows - 1) * cols;
+  }
+
+  private int[] generateEdges() {
+    int[] edges = new int[getInitialEdgeCount(rows, cols)];
+    int edgeIndex = 0;
+    for (int x = 0; x < cols - 1; ++x) {
+      for (int y = 0; y < rows; ++y) {
+        edges[edgeIndex++] = getRoomIndex(y, x) << 1 | EAST_EDGE;
+      }
+    }
+    for (int x = 0; x < cols; ++x) {
+      for (int y = 0; y < rows - 1; ++y) {
+        edges[edgeIndex++] = getRoomIndex(y, x) << 1 | SOUTH_EDGE;
+      }
+    }
+    return edges;
+  }
+
+  /**
+   * Shuffles the values in place using a Fisher-Yates shuffle. This draws
+   * the same random numbers as {@link java.util.Collections#shuffle(java.util.List, Random)}
+   * so the same seed produces the same order.
+   * @param values the values to shuffle
+   * @param random the source of randomness for the shuffle
+   */
+  private static void shuffle(int[] values, Random random) {
+    for (int i = values.length; i > 1; --i) {
+      int j = random.nextInt(i);
+      int swap = values[i - 1];
+      values[i - 1] = values[j];
+      values[j] = swap;
+    }
+  }
+
+  private int getCellA(int edge) {
+    return edge >>> 1;
+  }
+
+  private int getCellB(int edge) {
+    int cellA = edge >>> 1;
+    return (edge & 1) == EAST_EDGE ? cellA + 1 : cellA + cols;
+  }
+
+  private void connectCells(int edge) {
+    int cellA = getCellA(edge);
+    int cellB = getCellB(edge);
+    if ((edge & 1) == EAST_EDGE) {
+      exits[cellA] |= Direction.EAST.getMask();
+      exits[cellB] |= Direction.WEST.getMask();
+    }
+    else {
+      exits[cellA] |= Direction.SOUTH.getMask();
+      exits[cellB] |= Direction.NORTH.getMask();
+    }
+  }
+
+  private void wrapCells() {
+    for (int i = 0; i < cols; ++i) {
+      exits[i] |= Direction.NORTH.getMask();
+      exits[i + (rows - 1) * cols] |= Direction.SOUTH.getMask();
+    }
+
+    for (int i = 0; i <= (rows - 1) * cols; i += cols) {
+      exits[i] |= Direction.WEST.getMask();
+      exits[i + (cols - 1)] |= Direction.EAST.getMask();
+    }
+  }
+
+  private int getExitCount(int index) {
+    return Integer.bitCount(exits[index]);
+  }
+
+  private boolean isHallway(int index) {
+    return getExitCount(index) == 2;
+  }
+
+  private int getRoomIndex(int row, int col) {
+    return row * cols + col;
+  }
+
+  /**
+   * Builds a range of tiles, splitting the range in half
+   * until each task builds a single tile.
+   * @author Liam Scholte
+   *
+   */
+  private class TileTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final long tileSeed;
+    private final int tileCols;
+    private final int[][] tileWalls;
+    private final int fromTile;
+    private final int toTile;
+
+    public TileTask(long tileSeed, int tileCols, int[][] tileWalls, int fromTile, int toTile) {
+      this.tileSeed = tileSeed;
+      this.tileCols = tileCols;
+      this.tileWalls = tileWalls;
+      this.fromTile = fromTile;
+      this.toTile = toTile;
+    }
+
+    @Override
+    protected void compute() {
+      if (toTile - fromTile == 1) {
+        Random tileRandom = new Random(mixSeed(tileSeed + fromTile));
+        tileWalls[fromTile] = buildTile(fromTile, tileCols, tileRandom);
+      }
+      else {
+        int middleTile = (fromTile + toTile) >>> 1;
+        invokeAll(
+            new TileTask(tileSeed, tileCols, tileWalls, fromTile, middleTile),
+            new TileTask(tileSeed, tileCols, tileWalls, middleTile, toTile));
+      }
+    }
+  }
+
+  /**
+   * Scrambles a seed so that the random number generators of
+   * neighbouring tiles or chunks are unrelated.
+   */
+  static long mixSeed(long seed) {
+    seed = (seed ^ (seed >>> 30)) * 0xbf58476d1ce4e5b9L;
+    seed = (seed ^ (seed >>> 27)) * 0x94d049bb133111ebL;
+    return seed ^ (seed >>> 31);
+  }
+
+  /**
+   * The walls left over after building the spanning tree. The saved edges
+   * are stored reversed at the end of the edge array and the edges that were
+   * never considered are stored at its start.
+   * @author Liam Scholte
+   *
+   */
+  private static class Walls {
+    private final int[] edges;
+    private final int savedEdgeCount;
+    private int size;
+
+    public Walls(int[] edges, int savedEdgeCount, int remainingEdgeCount) {
+      this.edges = edges;
+      this.savedEdgeCount = savedEdgeCount;
+      this.size = savedEdgeCount + remainingEdgeCount;
+    }
+
+    public int size() {
+      return size;
+    }
+
+    public int get(int i) {
+      if (i < savedEdgeCount) {
+        return edges[edges.length - 1 - i];
+      }
+      return edges[i - savedEdgeCount];
+    }
+
+    public int removeLast() {
+      --size;
+      return get(size);
+    }
+  }
+
+  /**
+   * A helper class for storing cells in sets.
+   * It represents a forest of trees when building
+   * up a spanning tree using Kruskal's algorithm.
+   * @author Liam Scholte
+   *
+   */
+  private static class DisjointSetForest {
+
+    private final int[] parent;
+    private final byte[] rank;
+    private int numSets;
+
+    public DisjointSetForest(int n) {
+      numSets = n;
+      parent = new int[n];
+      rank = new byte[n];
+      for (int i = 0; i < n; ++i) {
+        parent[i] = i;
+      }
+    }
+
+    public final int size() {
+      return numSets;
+    }
+
+    public final int find(int x) {
+      int root = x;
+      while (parent[root] != root) {
+        root = parent[root];
+      }
+
+      //Point every node along the path directly at the root
+      //so that later searches are shorter
+      while (parent[x] != root) {
+        int next = parent[x];
+        parent[x] = root;
+        x = next;
+      }
+      return root;
+    }
+
+    public final void union(int x, int y) {
+      int xRoot = find(x);
+      int yRoot = find(y);
+
+      if (xRoot == yRoot) {
+        //x and y are already in same set, so we don't need to union anything
+        return;
+      }
+
+      --numSets;
+
+      //Adds a tree of nodes to another
+      //tree of nodes, creating a larger tree
+      if (rank[xRoot] < rank[yRoot]) {
+        parent[xRoot] = yRoot;
+      }
+      else if (rank[xRoot] > rank[yRoot]) {
+        parent[yRoot] = xRoot;
+      }
+      else {
+        parent[yRoot] = xRoot;
+        ++rank[xRoot];
+      }
+    }
+  }
+}
@@ -0,0 +1,69 @@
+package model.maze;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A maze topology read from a memory-mapped {@link MazeFile}.
+ * Cells are decoded from the mapping each time they are requested.
+ * @author Liam Scholte
+ *
+ */
+public final class MappedMazeTopology implements MazeTopology {
+
+  private final int rows;
+  private final int cols;
+  private final boolean wraps;
+  private final long seed;
+
+  private final ByteBuffer cells;
+
+  /**
+   * Constructs a topology over the cells of a mapped maze file.
+   * @param rows the number of rows in the maze
+   * @param cols the number of columns in the maze
+   * @param wraps whether or not the maze wraps at the edges
+   * @param seed the seed that the maze was generated from
+   * @param file the mapped file, including its header
+   */
+  MappedMazeTopology(int rows, int cols, boolean wraps, long seed, ByteBuffer file) {
+    this.rows = rows;
+    this.cols = cols;
+    this.wraps = wraps;
+    this.seed = seed;
+    file.position(MazeFile.HEADER_SIZE);
+    this.cells = file.slice();
+  }
+
+  @Override
+  public int getRows() {
+    return rows;
+  }
+
+  @Override
+  public int getCols() {
+    return cols;
+  }
+
+  @Override
+  public boolean wraps() {
+    return wraps;
+  }
+
+  @Override
+  public int getExitMask(int index) {
+    return MazeFile.getExits(cells.get(index));
+  }
+
+  @Override
+  public int getHazards(int index) {
+    return MazeFile.getHazards(cells.get(index));
+  }
+
+  /**
+   * Gets the seed that the maze was generated from.
+   * @return the seed
+   */
+  public long getSeed() {
+    return seed;
+  }
+}
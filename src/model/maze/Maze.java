@@ -13,7 +13,10 @@ import java.util.List;
 public interface Maze extends ReadOnlyMaze {
   
   /**
-   * Gets all rooms in the maze in a mutable form.
+   * Gets all rooms in the maze in a mutable form. The rooms can be
+   * explored and entered, but once the maze is built their neighbours
+   * and hazards should not change, since the maze and the games
+   * played in it keep what they learn about them.
    * @return all rooms in the maze
    */
   public List<Room> getMutableRooms();
@@ -0,0 +1,259 @@
+package model.maze;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Reads and writes mazes in a compact binary format. A maze file starts with
+ * a fixed size header followed by one byte per cell in row-major order. The
+ * low four bits of a cell are its exit mask and the high four bits are its
+ * hazard bits.
+ *
+ * <p>The header holds, in big-endian order, the magic number, the format
+ * version, the flags (bit 0 is set if the maze wraps), the number of rows,
+ * the number of columns and the seed the maze was generated from.
+ *
+ * <p>Files are opened by memory-mapping them read-only, so opening a maze
+ * takes the same time regardless of its size, cells are only read from disk
+ * when they are used, and the pages of a file opened by several processes
+ * are shared between them.
+ * @author Liam Scholte
+ *
+ */
+public final class MazeFile {
+
+  /**
+   * The first four bytes of every maze file.
+   */
+  public static final int MAGIC = 0x57554d50;
+
+  /**
+   * The version of the format written by this class.
+   */
+  public static final short VERSION = 1;
+
+  /**
+   * The number of bytes before the first cell.
+   */
+  public static final int HEADER_SIZE = 24;
+
+  private static final short WRAPS_FLAG = 1;
+
+  private static final int HAZARD_SHIFT = 4;
+
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private MazeFile() {
+  }
+
+  /**
+   * Writes a maze to a file, replacing the file if it exists.
+   * @param path the file to write
+   * @param topology the maze to write
+   * @param seed the seed that the maze was generated from
+   * @throws IOException if the file could not be written
+   */
+  public static void write(Path path, MazeTopology topology, long seed) throws IOException {
+    int rows = topology.getRows();
+    int cols = topology.getCols();
+    try (FileChannel channel = openForWriting(path)) {
+      ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+      putHeader(buffer, rows, cols, topology.wraps(), seed);
+
+      for (int index = 0; index < rows * cols; ++index) {
+        if (!buffer.hasRemaining()) {
+          drain(channel, buffer);
+        }
+        buffer.put(toCell(topology.getExitMask(index), topology.getHazards(index)));
+      }
+      drain(channel, buffer);
+    }
+  }
+
+  /**
+   * Opens a maze file by memory-mapping it. The file must not be
+   * modified while the returned topology is in use.
+   * @param path the file to open
+   * @return the maze stored in the file
+   * @throws IOException if the file could not be read or is not a valid maze file
+   */
+  public static MappedMazeTopology open(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size < HEADER_SIZE) {
+        throw new IOException("File is too small to be a maze file");
+      }
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException("File is too large to be opened as a maze");
+      }
+
+      //The mapping stays valid after the channel is closed
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      int rows = readHeader(buffer);
+      int cols = buffer.getInt(12);
+      if ((long)rows * cols != size - HEADER_SIZE) {
+        throw new IOException("File does not have exactly one byte per cell");
+      }
+
+      boolean wraps = (buffer.getShort(6) & WRAPS_FLAG) != 0;
+      long seed = buffer.getLong(16);
+      return new MappedMazeTopology(rows, cols, wraps, seed, buffer);
+    }
+  }
+
+  /**
+   * Randomly places bats, pits and a wumpus in the non-hallway cells of a
+   * maze file that has none, such as one written by a {@link MazeFileWriter}.
+   * The cells are updated in place and only the chosen cells are held
+   * in memory, so the maze is never loaded into memory as a whole.
+   * @param path the file to update
+   * @param batCount the number of bats in the maze
+   * @param pitCount the number of pits in the maze
+   * @param random the source of randomness for the placement
+   * @throws IOException if the file could not be updated or is not a valid maze file
+   * @throws IllegalArgumentException if the number of bats or pits is negative or
+   *      if the maze does not have enough non-hallway cells for the entities
+   */
+  public static void placeEntities(Path path, int batCount, int pitCount, Random random)
+      throws IOException, IllegalArgumentException {
+    if (batCount < 0 || pitCount < 0) {
+      throw new IllegalArgumentException(
+          "Number of pits and bats must not be negative");
+    }
+
+    try (FileChannel channel = FileChannel.open(
+        path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      long size = channel.size();
+      if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+        throw new IOException("File is not a maze file that can be opened");
+      }
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+      readHeader(buffer);
+
+      int caveCount = 0;
+      for (int position = HEADER_SIZE; position < size; ++position) {
+        if (Integer.bitCount(buffer.get(position) & 0xf) != 2) {
+          ++caveCount;
+        }
+      }
+      if (Math.max(1 + pitCount, batCount) > caveCount) {
+        throw new IllegalArgumentException(
+            "The maze does not have enough rooms for the required number of entities");
+      }
+
+      //Entities are chosen by their rank among the non-hallway cells
+      //so that only the chosen ranks need to be held in memory
+      int[] batRanks = chooseRanks(batCount, caveCount, random);
+      int[] wumpusAndPitRanks = chooseRanks(1 + pitCount, caveCount, random);
+      int wumpusRank = wumpusAndPitRanks[random.nextInt(wumpusAndPitRanks.length)];
+
+      int rank = 0;
+      int batIndex = 0;
+      int pitIndex = 0;
+      for (int position = HEADER_SIZE; position < size; ++position) {
+        int cell = buffer.get(position);
+        if (Integer.bitCount(cell & 0xf) == 2) {
+          continue;
+        }
+
+        int hazards = 0;
+        if (batIndex < batRanks.length && batRanks[batIndex] == rank) {
+          hazards |= MazeTopology.BATS;
+          ++batIndex;
+        }
+        if (pitIndex < wumpusAndPitRanks.length && wumpusAndPitRanks[pitIndex] == rank) {
+          hazards |= rank == wumpusRank ? MazeTopology.WUMPUS : MazeTopology.PIT;
+          ++pitIndex;
+        }
+        buffer.put(position, toCell(cell & 0xf, hazards));
+        ++rank;
+      }
+      buffer.force();
+    }
+  }
+
+  /**
+   * Chooses distinct random ranks from [0, rankCount)
+   * using Floyd's algorithm.
+   * @return the chosen ranks in ascending order
+   */
+  private static int[] chooseRanks(int count, int rankCount, Random random) {
+    Set<Integer> chosenRanks = new HashSet<Integer>();
+    for (int j = rankCount - count; j < rankCount; ++j) {
+      int rank = random.nextInt(j + 1);
+      chosenRanks.add(chosenRanks.contains(rank) ? j : rank);
+    }
+
+    int[] ranks = new int[count];
+    int i = 0;
+    for (int rank : chosenRanks) {
+      ranks[i++] = rank;
+    }
+    Arrays.sort(ranks);
+    return ranks;
+  }
+
+  static FileChannel openForWriting(Path path) throws IOException {
+    return FileChannel.open(
+        path,
+        StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING,
+        StandardOpenOption.WRITE);
+  }
+
+  static void putHeader(ByteBuffer buffer, int rows, int cols, boolean wraps, long seed) {
+    buffer.putInt(MAGIC);
+    buffer.putShort(VERSION);
+    buffer.putShort(wraps ? WRAPS_FLAG : 0);
+    buffer.putInt(rows);
+    buffer.putInt(cols);
+    buffer.putLong(seed);
+  }
+
+  static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  static byte toCell(int exits, int hazards) {
+    return (byte)(exits | hazards << HAZARD_SHIFT);
+  }
+
+  static int getExits(byte cell) {
+    return cell & 0xf;
+  }
+
+  static int getHazards(byte cell) {
+    return (cell & 0xff) >>> HAZARD_SHIFT;
+  }
+
+  /**
+   * Validates the header of a maze file.
+   * @return the number of rows in the maze
+   */
+  private static int readHeader(ByteBuffer buffer) throws IOException {
+    if (buffer.getInt(0) != MAGIC) {
+      throw new IOException("File is not a maze file");
+    }
+    if (buffer.getShort(4) != VERSION) {
+      throw new IOException("Unsupported maze file version " + buffer.getShort(4));
+    }
+    int rows = buffer.getInt(8);
+    int cols = buffer.getInt(12);
+    if (rows < 1 || cols < 1) {
+      throw new IOException("Maze file has invalid dimensions");
+    }
+    return rows;
+  }
+}
@@ -0,0 +1,84 @@
+package model.maze;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+/**
+ * Writes the rows of a maze straight to a {@link MazeFile} as they are
+ * generated, so mazes larger than memory can be saved. The cells are
+ * written without hazards, which can be added afterwards with
+ * {@link MazeFile#placeEntities}.
+ * @author Liam Scholte
+ *
+ */
+public class MazeFileWriter implements MazeRowSink, Closeable {
+
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final int rows;
+  private final int cols;
+
+  private final FileChannel channel;
+  private final ByteBuffer buffer;
+  private int rowCount;
+
+  /**
+   * Creates the maze file and writes its header, replacing the file if it exists.
+   * @param path the file to write
+   * @param rows the number of rows in the maze
+   * @param cols the number of columns in the maze
+   * @param wraps whether or not the maze wraps at the edges
+   * @param seed the seed that the maze is generated from
+   * @throws IllegalArgumentException if rows or columns is not positive
+   * @throws IOException if the file could not be created
+   */
+  public MazeFileWriter(Path path, int rows, int cols, boolean wraps, long seed)
+      throws IllegalArgumentException, IOException {
+    if (rows < 1 || cols < 1) {
+      throw new IllegalArgumentException(
+          "Number of rows and columns must both be positive");
+    }
+    this.rows = rows;
+    this.cols = cols;
+    channel = MazeFile.openForWriting(path);
+    buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    MazeFile.putHeader(buffer, rows, cols, wraps, seed);
+    rowCount = 0;
+  }
+
+  @Override
+  public void acceptRow(int row, byte[] exits) throws IllegalArgumentException, IOException {
+    if (row != rowCount || exits.length != cols) {
+      throw new IllegalArgumentException(
+          "Rows must be supplied in order and have one entry per column");
+    }
+    for (byte cell : exits) {
+      if (!buffer.hasRemaining()) {
+        MazeFile.drain(channel, buffer);
+      }
+      buffer.put(MazeFile.toCell(cell, 0));
+    }
+    ++rowCount;
+  }
+
+  /**
+   * Writes any buffered cells and closes the file.
+   * @throws IOException if the file could not be written or
+   *      if not every row of the maze was supplied
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      MazeFile.drain(channel, buffer);
+    }
+    finally {
+      channel.close();
+    }
+    if (rowCount != rows) {
+      throw new IOException("Not every row of the maze was written");
+    }
+  }
+}
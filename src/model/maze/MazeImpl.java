@@ -4,23 +4,21 @@ import model.Direction;
 import model.Position;
 import model.ReadOnlyRoom;
 import model.Room;
+import model.SplitRandom;
 
 import java.awt.Dimension;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Random;
-import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * A randomized maze both in terms of room layout
  * as well as the layout of entities such as pits
- * within the maze.
+ * within the maze. The layout of the rooms is fixed
+ * once the maze is built, so that its topology and
+ * safe regions always describe its rooms.
  * @author Liam Scholte
  *
  */
@@ -28,12 +26,16 @@ public class MazeImpl implements Maze {
   
   private final int rows;
   private final int cols;
-  private final int roomCount;
+  private final boolean wraps;
+  private final MazeTopology topology;
+  //Found the first time they are needed, since most mazes never need them
+  private SafeRegions safeRegions;
          
   private List<Room> allRooms;
   private List<Room> nonHallwayRooms;
+  private List<ReadOnlyRoom> readOnlyRooms;
   
-  private Random random;
+  private final ExplorationLog explorationLog = new ExplorationLog();
   
   /**
    * Constructs a randomized maze.
@@ -43,12 +45,11 @@ public class MazeImpl implements Maze {
    * @param pitCount the number of pits in the maze
    * @param wraps whether or not the rooms on the edge of the
    *      maze wrap to the opposite side
+   * @param random the source of randomness for the maze and its bats
    * @throws IllegalArgumentException if rows or columns is not positive
    * @throws IllegalArgumentException if the number of bats or pits is negative
    * @throws IllegalArgumentException if dimensions of the maze could not possibly
    *      support all the required entities (pits, bats, and wumpus)
-   * @throws MazeGenerationException if the maze generation is unable to create
-   *      a random maze with the required number of non-hallway rooms
    */
   public MazeImpl(
       int rows,
@@ -56,386 +57,320 @@ public class MazeImpl implements Maze {
       int batCount,
       int pitCount,
       boolean wraps,
-      Random random) throws IllegalArgumentException, MazeGenerationException {
-    if (rows < 1 || cols < 1) {
-      throw new IllegalArgumentException(
-          "Number of rows and columns must both be positive");
-    }
+      Random random) throws IllegalArgumentException {
+    this(
+        rows,
+        cols,
+        wraps,
+        generate(rows, cols, batCount, pitCount, wraps, random, null),
+        batCount,
+        pitCount,
+        random);
+  }
+  
+  /**
+   * Constructs a randomized maze, generating the layout of large
+   * mazes on multiple threads. The maze depends only on the seed of
+   * the random number generator and not on the number of threads.
+   * @param rows the number of rows in the maze
+   * @param cols the number of columns in the maze
+   * @param batCount the number of bats in the maze
+   * @param pitCount the number of pits in the maze
+   * @param wraps whether or not the rooms on the edge of the
+   *      maze wrap to the opposite side
+   * @param random the source of randomness for the maze and its bats
+   * @param pool the pool that generates the layout
+   * @throws IllegalArgumentException if rows or columns is not positive
+   * @throws IllegalArgumentException if the number of bats or pits is negative
+   * @throws IllegalArgumentException if dimensions of the maze could not possibly
+   *      support all the required entities (pits, bats, and wumpus)
+   */
+  public MazeImpl(
+      int rows,
+      int cols,
+      int batCount,
+      int pitCount,
+      boolean wraps,
+      Random random,
+      ForkJoinPool pool) throws IllegalArgumentException {
+    this(
+        rows,
+        cols,
+        wraps,
+        generate(rows, cols, batCount, pitCount, wraps, random, pool),
+        batCount,
+        pitCount,
+        random);
+  }
+  
+  /**
+   * Constructs a maze from a generated layout, placing its entities.
+   * @param rows the number of rows in the maze
+   * @param cols the number of columns in the maze
+   * @param wraps whether or not the maze wraps
+   * @param generator the generator that has generated the layout
+   * @param batCount the number of bats in the maze
+   * @param pitCount the number of pits in the maze
+   * @param random the source of randomness for the bats
+   */
+  private MazeImpl(
+      int rows,
+      int cols,
+      boolean wraps,
+      KruskalMazeGenerator generator,
+      int batCount,
+      int pitCount,
+      Random random) {
+    this.rows = rows;
+    this.cols = cols;
+    this.wraps = wraps;
+    
+    topology = ArrayMazeTopology.adopt(
+        rows, cols, wraps, generator.getExits(), generator.placeEntities(batCount, pitCount));
     
-    if (batCount < 0 || pitCount < 0) {
-      throw new IllegalArgumentException(
-          "Number of pits and bats must not be negative");
+    generateRooms(topology);
+    
+    nonHallwayRooms = new ArrayList<Room>(generator.getCaveCount());
+    for (int i = 0; i < generator.getCaveCount(); ++i) {
+      nonHallwayRooms.add(allRooms.get(generator.getCave(i)));
     }
     
-    int minRooms = Math.max(1 + pitCount, batCount);    
-    if (minRooms > rows * cols) {
-      throw new IllegalArgumentException(
-          "The dimensions of the maze do not support the required number of rooms");
+    addRoomEntities(topology, new SplitRandom(random.nextLong()));
+    
+    precomputeTunnels();
+    fixLayout();
+  }
+  
+  /**
+   * Constructs a maze with the layout and entities of a topology.
+   * The maze has its own rooms, so several mazes may share one topology
+   * while being explored and played independently. The bats
+   * move players unpredictably.
+   * @param topology the layout of the maze
+   * @throws IllegalArgumentException if the topology is null
+   */
+  public MazeImpl(MazeTopology topology) throws IllegalArgumentException {
+    this(topology, new SplitRandom(new Random().nextLong()));
+  }
+  
+  /**
+   * Constructs a maze with the layout and entities of a topology.
+   * The maze has its own rooms, so several mazes may share one topology
+   * while being explored and played independently. Each room with bats
+   * gets its own stream split from the specified generator, in the order
+   * of the rooms, so the bats of a maze can be replayed from one seed.
+   * @param topology the layout of the maze
+   * @param batRandom the generator the streams of the bats are split from
+   * @throws IllegalArgumentException if the topology or generator is null
+   */
+  public MazeImpl(MazeTopology topology, SplitRandom batRandom) throws IllegalArgumentException {
+    if (topology == null) {
+      throw new IllegalArgumentException("Topology must not be null");
+    }
+    if (batRandom == null) {
+      throw new IllegalArgumentException("Random must not be null");
     }
     
-    this.rows = rows;
-    this.cols = cols;
-    this.roomCount = rows * cols;
-    this.random = random;
-        
-    generateMaze(wraps, minRooms);
+    this.rows = topology.getRows();
+    this.cols = topology.getCols();
+    this.wraps = topology.wraps();
+    this.topology = topology;
     
-    addRoomEntities(batCount, pitCount);
+    generateRooms(topology);
     
+    nonHallwayRooms = new ArrayList<Room>();
+    for (int index = 0; index < rows * cols; ++index) {
+      if (Integer.bitCount(topology.getExitMask(index)) != 2) {
+        nonHallwayRooms.add(allRooms.get(index));
+      }
+    }
+    
+    addRoomEntities(topology, batRandom);
+    
+    precomputeTunnels();
+    fixLayout();
+  }
+  
+  /**
+   * Generates the layout of a randomized maze.
+   * @param pool the pool that generates the layout, or null
+   *      to generate it on the calling thread
+   * @return the generator holding the layout
+   * @throws IllegalArgumentException if the dimensions or counts are invalid
+   */
+  private static KruskalMazeGenerator generate(
+      int rows,
+      int cols,
+      int batCount,
+      int pitCount,
+      boolean wraps,
+      Random random,
+      ForkJoinPool pool) throws IllegalArgumentException {
+    int minRooms = KruskalMazeGenerator.getMinRooms(rows, cols, batCount, pitCount, wraps);
+    KruskalMazeGenerator generator = new KruskalMazeGenerator(rows, cols, random);
+    if (pool == null) {
+      generator.generate(wraps, minRooms);
+    }
+    else {
+      generator.generate(wraps, minRooms, pool);
+    }
+    return generator;
   }
   
   @Override
   public List<ReadOnlyRoom> getRooms() {
-    return nonHallwayRooms.stream().collect(Collectors.toList());
+    if (readOnlyRooms == null) {
+      readOnlyRooms = Collections.unmodifiableList(nonHallwayRooms);
+    }
+    return readOnlyRooms;
   }
   
   @Override
-  public List<Room> getMutableRooms() {
-    return nonHallwayRooms;
+  public int roomCount() {
+    return nonHallwayRooms.size();
   }
   
   @Override
-  public List<ReadOnlyRoom> getExploredRooms() {
-    return allRooms.stream().filter(room -> room.isExplored()).collect(Collectors.toList());
+  public ReadOnlyRoom roomAt(int index) throws IndexOutOfBoundsException {
+    return nonHallwayRooms.get(index);
   }
   
   @Override
-  public Dimension getSize() {
-    return new Dimension(cols, rows);
+  public List<Room> getMutableRooms() {
+    return nonHallwayRooms;
   }
   
-  /**
-   * Gets the number of remaining walls for an NxM perfect maze.
-   * @param rows the number of rows
-   * @param cols the number of columns
-   * @return the number of walls in a perfect maze of this size
-   */
-  private static int getPerfectMazeEdgeCount(int rows, int cols) {
-    int totalEdges = getInitialEdgeCount(rows, cols);
-    return totalEdges - rows * cols + 1;
+  @Override
+  public List<ReadOnlyRoom> getExploredRooms() {
+    return explorationLog.getExploredRooms();
   }
   
-  private static int getInitialEdgeCount(int rows, int cols) {
-    return (cols - 1) * rows + (rows - 1) * cols;
+  @Override
+  public int getExplorationVersion() {
+    return explorationLog.getVersion();
   }
   
-  private Room[] generateRooms(GraphNode[] nodes) {    
-    Room[] rooms = new Room[nodes.length];
-    int i = 0;
-    for (GraphNode node : nodes) {
-      rooms[i] = new Room(new Position(node.x, node.y));
-      ++i;
-    }
-    
-    return rooms;
+  @Override
+  public List<ReadOnlyRoom> getExploredRoomsSince(int version) throws IllegalArgumentException {
+    return explorationLog.getExploredRoomsSince(version);
   }
   
-  private GraphNode[] generateNodes() {
-    GraphNode[] nodes = new GraphNode[rows * cols];
-    int index = 0;
-    for (int y = 0; y < rows; ++y) {
-      for (int x = 0; x < cols; ++x) {
-        nodes[index] = new GraphNode(index, x, y);
-        ++index;
-      }
-    } 
-    return nodes;
+  @Override
+  public Dimension getSize() {
+    return new Dimension(cols, rows);
   }
   
-  private List<GraphEdge> generateEdges(GraphNode[] nodes) {
-    int initialEdgeCount = getInitialEdgeCount(rows, cols);
-    List<GraphEdge> edges = new ArrayList<GraphEdge>(initialEdgeCount);
-    for (int x = 0; x < cols - 1; ++x) {
-      for (int y = 0; y < rows; ++y) {
-        GraphNode nodeA = nodes[getRoomIndex(y, x)];
-        GraphNode nodeB = nodes[getRoomIndex(y, x + 1)];
-        edges.add(new GraphEdge(nodeA, nodeB));
-      }
-    }
-    for (int x = 0; x < cols; ++x) {
-      for (int y = 0; y < rows - 1; ++y) {
-        GraphNode nodeA = nodes[getRoomIndex(y, x)];
-        GraphNode nodeB = nodes[getRoomIndex(y + 1, x)];
-        edges.add(new GraphEdge(nodeA, nodeB));
-      }
-    }
-    
-    return edges;
+  @Override
+  public boolean wraps() {
+    return wraps;
   }
   
-  private void connectRooms(Room roomA, Room roomB, GraphEdge edge) {
-    if (edge.nodeA.x < edge.nodeB.x) {
-      roomA.setNeighbour(Direction.EAST, roomB);
-    }
-    else if (edge.nodeA.x > edge.nodeB.x) {
-      roomA.setNeighbour(Direction.WEST, roomB);
-    }
-    else if (edge.nodeA.y < edge.nodeB.y) {
-      roomA.setNeighbour(Direction.SOUTH, roomB);
-    }
-    else {
-      roomA.setNeighbour(Direction.NORTH, roomB);
+  @Override
+  public MazeTopology getTopology() {
+    return topology;
+  }
+
+  @Override
+  public SafeRegions getSafeRegions() {
+    if (safeRegions == null) {
+      safeRegions = new SafeRegions(topology);
     }
+    return safeRegions;
   }
   
-  private void wrapRooms(Room[] rooms) {
-    for (int i = 0; i < cols; ++i) {
-      Room northRoom = rooms[i];
-      Room southRoom = rooms[i + (rows - 1) * cols];
-      
-      northRoom.setNeighbour(Direction.NORTH, southRoom);
-      southRoom.setNeighbour(Direction.SOUTH, northRoom);
-    }
-    
-    for (int i = 0; i <= (rows - 1) * cols; i += cols) {
-      Room westRoom = rooms[i];
-      Room eastRoom = rooms[i + (cols - 1)];
-      
-      westRoom.setNeighbour(Direction.WEST, eastRoom);
-      eastRoom.setNeighbour(Direction.EAST, westRoom);
-    }
+  @Override
+  public Position normalize(int x, int y) {
+    //The rooms hold the only instance of each position in the maze
+    ReadOnlyRoom room = getRoomAt(x, y);
+    return room == null ? null : room.getPosition();
   }
   
-  private void addRoomEntities(int batCount, int pitCount) {
-    //Generate a sequence of numbers from [0, N) and then shuffle the sequence
-    List<Integer> roomIndices =
-        IntStream
-            .range(0, nonHallwayRooms.size())
-            .boxed()
-            .collect(Collectors.toList());
-    Collections.shuffle(roomIndices, random);
-    
-    //Add the bats to random rooms
-    for (int i = 0; i < batCount; ++i) {
-      nonHallwayRooms.get(roomIndices.get(i)).addBats(this);
+  @Override
+  public ReadOnlyRoom getRoomAt(int x, int y) {
+    if (wraps) {
+      x = Math.floorMod(x, cols);
+      y = Math.floorMod(y, rows);
     }
-    
-    Collections.shuffle(roomIndices, random);
-    
-    //Add the wumpus to a random room
-    Room room = nonHallwayRooms.get(roomIndices.get(0));
-    room.addWumpus();
-    
-    //Add the pits to random rooms
-    for (int i = 1; i < 1 + pitCount; ++i) {
-      room = nonHallwayRooms.get(roomIndices.get(i));
-      room.addPit();
+    else if (x < 0 || y < 0 || x >= cols || y >= rows) {
+      return null;
     }
-    
+    return allRooms.get(getRoomIndex(y, x));
   }
   
-  private void generateMaze(boolean wraps, int minRooms) throws MazeGenerationException {    
-    GraphNode[] nodes = generateNodes();
-    List<GraphEdge> edges = generateEdges(nodes);
-    
-    Collections.shuffle(edges, random);
-    
-    //Gives each node its own tree to start
-    DisjointSetForest trees = new DisjointSetForest(roomCount);
-    
-    
-    Room[] rooms = generateRooms(nodes);
-    
-    //Start by creating a perfect maze by creating a spanning tree
-    //by joining trees together until there is one giant tree
-    List<GraphEdge> savedEdges = new ArrayList<GraphEdge>();
-    while (!edges.isEmpty() && trees.size() > 1) {
-
-      //Remove the last edge, which is essentially a random
-      //edge because the list has been shuffled
-      GraphEdge edge = edges.remove(edges.size() - 1);
-
-      //Look for the tree that contains node A
-      //and the tree that contains node B.
-      int a = trees.find(edge.nodeA.index);
-      int b = trees.find(edge.nodeB.index);
-
-      //If nodes A and B are not in same tree
-      if (a != b) {
-        //Combines the trees into one
-        trees.union(a, b);
-        
-        Room roomA = rooms[edge.nodeA.index];
-        Room roomB = rooms[edge.nodeB.index];
-        
-        connectRooms(roomA, roomB, edge);
-      }
-      else {
-        //Both nodes are already in the same set of nodes, so
-        //connecting these rooms would create a non-perfect maze
-        savedEdges.add(edge);
+  private void generateRooms(MazeTopology topology) {
+    Room[] rooms = new Room[rows * cols];
+    int index = 0;
+    for (int y = 0; y < rows; ++y) {
+      for (int x = 0; x < cols; ++x) {
+        rooms[index] = new Room(new Position(x, y), explorationLog, index);
+        ++index;
       }
     }
     
-    //Copy over any remaining edges to saved edges
-    for (GraphEdge edge : edges) {
-      savedEdges.add(edge);
-    }
-    
-    //Remove remaining edges until the desired number of remaining
-    //walls is reached
-    while (savedEdges.size() > getPerfectMazeEdgeCount(rows, cols)) {
-      GraphEdge edge = savedEdges.remove(savedEdges.size() - 1);
-            
-      Room roomA = rooms[edge.nodeA.index];
-      Room roomB = rooms[edge.nodeB.index];
-            
-      connectRooms(roomA, roomB, edge);
-    }
-    
-    //If wrapping was specified,
-    //then attach each outside room to it's
-    //corresponding opposite room
-    if (wraps) {
-      wrapRooms(rooms);      
+    //Every passage is either the east or the south exit of exactly
+    //one cell, including the passages that wrap around the edges
+    for (int y = 0; y < rows; ++y) {
+      for (int x = 0; x < cols; ++x) {
+        Room room = rooms[getRoomIndex(y, x)];
+        int exits = topology.getExitMask(getRoomIndex(y, x));
+        if ((exits & Direction.EAST.getMask()) != 0) {
+          room.setNeighbour(Direction.EAST, rooms[getRoomIndex(y, (x + 1) % cols)]);
+        }
+        if ((exits & Direction.SOUTH.getMask()) != 0) {
+          room.setNeighbour(Direction.SOUTH, rooms[getRoomIndex((y + 1) % rows, x)]);
+        }
+      }
     }
     
-    allRooms = new ArrayList<Room>();
-    
-    Set<Room> tunnels = new HashSet<Room>();
-    Set<Room> caves = new LinkedHashSet<Room>();
+    allRooms = new ArrayList<Room>(rooms.length);
     for (Room room : rooms) {
-      if (room.isHallway()) {
-        tunnels.add(room);
-      }
-      else {
-        caves.add(room);
-      }
       allRooms.add(room);
     }
-    
-    Iterator<GraphEdge> edgeIterator = savedEdges.iterator();
-    while (caves.size() < minRooms && edgeIterator.hasNext()) {
-      GraphEdge edge = edgeIterator.next();
-      Room roomA = rooms[edge.nodeA.index];
-      Room roomB = rooms[edge.nodeB.index];
-      
-      boolean shouldConnectRooms = false;
-      if (roomA.isHallway() && roomB.getExitCount() != 1) {
-        caves.add(roomA);
-        tunnels.remove(roomA);
-        shouldConnectRooms = true;
+  }
+  
+  private void addRoomEntities(MazeTopology topology, SplitRandom batRandom) {
+    for (int index = 0; index < allRooms.size(); ++index) {
+      Room room = allRooms.get(index);
+      int hazards = topology.getHazards(index);
+      if ((hazards & MazeTopology.BATS) != 0) {
+        room.addBats(this, batRandom.split());
       }
-      
-      if (roomB.isHallway() && roomA.getExitCount() != 1) {
-        caves.add(roomB);
-        tunnels.remove(roomB);
-        shouldConnectRooms = true;
+      if ((hazards & MazeTopology.WUMPUS) != 0) {
+        room.addWumpus();
       }
-      
-      if (shouldConnectRooms) {
-        connectRooms(roomA, roomB, edge);
-        edgeIterator.remove();
+      if ((hazards & MazeTopology.PIT) != 0) {
+        room.addPit();
       }
     }
-    
-    if (caves.size() < minRooms) {
-      throw new MazeGenerationException(
-          "A maze with the required number of rooms could not be generated");
-    }
-
-    nonHallwayRooms = new ArrayList<Room>(caves);
-  }
-  
-  private int getRoomIndex(int row, int col) { 
-    return row * cols + col;
   }
   
   /**
-   * A helper class that represents a node in a graph.
-   * @author Liam Scholte
-   *
+   * Follows every tunnel between non-hallway rooms once, so that later
+   * searches for the next non-hallway room never walk the hallways and
+   * checks for nearby hazards only read what was found here.
    */
-  private static class GraphNode {
-    private final int index;
-    private final int x;
-    private final int y;
-    
-    public GraphNode(int index, int x, int y) {
-      this.index = index;
-      this.x = x;
-      this.y = y;
+  private void precomputeTunnels() {
+    for (Room room : nonHallwayRooms) {
+      for (Direction direction : room.getAvailableDirections()) {
+        room.getNonHallNeighbour(direction);
+      }
+      //Records the hazards at the ends of the tunnels
+      room.isWumpusNearby();
     }
   }
   
   /**
-   * A helper class that represents an edge between nodes
-   * in a graph.
-   * @author Liam Scholte
-   *
+   * Fixes the layout of every room, including the hallways, since the
+   * topology, its safe regions and the tunnels found here describe the
+   * maze from now on.
    */
-  private static class GraphEdge {
-    private final GraphNode nodeA;
-    private final GraphNode nodeB;
-    
-    public GraphEdge(GraphNode a, GraphNode b) {
-      nodeA = a;
-      nodeB = b;
-    }      
+  private void fixLayout() {
+    for (Room room : allRooms) {
+      room.fixLayout();
+    }
   }
   
-  /**
-   * A helper class for storing nodes in sets.
-   * It represents a forest of trees when building
-   * up a spanning tree using Kruskal's algorithm.
-   * @author Liam Scholte
-   *
-   */
-  private static class DisjointSetForest {
-
-    private final int[] parent;
-    private final int[] rank;
-    private int numSets;
-
-    public DisjointSetForest(int n) {
-      numSets = n;
-      parent = new int[n];
-      rank = new int[n];
-      for (int i = 0; i < n; ++i) {
-        makeSet(i);
-      }
-    }
-
-    public final int size() {
-      return numSets;
-    }
-
-    public final int find(int x) {
-      if (parent[x] == x) {
-        return x;
-      }
-      return find(parent[x]);
-    }
-
-    public final void union(int x, int y) {
-      int xRoot = find(x);
-      int yRoot = find(y);
-
-      if (xRoot == yRoot) {
-        //x and y are already in same set, so we don't need to union anything
-        return;
-      }
-
-      --numSets;
-
-      //Adds a tree of nodes to another
-      //tree of nodes, creating a larger tree
-      if (rank[xRoot] < rank[yRoot]) {
-        parent[xRoot] = yRoot;
-      }
-      else if (rank[xRoot] > rank[yRoot]) {
-        parent[yRoot] = xRoot;
-      }
-      else {
-        parent[yRoot] = xRoot;
-        ++rank[xRoot];
-      }
-    }
-    
-    private void makeSet(int x) {
-      parent[x] = x;
-      rank[x] = 0;
-    }
+  private int getRoomIndex(int row, int col) { 
+    return row * cols + col;
   }
-
 }
@@ -0,0 +1,22 @@
+package model.maze;
+
+import java.io.IOException;
+
+/**
+ * Receives the layout of a maze one row at a time, such as
+ * from a generator that never holds the whole maze in memory.
+ * @author Liam Scholte
+ *
+ */
+public interface MazeRowSink {
+
+  /**
+   * Accepts the next row of a maze. Rows are supplied in order
+   * starting from row 0 and each row is supplied exactly once.
+   * @param row the index of the row
+   * @param exits the exit mask of each cell in the row. The caller
+   *      may reuse the array once this method returns.
+   * @throws IOException if the row could not be stored
+   */
+  public void acceptRow(int row, byte[] exits) throws IOException;
+}
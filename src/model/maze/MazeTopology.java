@@ -0,0 +1,61 @@
+package model.maze;
+
+/**
+ * The layout of a maze stored per cell rather than per room object.
+ * Cells are indexed in row-major order, i.e. {@code row * cols + col}.
+ * Each cell has a 4-bit exit mask built from {@link model.Direction#getMask()}
+ * and a set of hazard bits.
+ * @author Liam Scholte
+ *
+ */
+public interface MazeTopology {
+
+  /**
+   * The hazard bit for a cell containing bats.
+   */
+  public static final int BATS = 1;
+
+  /**
+   * The hazard bit for a cell containing a pit.
+   */
+  public static final int PIT = 2;
+
+  /**
+   * The hazard bit for a cell containing a wumpus.
+   */
+  public static final int WUMPUS = 4;
+
+  /**
+   * Gets the number of rows in the maze.
+   * @return the number of rows
+   */
+  public int getRows();
+
+  /**
+   * Gets the number of columns in the maze.
+   * @return the number of columns
+   */
+  public int getCols();
+
+  /**
+   * Determines whether the cells on the edge of the maze
+   * wrap to the opposite side.
+   * @return {@code true} if the maze wraps,
+   *      {@code false} otherwise
+   */
+  public boolean wraps();
+
+  /**
+   * Gets the exits of a cell.
+   * @param index the index of the cell
+   * @return the exit mask of the cell
+   */
+  public int getExitMask(int index);
+
+  /**
+   * Gets the hazards in a cell.
+   * @param index the index of the cell
+   * @return the hazard bits of the cell
+   */
+  public int getHazards(int index);
+}
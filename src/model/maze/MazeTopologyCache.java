@@ -0,0 +1,186 @@
+package model.maze;
+
+import model.SplitRandom;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of generated maze topologies keyed by the parameters
+ * used to generate them. Topologies are immutable, so a cached topology
+ * can back any number of games at once as long as each game builds its
+ * own rooms from it, such as with {@link MazeImpl#MazeImpl(MazeTopology)}.
+ * When the cache is full the least recently used topology is evicted.
+ * The cache is safe to use from multiple threads.
+ * @author Liam Scholte
+ *
+ */
+public class MazeTopologyCache {
+
+  private final int capacity;
+  private final Map<Key, ArrayMazeTopology> topologies;
+
+  private long hitCount;
+  private long missCount;
+  private long evictionCount;
+
+  /**
+   * Constructs an empty cache.
+   * @param capacity the maximum number of topologies to keep
+   * @throws IllegalArgumentException if the capacity is not positive
+   */
+  public MazeTopologyCache(int capacity) throws IllegalArgumentException {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be positive");
+    }
+    this.capacity = capacity;
+    topologies = new LinkedHashMap<Key, ArrayMazeTopology>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, ArrayMazeTopology> eldest) {
+        if (size() > MazeTopologyCache.this.capacity) {
+          ++evictionCount;
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Gets the topology of the maze generated from the specified parameters,
+   * generating it if it is not in the cache. The layout and the hazards are
+   * drawn from the {@link SplitRandom#LAYOUT_STREAM} and
+   * {@link SplitRandom#HAZARD_STREAM} streams of the seed. The maze is generated
+   * without holding the cache's lock, so two threads missing on the same
+   * parameters may both generate it, but both receive the same instance.
+   * @param rows the number of rows in the maze
+   * @param cols the number of columns in the maze
+   * @param wraps whether or not the rooms on the edge of the
+   *      maze wrap to the opposite side
+   * @param batCount the number of bats in the maze
+   * @param pitCount the number of pits in the maze
+   * @param seed the seed of the maze
+   * @return the topology of the maze
+   * @throws IllegalArgumentException if rows or columns is not positive
+   * @throws IllegalArgumentException if the number of bats or pits is negative
+   * @throws IllegalArgumentException if dimensions of the maze could not possibly
+   *      support all the required entities (pits, bats, and wumpus)
+   */
+  public ArrayMazeTopology getTopology(
+      int rows,
+      int cols,
+      boolean wraps,
+      int batCount,
+      int pitCount,
+      long seed) throws IllegalArgumentException {
+    Key key = new Key(rows, cols, wraps, batCount, pitCount, seed);
+    synchronized (this) {
+      ArrayMazeTopology topology = topologies.get(key);
+      if (topology != null) {
+        ++hitCount;
+        return topology;
+      }
+      ++missCount;
+    }
+
+    ArrayMazeTopology topology = ArrayMazeTopology.generate(
+        rows,
+        cols,
+        batCount,
+        pitCount,
+        wraps,
+        SplitRandom.forStream(seed, SplitRandom.LAYOUT_STREAM),
+        SplitRandom.forStream(seed, SplitRandom.HAZARD_STREAM));
+
+    synchronized (this) {
+      ArrayMazeTopology cachedTopology = topologies.putIfAbsent(key, topology);
+      return cachedTopology != null ? cachedTopology : topology;
+    }
+  }
+
+  /**
+   * Gets the number of topologies currently in the cache.
+   * @return the number of topologies
+   */
+  public synchronized int size() {
+    return topologies.size();
+  }
+
+  /**
+   * Gets the number of requests that were answered from the cache.
+   * @return the number of cache hits
+   */
+  public synchronized long getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * Gets the number of requests that required a maze to be generated.
+   * @return the number of cache misses
+   */
+  public synchronized long getMissCount() {
+    return missCount;
+  }
+
+  /**
+   * Gets the number of topologies removed to make room for others.
+   * @return the number of evictions
+   */
+  public synchronized long getEvictionCount() {
+    return evictionCount;
+  }
+
+  /**
+   * The parameters that determine a generated maze.
+   * @author Liam Scholte
+   *
+   */
+  private static final class Key {
+    private final int rows;
+    private final int cols;
+    private final boolean wraps;
+    private final int batCount;
+    private final int pitCount;
+    private final long seed;
+
+    public Key(int rows, int cols, boolean wraps, int batCount, int pitCount, long seed) {
+      this.rows = rows;
+      this.cols = cols;
+      this.wraps = wraps;
+      this.batCount = batCount;
+      this.pitCount = pitCount;
+      this.seed = seed;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      Key other = (Key)obj;
+      return rows == other.rows
+          && cols == other.cols
+          && wraps == other.wraps
+          && batCount == other.batCount
+          && pitCount == other.pitCount
+          && seed == other.seed;
+    }
+
+    @Override
+    public int hashCode() {
+      int result = 1;
+      result = 31 * result + rows;
+      result = 31 * result + cols;
+      result = 31 * result + (wraps ? 1 : 0);
+      result = 31 * result + batCount;
+      result = 31 * result + pitCount;
+      result = 31 * result + Long.hashCode(seed);
+      return result;
+    }
+  }
+}
@@ -0,0 +1,321 @@
+package model.maze;
+
+import model.Direction;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * A maze topology whose cells are generated on demand. The maze is divided
+ * into square chunks, and each chunk is generated only when one of its cells
+ * is first needed, using a random number generator seeded from the seed of
+ * the maze and the coordinates of the chunk. Generated chunks are kept in a
+ * bounded cache and evicted when they have not been used recently, so the
+ * memory used depends on the area of the maze in use rather than its size.
+ * An evicted chunk is generated again, identically, when it is next needed.
+ *
+ * <p>Each chunk is a randomized maze of its own. Neighbouring chunks are
+ * joined by a single passage whose position depends only on the seed and
+ * the two chunks, so either chunk can be generated without the other and
+ * the whole maze is always connected.
+ *
+ * <p>Bats and pits are spread evenly between the chunks, in proportion to
+ * their area, and the wumpus is placed in a single chunk chosen by the seed.
+ * Wrap to {@link CompactMaze} to use the topology as a maze.
+ * @author Liam Scholte
+ *
+ */
+public class ProceduralMazeTopology implements MazeTopology {
+
+  /**
+   * The width and height of a chunk.
+   */
+  public static final int CHUNK_SIZE = 64;
+
+  private static final int EAST_DOOR = 0;
+  private static final int SOUTH_DOOR = 1;
+  private static final int CHUNK_SEED = 2;
+  private static final int WUMPUS_CHUNK = 3;
+
+  private final int rows;
+  private final int cols;
+  private final boolean wraps;
+  private final int batsPerChunk;
+  private final int pitsPerChunk;
+  private final long seed;
+
+  private final int chunkRows;
+  private final int chunkCols;
+  private final int wumpusChunk;
+
+  private final Map<Integer, Chunk> chunks;
+  private long generatedChunkCount;
+
+  /**
+   * Constructs a procedural maze. No chunks are generated until
+   * their cells are requested.
+   * @param rows the number of rows in the maze
+   * @param cols the number of columns in the maze
+   * @param wraps whether or not the rooms on the edge of the
+   *      maze wrap to the opposite side
+   * @param batsPerChunk the number of bats in a full chunk
+   * @param pitsPerChunk the number of pits in a full chunk
+   * @param seed the seed that determines the whole maze
+   * @param chunkCapacity the maximum number of chunks to keep in memory
+   * @throws IllegalArgumentException if rows or columns is not positive or
+   *      if the maze has more cells than can be indexed
+   * @throws IllegalArgumentException if the number of bats or pits is negative or
+   *      if a full chunk could not support the required entities
+   * @throws IllegalArgumentException if the chunk capacity is not positive
+   */
+  public ProceduralMazeTopology(
+      int rows,
+      int cols,
+      boolean wraps,
+      int batsPerChunk,
+      int pitsPerChunk,
+      long seed,
+      int chunkCapacity) throws IllegalArgumentException {
+    if (rows < 1 || cols < 1) {
+      throw new IllegalArgumentException(
+          "Number of rows and columns must both be positive");
+    }
+    if ((long)rows * cols > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("The maze has too many cells to be indexed");
+    }
+    if (chunkCapacity < 1) {
+      throw new IllegalArgumentException("Chunk capacity must be positive");
+    }
+
+    //Joining a chunk to its neighbours can turn up to
+    //four of its dead ends into hallways
+    int minRooms = KruskalMazeGenerator.getMinRooms(
+        CHUNK_SIZE, CHUNK_SIZE, batsPerChunk, pitsPerChunk, false);
+    if (minRooms + 4 > CHUNK_SIZE * CHUNK_SIZE) {
+      throw new IllegalArgumentException(
+          "A chunk does not support the required number of rooms");
+    }
+
+    this.rows = rows;
+    this.cols = cols;
+    this.wraps = wraps;
+    this.batsPerChunk = batsPerChunk;
+    this.pitsPerChunk = pitsPerChunk;
+    this.seed = seed;
+
+    chunkRows = (rows + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    chunkCols = (cols + CHUNK_SIZE - 1) / CHUNK_SIZE;
+
+    //The wumpus is placed in one of the full sized chunks, unless
+    //the maze is smaller than a chunk along one of its sides
+    int fullChunkRows = Math.max(1, rows / CHUNK_SIZE);
+    int fullChunkCols = Math.max(1, cols / CHUNK_SIZE);
+    int chunkIndex = (int)Long.remainderUnsigned(
+        hash(0, 0, WUMPUS_CHUNK), (long)fullChunkRows * fullChunkCols);
+    wumpusChunk = chunkIndex / fullChunkCols * chunkCols + chunkIndex % fullChunkCols;
+
+    chunks = new LinkedHashMap<Integer, Chunk>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Integer, Chunk> eldest) {
+        return size() > chunkCapacity;
+      }
+    };
+    generatedChunkCount = 0;
+  }
+
+  @Override
+  public int getRows() {
+    return rows;
+  }
+
+  @Override
+  public int getCols() {
+    return cols;
+  }
+
+  @Override
+  public boolean wraps() {
+    return wraps;
+  }
+
+  @Override
+  public int getExitMask(int index) {
+    int row = index / cols;
+    int col = index % cols;
+    return getChunk(row / CHUNK_SIZE, col / CHUNK_SIZE).getExitMask(row, col);
+  }
+
+  @Override
+  public int getHazards(int index) {
+    int row = index / cols;
+    int col = index % cols;
+    return getChunk(row / CHUNK_SIZE, col / CHUNK_SIZE).getHazards(row, col);
+  }
+
+  /**
+   * Gets the number of chunks currently held in memory.
+   * @return the number of chunks in memory
+   */
+  public synchronized int getLoadedChunkCount() {
+    return chunks.size();
+  }
+
+  /**
+   * Gets the number of times a chunk has been generated, including
+   * chunks generated again after being evicted.
+   * @return the number of chunks generated
+   */
+  public synchronized long getGeneratedChunkCount() {
+    return generatedChunkCount;
+  }
+
+  private synchronized Chunk getChunk(int chunkRow, int chunkCol) {
+    Integer key = chunkRow * chunkCols + chunkCol;
+    Chunk chunk = chunks.get(key);
+    if (chunk == null) {
+      chunk = new Chunk(chunkRow, chunkCol);
+      chunks.put(key, chunk);
+      ++generatedChunkCount;
+    }
+    return chunk;
+  }
+
+  /**
+   * Gets a well mixed hash of the seed of the maze, a chunk and a purpose,
+   * so that every use of randomness is independent of the others.
+   */
+  private long hash(int chunkRow, int chunkCol, int purpose) {
+    long coordinates = (long)chunkRow << 32 | (chunkCol & 0xffffffffL);
+    return KruskalMazeGenerator.mixSeed(
+        KruskalMazeGenerator.mixSeed(seed ^ KruskalMazeGenerator.mixSeed(coordinates))
+        + purpose);
+  }
+
+  /**
+   * Gets the offset along a border of the passage joining a chunk
+   * to its neighbour to the east or to the south.
+   */
+  private int getDoorOffset(int chunkRow, int chunkCol, int border, int borderLength) {
+    return (int)Long.remainderUnsigned(hash(chunkRow, chunkCol, border), borderLength);
+  }
+
+  /**
+   * The generated cells of a single chunk.
+   * @author Liam Scholte
+   *
+   */
+  private class Chunk {
+    private final int firstRow;
+    private final int firstCol;
+    private final int width;
+
+    private final byte[] exits;
+    private final byte[] hazards;
+
+    public Chunk(int chunkRow, int chunkCol) {
+      firstRow = chunkRow * CHUNK_SIZE;
+      firstCol = chunkCol * CHUNK_SIZE;
+      int height = Math.min(CHUNK_SIZE, rows - firstRow);
+      width = Math.min(CHUNK_SIZE, cols - firstCol);
+      int area = height * width;
+
+      //Chunks on the edges of the maze may be smaller than a full
+      //chunk, so they hold proportionally fewer entities
+      int batCount = (int)((long)batsPerChunk * area / (CHUNK_SIZE * CHUNK_SIZE));
+      int pitCount = (int)((long)pitsPerChunk * area / (CHUNK_SIZE * CHUNK_SIZE));
+      long maxRooms = KruskalMazeGenerator.getMaxRooms(height, width, false);
+      int minRooms = (int)Math.min(Math.max(1 + pitCount, batCount) + 4, maxRooms);
+
+      Random random = new Random(hash(chunkRow, chunkCol, CHUNK_SEED));
+      KruskalMazeGenerator generator = new KruskalMazeGenerator(height, width, random);
+      generator.generate(false, minRooms);
+      exits = generator.getExits();
+
+      addDoors(chunkRow, chunkCol, height);
+
+      int[] caves = new int[area];
+      int caveCount = 0;
+      for (int index = 0; index < area; ++index) {
+        if (Integer.bitCount(exits[index]) != 2) {
+          caves[caveCount++] = index;
+        }
+      }
+      if (caveCount == 0) {
+        //Only possible for chunks too small to hold any entities
+        hazards = new byte[area];
+        return;
+      }
+      hazards = KruskalMazeGenerator.placeEntities(
+          caves,
+          caveCount,
+          area,
+          Math.min(batCount, caveCount),
+          Math.min(pitCount, caveCount - 1),
+          random);
+      if (chunkRow * chunkCols + chunkCol != wumpusChunk) {
+        for (int index = 0; index < area; ++index) {
+          hazards[index] &= ~MazeTopology.WUMPUS;
+        }
+      }
+    }
+
+    public int getExitMask(int row, int col) {
+      return exits[getIndex(row, col)];
+    }
+
+    public int getHazards(int row, int col) {
+      return hazards[getIndex(row, col)];
+    }
+
+    /**
+     * Opens the passages that join this chunk to its neighbours. A passage is
+     * identified by the chunk to its west or north, so both chunks agree on it.
+     */
+    private void addDoors(int chunkRow, int chunkCol, int height) {
+      if (chunkCol > 0) {
+        int row = getDoorOffset(chunkRow, chunkCol - 1, EAST_DOOR, height);
+        exits[row * width] |= Direction.WEST.getMask();
+      }
+      if (chunkCol < chunkCols - 1) {
+        int row = getDoorOffset(chunkRow, chunkCol, EAST_DOOR, height);
+        exits[row * width + width - 1] |= Direction.EAST.getMask();
+      }
+      if (chunkRow > 0) {
+        int col = getDoorOffset(chunkRow - 1, chunkCol, SOUTH_DOOR, width);
+        exits[col] |= Direction.NORTH.getMask();
+      }
+      if (chunkRow < chunkRows - 1) {
+        int col = getDoorOffset(chunkRow, chunkCol, SOUTH_DOOR, width);
+        exits[(height - 1) * width + col] |= Direction.SOUTH.getMask();
+      }
+
+      //Like a MazeImpl that wraps, every room on
+      //the edge of the maze leads to the opposite side
+      if (wraps) {
+        for (int col = 0; col < width; ++col) {
+          if (firstRow == 0) {
+            exits[col] |= Direction.NORTH.getMask();
+          }
+          if (firstRow + height == rows) {
+            exits[(height - 1) * width + col] |= Direction.SOUTH.getMask();
+          }
+        }
+        for (int row = 0; row < height; ++row) {
+          if (firstCol == 0) {
+            exits[row * width] |= Direction.WEST.getMask();
+          }
+          if (firstCol + width == cols) {
+            exits[row * width + width - 1] |= Direction.EAST.getMask();
+          }
+        }
+      }
+    }
+
+    private int getIndex(int row, int col) {
+      return (row - firstRow) * width + col - firstCol;
+    }
+  }
+}
@@ -1,9 +1,11 @@
 package model.maze;
 
+import model.Position;
 import model.ReadOnlyRoom;
 
 import java.awt.Dimension;
 import java.util.List;
+import java.util.function.IntConsumer;
 
 /**
  * Represents a maze of rooms.
@@ -18,15 +20,156 @@ public interface ReadOnlyMaze {
    */
   public List<ReadOnlyRoom> getRooms();
   
+  /**
+   * Gets the number of non-hallway rooms in the maze.
+   * @return the number of non-hallway rooms
+   */
+  public default int roomCount() {
+    return getRooms().size();
+  }
+  
+  /**
+   * Gets a non-hallway room by its index in {@link #getRooms()}.
+   * @param index the index of the room
+   * @return the room
+   * @throws IndexOutOfBoundsException if the index is not less than
+   *      {@link #roomCount()} or is negative
+   */
+  public default ReadOnlyRoom roomAt(int index) throws IndexOutOfBoundsException {
+    return getRooms().get(index);
+  }
+  
+  /**
+   * Calls an action with the index of every non-hallway room in order,
+   * so that large mazes can be scanned without creating a list of rooms.
+   * @param action the action to call with each index
+   * @throws IllegalArgumentException if the action is null
+   */
+  public default void forEachRoom(IntConsumer action) throws IllegalArgumentException {
+    if (action == null) {
+      throw new IllegalArgumentException("Action must not be null");
+    }
+    int roomCount = roomCount();
+    for (int index = 0; index < roomCount; ++index) {
+      action.accept(index);
+    }
+  }
+  
   /**
    * Gets all rooms that have been explored in the maze.
    * @return all rooms that have been explored in the maze
    */
   public List<ReadOnlyRoom> getExploredRooms();
   
+  /**
+   * Gets the exploration version of the maze, which increases
+   * each time a room is explored.
+   * @return the exploration version of the maze
+   */
+  public default int getExplorationVersion() {
+    return getExploredRooms().size();
+  }
+  
+  /**
+   * Gets the rooms explored since the maze had the specified exploration
+   * version, so that a view only needs to handle what has changed. Mazes
+   * that do not record the order rooms are explored in return every
+   * explored room.
+   * @param version a version previously returned by {@link #getExplorationVersion()}
+   * @return the rooms explored since the version
+   * @throws IllegalArgumentException if the version is not a valid version of the maze
+   */
+  public default List<ReadOnlyRoom> getExploredRoomsSince(int version)
+      throws IllegalArgumentException {
+    return getExploredRooms();
+  }
+  
   /**
    * Gets the dimensions of the maze.
    * @return the dimensions of the maze
    */
   public Dimension getSize();
+  
+  /**
+   * Gets whether the rooms on the edge of the maze wrap to the opposite side.
+   * @return {@code true} if the maze wraps
+   */
+  public default boolean wraps() {
+    return false;
+  }
+  
+  /**
+   * Brings a position into the bounds of the maze. If the maze wraps,
+   * positions past an edge continue from the opposite edge.
+   * @param x the X coordinate
+   * @param y the Y coordinate
+   * @return the position within the maze, or null if the
+   *      maze does not wrap and the position is outside it
+   */
+  public default Position normalize(int x, int y) {
+    Dimension size = getSize();
+    if (wraps()) {
+      return new Position(Math.floorMod(x, size.width), Math.floorMod(y, size.height));
+    }
+    if (x < 0 || y < 0 || x >= size.width || y >= size.height) {
+      return null;
+    }
+    return new Position(x, y);
+  }
+  
+  /**
+   * Gets the room at the specified coordinates, which may be a hallway.
+   * Coordinates outside the maze are normalized with
+   * {@link #normalize(int, int)} first. Mazes that do not index
+   * their rooms by position only find non-hallway rooms.
+   * @param x the X coordinate
+   * @param y the Y coordinate
+   * @return the room, or null if there is no room at the coordinates
+   */
+  public default ReadOnlyRoom getRoomAt(int x, int y) {
+    Position position = normalize(x, y);
+    if (position == null) {
+      return null;
+    }
+    for (ReadOnlyRoom room : getRooms()) {
+      if (room.getPosition().equals(position)) {
+        return room;
+      }
+    }
+    return null;
+  }
+  
+  /**
+   * Gets the room at the specified position, which may be a hallway.
+   * Positions outside the maze are normalized with
+   * {@link #normalize(int, int)} first.
+   * @param position the position of the room
+   * @return the room, or null if there is no room at the position
+   * @throws IllegalArgumentException if the position is null
+   */
+  public default ReadOnlyRoom getRoomAt(Position position) throws IllegalArgumentException {
+    if (position == null) {
+      throw new IllegalArgumentException("Position must not be null");
+    }
+    return getRoomAt(position.getX(), position.getY());
+  }
+  
+  /**
+   * Gets the layout that the rooms of the maze were built from, in which
+   * the room at (x, y) is the cell {@code y * cols + x}. Mazes whose
+   * rooms are not laid out from a topology have none.
+   * @return the topology of the maze, or null if it has none
+   */
+  public default MazeTopology getTopology() {
+    return null;
+  }
+  
+  /**
+   * Gets the safe regions of the maze in the cells of its topology. Mazes
+   * with a topology should find the regions once and keep them.
+   * @return the safe regions, or null if the maze does not label them
+   */
+  public default SafeRegions getSafeRegions() {
+    return null;
+  }
 }
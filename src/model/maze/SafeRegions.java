@@ -0,0 +1,189 @@
+package model.maze;
+
+import model.Direction;
+
+import java.util.BitSet;
+
+/**
+ * The safe regions of a maze. A cell is safe if it has no hazards, and two
+ * safe cells are in the same region if a player can walk between them
+ * without entering a cell with a hazard. Regions are found once with a
+ * union-find over the passages of a {@link MazeTopology}, after which
+ * checking whether two cells can reach each other only compares labels.
+ * Each region also records whether it borders a cell with bats, since the
+ * bats can carry a player to any other region.
+ * @author Liam Scholte
+ *
+ */
+public final class SafeRegions {
+
+  /**
+   * The region of a cell that has a hazard.
+   */
+  public static final int UNSAFE = -1;
+
+  private final int rows;
+  private final int cols;
+  private final int[] regions;
+  private final int regionCount;
+  private final BitSet batRegions;
+
+  /**
+   * Finds the safe regions of a topology.
+   * @param topology the layout of the maze
+   * @throws IllegalArgumentException if the topology is null
+   */
+  public SafeRegions(MazeTopology topology) throws IllegalArgumentException {
+    if (topology == null) {
+      throw new IllegalArgumentException("Topology must not be null");
+    }
+    rows = topology.getRows();
+    cols = topology.getCols();
+    int cellCount = rows * cols;
+
+    //Every passage is either the east or the south exit of exactly
+    //one cell, including the passages that wrap around the edges
+    int[] parents = new int[cellCount];
+    for (int index = 0; index < cellCount; ++index) {
+      parents[index] = index;
+    }
+    for (int index = 0; index < cellCount; ++index) {
+      if (topology.getHazards(index) != 0) {
+        continue;
+      }
+      int exits = topology.getExitMask(index);
+      if ((exits & Direction.EAST.getMask()) != 0) {
+        int neighbour = getNeighbourIndex(index, Direction.EAST);
+        if (topology.getHazards(neighbour) == 0) {
+          union(parents, index, neighbour);
+        }
+      }
+      if ((exits & Direction.SOUTH.getMask()) != 0) {
+        int neighbour = getNeighbourIndex(index, Direction.SOUTH);
+        if (topology.getHazards(neighbour) == 0) {
+          union(parents, index, neighbour);
+        }
+      }
+    }
+
+    //Number the regions in order of their first cell. The labels
+    //of the roots are stored in place of their parents
+    regions = new int[cellCount];
+    int count = 0;
+    for (int index = 0; index < cellCount; ++index) {
+      if (topology.getHazards(index) != 0) {
+        regions[index] = UNSAFE;
+        continue;
+      }
+      int root = find(parents, index);
+      if (root == index) {
+        regions[index] = count;
+        ++count;
+      }
+      else {
+        regions[index] = regions[root];
+      }
+    }
+    regionCount = count;
+
+    batRegions = new BitSet(regionCount);
+    for (int index = 0; index < cellCount; ++index) {
+      if ((topology.getHazards(index) & MazeTopology.BATS) == 0) {
+        continue;
+      }
+      int exits = topology.getExitMask(index);
+      for (Direction direction : Direction.values()) {
+        if ((exits & direction.getMask()) != 0) {
+          int region = regions[getNeighbourIndex(index, direction)];
+          if (region != UNSAFE) {
+            batRegions.set(region);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Gets the region of a cell.
+   * @param index the index of the cell
+   * @return the region of the cell, or {@link #UNSAFE} if it has a hazard
+   * @throws IllegalArgumentException if the index is outside the maze
+   */
+  public int getRegion(int index) throws IllegalArgumentException {
+    if (index < 0 || index >= regions.length) {
+      throw new IllegalArgumentException("Index must be within the maze");
+    }
+    return regions[index];
+  }
+
+  /**
+   * Gets the number of safe regions in the maze.
+   * @return the number of regions
+   */
+  public int getRegionCount() {
+    return regionCount;
+  }
+
+  /**
+   * Checks if a player can walk from one cell to another
+   * without entering a cell with a hazard.
+   * @param firstIndex the index of the first cell
+   * @param secondIndex the index of the second cell
+   * @return true if both cells are safe and in the same region, otherwise false
+   * @throws IllegalArgumentException if either index is outside the maze
+   */
+  public boolean isConnected(int firstIndex, int secondIndex) throws IllegalArgumentException {
+    int region = getRegion(firstIndex);
+    return region != UNSAFE && region == getRegion(secondIndex);
+  }
+
+  /**
+   * Checks if any cell of a region has an exit to a cell with bats.
+   * @param region the region to check
+   * @return true if the region borders bats, otherwise false
+   * @throws IllegalArgumentException if the region does not exist
+   */
+  public boolean touchesBats(int region) throws IllegalArgumentException {
+    if (region < 0 || region >= regionCount) {
+      throw new IllegalArgumentException("Region does not exist");
+    }
+    return batRegions.get(region);
+  }
+
+  private int getNeighbourIndex(int index, Direction direction) {
+    int row = index / cols;
+    int col = index % cols;
+    switch (direction) {
+      case NORTH:
+        return Math.floorMod(row - 1, rows) * cols + col;
+      case SOUTH:
+        return ((row + 1) % rows) * cols + col;
+      case EAST:
+        return row * cols + (col + 1) % cols;
+      default:
+        return row * cols + Math.floorMod(col - 1, cols);
+    }
+  }
+
+  private static int find(int[] parents, int index) {
+    //Path halving keeps the trees shallow without recursion
+    while (parents[index] != index) {
+      parents[index] = parents[parents[index]];
+      index = parents[index];
+    }
+    return index;
+  }
+
+  private static void union(int[] parents, int first, int second) {
+    int firstRoot = find(parents, first);
+    int secondRoot = find(parents, second);
+    //The smaller index becomes the root so that each
+    //region's root is its first cell
+    if (firstRoot < secondRoot) {
+      parents[secondRoot] = firstRoot;
+    }
+    else if (secondRoot < firstRoot) {
+      parents[firstRoot] = secondRoot;
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package model.player;
 
+import model.ArrowIndex;
 import model.Room;
 
 /**
@@ -24,5 +25,13 @@ public interface ModelPlayer extends Player {
    * @throws IllegalStateException if the player cannot teleport
    */
   public void setRoom(Room room) throws IllegalArgumentException, IllegalStateException;
+  
+  /**
+   * Gives the player an index of where arrows land in its maze,
+   * which the player may use to resolve its shots.
+   * @param arrowIndex the index of the player's maze
+   */
+  public default void setArrowIndex(ArrowIndex arrowIndex) {
+  }
     
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+package model.player;
+
+import model.ReadOnlyRoom;
+
+/**
+ * The details of something that happened to a player. Events that move
+ * the player, or an arrow, have different rooms for where they started
+ * and ended. Other events start and end in the room the player is in.
+ * @author Liam Scholte
+ *
+ */
+public final class PlayerEventArgs {
+
+  private final ReadOnlyPlayer player;
+  private final ReadOnlyRoom fromRoom;
+  private final ReadOnlyRoom toRoom;
+
+  /**
+   * Constructs the details of an event that happened in a single room.
+   * @param player the player the event happened to
+   * @param room the room the event happened in
+   */
+  public PlayerEventArgs(ReadOnlyPlayer player, ReadOnlyRoom room) {
+    this(player, room, room);
+  }
+
+  /**
+   * Constructs the details of an event.
+   * @param player the player the event happened to
+   * @param fromRoom the room the event started in
+   * @param toRoom the room the event ended in
+   */
+  public PlayerEventArgs(ReadOnlyPlayer player, ReadOnlyRoom fromRoom, ReadOnlyRoom toRoom) {
+    this.player = player;
+    this.fromRoom = fromRoom;
+    this.toRoom = toRoom;
+  }
+
+  /**
+   * Gets the player the event happened to.
+   * @return the player
+   */
+  public ReadOnlyPlayer getPlayer() {
+    return player;
+  }
+
+  /**
+   * Gets the room the event started in.
+   * @return the starting room
+   */
+  public ReadOnlyRoom getFromRoom() {
+    return fromRoom;
+  }
+
+  /**
+   * Gets the room the event ended in.
+   * @return the ending room
+   */
+  public ReadOnlyRoom getToRoom() {
+    return toRoom;
+  }
+}
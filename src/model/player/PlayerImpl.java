@@ -1,10 +1,11 @@
 package model.player;
 
+import model.ArrowIndex;
 import model.Direction;
 import model.Event;
-import model.Heading;
 import model.ReadOnlyRoom;
 import model.Room;
+import model.TunnelCursor;
 
 /**
  * Represents a player that can move
@@ -14,13 +15,13 @@ import model.Room;
  */
 public class PlayerImpl implements ModelPlayer {
   
-  private final Event fellIntoPitEvent;
-  private final Event killedByWumpusEvent;
-  private final Event takenByBatsEvent;
-  private final Event dodgedBatsEvent;
-  private final Event killedWumpusEvent;
-  private final Event arrowMissedEvent;
-  private final Event positionChangedEvent;
+  private final Event<PlayerEventArgs> fellIntoPitEvent;
+  private final Event<PlayerEventArgs> killedByWumpusEvent;
+  private final Event<PlayerEventArgs> takenByBatsEvent;
+  private final Event<PlayerEventArgs> dodgedBatsEvent;
+  private final Event<PlayerEventArgs> killedWumpusEvent;
+  private final Event<PlayerEventArgs> arrowMissedEvent;
+  private final Event<PlayerEventArgs> positionChangedEvent;
   
   //Player can never end up in a hallway
   private Room room;
@@ -31,6 +32,9 @@ public class PlayerImpl implements ModelPlayer {
   
   private String name;
   
+  //Resolves most shots at once when the game provides one
+  private ArrowIndex arrowIndex;
+  
   
   /**
    * Constructs a player that can traverse a maze.
@@ -56,13 +60,13 @@ public class PlayerImpl implements ModelPlayer {
     
     this.name = name;
     
-    fellIntoPitEvent = new Event();
-    killedByWumpusEvent = new Event();
-    takenByBatsEvent = new Event();
-    dodgedBatsEvent = new Event();
-    killedWumpusEvent = new Event();
-    arrowMissedEvent = new Event();
-    positionChangedEvent = new Event();
+    fellIntoPitEvent = new Event<PlayerEventArgs>();
+    killedByWumpusEvent = new Event<PlayerEventArgs>();
+    takenByBatsEvent = new Event<PlayerEventArgs>();
+    dodgedBatsEvent = new Event<PlayerEventArgs>();
+    killedWumpusEvent = new Event<PlayerEventArgs>();
+    arrowMissedEvent = new Event<PlayerEventArgs>();
+    positionChangedEvent = new Event<PlayerEventArgs>();
     
     room = initialRoom;
     this.arrowCount = arrowCount;
@@ -75,37 +79,37 @@ public class PlayerImpl implements ModelPlayer {
    * @return an event
    */
   @Override
-  public Event getFellIntoPitEvent() {
+  public Event<PlayerEventArgs> getFellIntoPitEvent() {
     return fellIntoPitEvent;
   }
   
   @Override
-  public Event getKilledByWumpusEvent() {
+  public Event<PlayerEventArgs> getKilledByWumpusEvent() {
     return killedByWumpusEvent;
   }
   
   @Override
-  public Event getTakenByBatsEvent() {
+  public Event<PlayerEventArgs> getTakenByBatsEvent() {
     return takenByBatsEvent;
   }
   
   @Override
-  public Event getDodgedBatsEvent() {
+  public Event<PlayerEventArgs> getDodgedBatsEvent() {
     return dodgedBatsEvent;
   }
   
   @Override
-  public Event getKilledWumpusEvent() {
+  public Event<PlayerEventArgs> getKilledWumpusEvent() {
     return killedWumpusEvent;
   }
   
   @Override
-  public Event getArrowMissedEvent() {
+  public Event<PlayerEventArgs> getArrowMissedEvent() {
     return arrowMissedEvent;
   }
   
   @Override
-  public Event getPositionChangedEvent() {
+  public Event<PlayerEventArgs> getPositionChangedEvent() {
     return positionChangedEvent;
   }
   
@@ -131,24 +135,35 @@ public class PlayerImpl implements ModelPlayer {
     
     --arrowCount;
     
-    ReadOnlyRoom nextRoom = room;
-    while (distance > 0) {
-      
-      Heading heading = nextRoom.getNonHallNeighbour(direction);
-      nextRoom = heading.getRoom();
-      direction = heading.getDirection();
-      if (nextRoom == null) {
-        arrowMissedEvent.raise();
+    //Only arrows that hit a wall need to be followed to find where they stopped
+    if (arrowIndex != null && distance <= arrowIndex.getMaxDistance()) {
+      ReadOnlyRoom target = arrowIndex.getTarget(room, direction, distance);
+      if (target != null) {
+        if (target.hasWumpus()) {
+          raise(killedWumpusEvent, room, target);
+          return;
+        }
+        raise(arrowMissedEvent, room, target);
         return;
       }
-      --distance;
     }
     
-    if (nextRoom.hasWumpus()) {
-      killedWumpusEvent.raise();
+    TunnelCursor arrow = new TunnelCursor(room, direction);
+    if (arrow.advance(distance) < distance) {
+      raise(arrowMissedEvent, room, arrow.getRoom());
       return;
     }
-    arrowMissedEvent.raise();
+    
+    if (arrow.getRoom().hasWumpus()) {
+      raise(killedWumpusEvent, room, arrow.getRoom());
+      return;
+    }
+    raise(arrowMissedEvent, room, arrow.getRoom());
+  }
+  
+  @Override
+  public void setArrowIndex(ArrowIndex arrowIndex) {
+    this.arrowIndex = arrowIndex;
   }
   
   @Override
@@ -172,9 +187,10 @@ public class PlayerImpl implements ModelPlayer {
       throw new IllegalStateException(
           "Unable to move to the " + direction.toString().toLowerCase());
     }
+    Room startingRoom = room;
     room = destinationRoom;
     room.getAction().perform(this);
-    positionChangedEvent.raise();
+    raise(positionChangedEvent, startingRoom, room);
   }
   
   @Override
@@ -212,4 +228,11 @@ public class PlayerImpl implements ModelPlayer {
   public String getName() {
     return name;
   }
+  
+  private void raise(Event<PlayerEventArgs> event, ReadOnlyRoom fromRoom, ReadOnlyRoom toRoom) {
+    //The arguments are only created for an event that someone is listening to
+    if (event.hasListeners()) {
+      event.raise(new PlayerEventArgs(this, fromRoom, toRoom));
+    }
+  }
 }
@@ -19,49 +19,49 @@ public interface ReadOnlyPlayer {
    * falls into a pit and dies.
    * @return an event
    */
-  public Event getFellIntoPitEvent();
+  public Event<PlayerEventArgs> getFellIntoPitEvent();
   
   /**
    * Gets an event that is raised when the player
    * falls is killed by a wumpus.
    * @return an event
    */
-  public Event getKilledByWumpusEvent();
+  public Event<PlayerEventArgs> getKilledByWumpusEvent();
   
   /**
    * Gets an event that is raised when the player
    * is taken by bats.
    * @return an event
    */
-  public Event getTakenByBatsEvent();
+  public Event<PlayerEventArgs> getTakenByBatsEvent();
   
   /**
    * Gets an event that is raised when the player
    * dodges bats attempting to take the player.
    * @return an event
    */
-  public Event getDodgedBatsEvent();
+  public Event<PlayerEventArgs> getDodgedBatsEvent();
   
   /**
    * Gets an event that is raised when the player
    * has killed a wumpus.
    * @return an event
    */
-  public Event getKilledWumpusEvent();
+  public Event<PlayerEventArgs> getKilledWumpusEvent();
   
   /**
    * Gets an event that is raised when the player's
    * arrow has missed a wumpus.
    * @return an event
    */
-  public Event getArrowMissedEvent();
+  public Event<PlayerEventArgs> getArrowMissedEvent();
   
   /**
    * Gets an event that is raised when the player's
    * position changes.
    * @return an event
    */
-  public Event getPositionChangedEvent();
+  public Event<PlayerEventArgs> getPositionChangedEvent();
   
   /**
    * Gets the number of arrows the shooter has remaining.
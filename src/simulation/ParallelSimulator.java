@@ -0,0 +1,153 @@
+package simulation;
+
+import model.maze.MazeGenerationException;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+/**
+ * Plays a batch of simulated games on all cores by splitting the range of
+ * seeds between the tasks of a {@link ForkJoinPool}. Every task plays its
+ * games on its own {@link Simulator}, so the tasks share no mutable state,
+ * and the results of the tasks are added together once they finish. Since
+ * each game depends only on its seed and the results only count the games,
+ * the outcome is the same for any number of threads.
+ * @author Liam Scholte
+ *
+ */
+public class ParallelSimulator {
+
+  /**
+   * The default number of games a task plays before it is not split further.
+   */
+  public static final int DEFAULT_GAMES_PER_TASK = 256;
+
+  private final Supplier<Simulator> simulatorFactory;
+  private final int gamesPerTask;
+
+  /**
+   * Constructs a parallel simulator that splits the games
+   * into tasks of the default size.
+   * @param simulatorFactory creates a new simulator for each task
+   * @throws IllegalArgumentException if the simulator factory is null
+   */
+  public ParallelSimulator(Supplier<Simulator> simulatorFactory)
+      throws IllegalArgumentException {
+    this(simulatorFactory, DEFAULT_GAMES_PER_TASK);
+  }
+
+  /**
+   * Constructs a parallel simulator.
+   * @param simulatorFactory creates a new simulator for each task,
+   *      which must not share a game factory with any other
+   * @param gamesPerTask the number of games a task plays before it is not split further
+   * @throws IllegalArgumentException if the simulator factory is null
+   *      or the number of games per task is not positive
+   */
+  public ParallelSimulator(Supplier<Simulator> simulatorFactory, int gamesPerTask)
+      throws IllegalArgumentException {
+    if (simulatorFactory == null) {
+      throw new IllegalArgumentException("Simulator factory must not be null");
+    }
+    if (gamesPerTask < 1) {
+      throw new IllegalArgumentException("Number of games per task must be positive");
+    }
+    this.simulatorFactory = simulatorFactory;
+    this.gamesPerTask = gamesPerTask;
+  }
+
+  /**
+   * Plays a game for each seed in a range using a number of threads.
+   * @param firstSeed the seed of the first game
+   * @param gameCount the number of games, each with the next seed
+   * @param policyFactory creates the policy for the game with a seed,
+   *      and may be called from several threads at once
+   * @param threadCount the number of threads to play the games on
+   * @return the outcome of the games
+   * @throws IllegalArgumentException if the number of games is negative, the
+   *      policy factory is null, the number of threads is not positive
+   *      or the game parameters are invalid
+   * @throws MazeGenerationException if a maze for a game cannot be generated
+   */
+  public SimulationResult run(
+      long firstSeed,
+      int gameCount,
+      LongFunction<Policy> policyFactory,
+      int threadCount)
+      throws IllegalArgumentException, MazeGenerationException {
+    if (gameCount < 0) {
+      throw new IllegalArgumentException("Number of games must not be negative");
+    }
+    if (policyFactory == null) {
+      throw new IllegalArgumentException("Policy factory must not be null");
+    }
+    if (threadCount < 1) {
+      throw new IllegalArgumentException("Number of threads must be positive");
+    }
+
+    ForkJoinPool pool = new ForkJoinPool(threadCount);
+    try {
+      long startTime = System.nanoTime();
+      SimulationResult result =
+          pool.invoke(new SimulationTask(firstSeed, gameCount, policyFactory));
+      //The tasks' own times overlap, so only the total time is meaningful
+      result.setElapsedNanos(System.nanoTime() - startTime);
+      return result;
+    }
+    catch (RuntimeException e) {
+      //The pool may rethrow a copy of the task's exception, so search its causes
+      for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+        if (cause instanceof MazeGenerationException) {
+          throw (MazeGenerationException)cause;
+        }
+      }
+      throw e;
+    }
+    finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * A task that plays the games for a range of seeds,
+   * splitting the range in half until it is small enough.
+   * @author Liam Scholte
+   *
+   */
+  private class SimulationTask extends RecursiveTask<SimulationResult> {
+    private static final long serialVersionUID = 1L;
+
+    private final long firstSeed;
+    private final int gameCount;
+    private final LongFunction<Policy> policyFactory;
+
+    public SimulationTask(long firstSeed, int gameCount, LongFunction<Policy> policyFactory) {
+      this.firstSeed = firstSeed;
+      this.gameCount = gameCount;
+      this.policyFactory = policyFactory;
+    }
+
+    @Override
+    protected SimulationResult compute() {
+      if (gameCount <= gamesPerTask) {
+        try {
+          return simulatorFactory.get().run(firstSeed, gameCount, policyFactory);
+        }
+        catch (MazeGenerationException e) {
+          throw new IllegalStateException(e);
+        }
+      }
+
+      int firstHalf = gameCount / 2;
+      SimulationTask first = new SimulationTask(firstSeed, firstHalf, policyFactory);
+      SimulationTask second =
+          new SimulationTask(firstSeed + firstHalf, gameCount - firstHalf, policyFactory);
+      first.fork();
+      SimulationResult result = second.compute();
+      result.add(first.join());
+      return result;
+    }
+  }
+}
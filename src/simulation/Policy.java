@@ -0,0 +1,20 @@
+package simulation;
+
+import controller.Features;
+import model.ReadOnlyGame;
+
+/**
+ * Decides the actions of the players in a simulated game.
+ * @author Liam Scholte
+ *
+ */
+public interface Policy {
+
+  /**
+   * Takes the turn of the current player by performing
+   * exactly one action through the features.
+   * @param game the game being played, which is not over
+   * @param features the actions available to the current player
+   */
+  public void takeTurn(ReadOnlyGame game, Features features);
+}
@@ -0,0 +1,64 @@
+package simulation;
+
+import controller.Features;
+import model.Direction;
+import model.ReadOnlyGame;
+import model.ReadOnlyRoom;
+import model.player.ReadOnlyPlayer;
+
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * A policy that wanders the maze at random and shoots an arrow
+ * into a random neighbouring cave whenever it smells the wumpus
+ * and has an arrow left.
+ * @author Liam Scholte
+ *
+ */
+public class RandomPolicy implements Policy {
+
+  private final Random random;
+
+  /**
+   * Constructs a random policy.
+   * @param random the source of randomness for the decisions
+   * @throws IllegalArgumentException if the random number generator is null
+   */
+  public RandomPolicy(Random random) throws IllegalArgumentException {
+    if (random == null) {
+      throw new IllegalArgumentException("Random must not be null");
+    }
+    this.random = random;
+  }
+
+  @Override
+  public void takeTurn(ReadOnlyGame game, Features features) {
+    ReadOnlyPlayer player = game.getCurrentPlayer();
+    ReadOnlyRoom room = player.getRoom();
+    if (room.getExitCount() == 0) {
+      //A maze of a single cave leaves nothing to do
+      features.suicide();
+      return;
+    }
+
+    Direction direction = chooseDirection(room.getAvailableDirections());
+    if (room.isWumpusNearby() && player.getArrowCount() > 0) {
+      features.shootArrow(direction, 1);
+    }
+    else {
+      features.move(direction);
+    }
+  }
+
+  private Direction chooseDirection(Set<Direction> directions) {
+    int choice = random.nextInt(directions.size());
+    for (Direction direction : directions) {
+      if (choice == 0) {
+        return direction;
+      }
+      --choice;
+    }
+    throw new IllegalStateException("No direction was chosen");
+  }
+}
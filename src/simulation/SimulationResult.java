@@ -0,0 +1,280 @@
+package simulation;
+
+import java.util.Arrays;
+
+/**
+ * The combined outcome of a batch of simulated games. Each game
+ * ends in exactly one of the outcomes counted by the result.
+ * @author Liam Scholte
+ *
+ */
+public class SimulationResult {
+
+  /**
+   * The number of buckets in the histogram of turns. Bucket 0 counts games
+   * of no turns and bucket i counts games of 2^(i-1) to 2^i - 1 turns.
+   */
+  public static final int TURN_HISTOGRAM_SIZE = Integer.SIZE;
+
+  private long gameCount;
+  private long winCount;
+  private long pitDeathCount;
+  private long wumpusDeathCount;
+  private long outOfArrowsCount;
+  private long otherLossCount;
+  private long unfinishedCount;
+  private long turnCount;
+  private long elapsedNanos;
+  private final long[] turnHistogram;
+
+  /**
+   * Constructs a result with no games.
+   */
+  public SimulationResult() {
+    gameCount = 0;
+    winCount = 0;
+    pitDeathCount = 0;
+    wumpusDeathCount = 0;
+    outOfArrowsCount = 0;
+    otherLossCount = 0;
+    unfinishedCount = 0;
+    turnCount = 0;
+    elapsedNanos = 0;
+    turnHistogram = new long[TURN_HISTOGRAM_SIZE];
+  }
+
+  /**
+   * Adds the counts of another result to this one. The elapsed times are
+   * added too, so results of batches run in parallel should have their
+   * elapsed time replaced with {@link #setElapsedNanos(long)}.
+   * @param other the result to add
+   * @throws IllegalArgumentException if the other result is null
+   */
+  public void add(SimulationResult other) throws IllegalArgumentException {
+    if (other == null) {
+      throw new IllegalArgumentException("Result must not be null");
+    }
+    gameCount += other.gameCount;
+    winCount += other.winCount;
+    pitDeathCount += other.pitDeathCount;
+    wumpusDeathCount += other.wumpusDeathCount;
+    outOfArrowsCount += other.outOfArrowsCount;
+    otherLossCount += other.otherLossCount;
+    unfinishedCount += other.unfinishedCount;
+    turnCount += other.turnCount;
+    elapsedNanos += other.elapsedNanos;
+    for (int i = 0; i < TURN_HISTOGRAM_SIZE; ++i) {
+      turnHistogram[i] += other.turnHistogram[i];
+    }
+  }
+
+  void recordWin(int turns) {
+    ++winCount;
+    recordGame(turns);
+  }
+
+  void recordPitDeath(int turns) {
+    ++pitDeathCount;
+    recordGame(turns);
+  }
+
+  void recordWumpusDeath(int turns) {
+    ++wumpusDeathCount;
+    recordGame(turns);
+  }
+
+  void recordOutOfArrows(int turns) {
+    ++outOfArrowsCount;
+    recordGame(turns);
+  }
+
+  void recordOtherLoss(int turns) {
+    ++otherLossCount;
+    recordGame(turns);
+  }
+
+  void recordUnfinished(int turns) {
+    ++unfinishedCount;
+    recordGame(turns);
+  }
+
+  private void recordGame(int turns) {
+    ++gameCount;
+    turnCount += turns;
+    ++turnHistogram[getTurnBucket(turns)];
+  }
+
+  /**
+   * Gets the bucket of the histogram of turns that counts games of a length.
+   * @param turns the number of turns in a game
+   * @return the index of the bucket
+   * @throws IllegalArgumentException if the number of turns is negative
+   */
+  public static int getTurnBucket(int turns) throws IllegalArgumentException {
+    if (turns < 0) {
+      throw new IllegalArgumentException("Number of turns must not be negative");
+    }
+    return Integer.SIZE - Integer.numberOfLeadingZeros(turns);
+  }
+
+  /**
+   * Gets the number of games played.
+   * @return the number of games
+   */
+  public long getGameCount() {
+    return gameCount;
+  }
+
+  /**
+   * Gets the number of games won by a player killing the wumpus.
+   * @return the number of wins
+   */
+  public long getWinCount() {
+    return winCount;
+  }
+
+  /**
+   * Gets the number of games lost by the last player falling into a pit.
+   * @return the number of deaths by pits
+   */
+  public long getPitDeathCount() {
+    return pitDeathCount;
+  }
+
+  /**
+   * Gets the number of games lost by the last player being eaten by the wumpus.
+   * @return the number of deaths by the wumpus
+   */
+  public long getWumpusDeathCount() {
+    return wumpusDeathCount;
+  }
+
+  /**
+   * Gets the number of games lost by every living player running out of arrows.
+   * @return the number of games lost for lack of arrows
+   */
+  public long getOutOfArrowsCount() {
+    return outOfArrowsCount;
+  }
+
+  /**
+   * Gets the number of games lost in any other way, such as by the
+   * players giving up or starting in a deadly cave.
+   * @return the number of other losses
+   */
+  public long getOtherLossCount() {
+    return otherLossCount;
+  }
+
+  /**
+   * Gets the number of games stopped before they were over
+   * because they reached the limit on turns.
+   * @return the number of unfinished games
+   */
+  public long getUnfinishedCount() {
+    return unfinishedCount;
+  }
+
+  /**
+   * Gets the number of turns taken in all games.
+   * @return the number of turns
+   */
+  public long getTurnCount() {
+    return turnCount;
+  }
+
+  /**
+   * Gets the histogram of the number of turns in each game, where the
+   * buckets are given by {@link #getTurnBucket(int)}.
+   * @return a copy of the counts of games in each bucket
+   */
+  public long[] getTurnHistogram() {
+    return turnHistogram.clone();
+  }
+
+  /**
+   * Gets the time taken to play the games.
+   * @return the elapsed time in nanoseconds
+   */
+  public long getElapsedNanos() {
+    return elapsedNanos;
+  }
+
+  /**
+   * Sets the time taken to play the games.
+   * @param elapsedNanos the elapsed time in nanoseconds
+   */
+  public void setElapsedNanos(long elapsedNanos) {
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  /**
+   * Gets the fraction of games that were won.
+   * @return the win rate, or 0 if no games were played
+   */
+  public double getWinRate() {
+    return gameCount == 0 ? 0 : (double)winCount / gameCount;
+  }
+
+  /**
+   * Gets the average number of turns in a game.
+   * @return the average number of turns, or 0 if no games were played
+   */
+  public double getAverageTurns() {
+    return gameCount == 0 ? 0 : (double)turnCount / gameCount;
+  }
+
+  /**
+   * Gets the number of games played per second of elapsed time.
+   * @return the throughput, or 0 if no time has elapsed
+   */
+  public double getGamesPerSecond() {
+    return elapsedNanos == 0 ? 0 : gameCount * 1e9 / elapsedNanos;
+  }
+
+  /**
+   * Checks whether this result counts the same games with the same outcomes as
+   * another, ignoring the time taken to play them.
+   * @param other the result to compare with
+   * @return true if the counts are the same, otherwise false
+   */
+  public boolean hasSameOutcomes(SimulationResult other) {
+    return other != null
+        && gameCount == other.gameCount
+        && winCount == other.winCount
+        && pitDeathCount == other.pitDeathCount
+        && wumpusDeathCount == other.wumpusDeathCount
+        && outOfArrowsCount == other.outOfArrowsCount
+        && otherLossCount == other.otherLossCount
+        && unfinishedCount == other.unfinishedCount
+        && turnCount == other.turnCount
+        && Arrays.equals(turnHistogram, other.turnHistogram);
+  }
+
+  @Override
+  public String toString() {
+    String lineSeparator = System.lineSeparator();
+    StringBuilder builder = new StringBuilder()
+        .append(String.format("Games played: %d", gameCount)).append(lineSeparator)
+        .append(String.format("Win rate: %.2f%%", 100 * getWinRate())).append(lineSeparator)
+        .append(String.format("Average turns: %.2f", getAverageTurns())).append(lineSeparator)
+        .append(String.format("Killed by pits: %d", pitDeathCount)).append(lineSeparator)
+        .append(String.format("Killed by the wumpus: %d", wumpusDeathCount)).append(lineSeparator)
+        .append(String.format("Out of arrows: %d", outOfArrowsCount)).append(lineSeparator)
+        .append(String.format("Other losses: %d", otherLossCount)).append(lineSeparator)
+        .append(String.format("Unfinished: %d", unfinishedCount)).append(lineSeparator)
+        .append(String.format("Throughput: %.1f games/s", getGamesPerSecond()));
+    int lastBucket = TURN_HISTOGRAM_SIZE - 1;
+    while (lastBucket > 0 && turnHistogram[lastBucket] == 0) {
+      --lastBucket;
+    }
+    builder.append(lineSeparator).append("Turns per game:");
+    for (int i = 0; i <= lastBucket; ++i) {
+      long low = i == 0 ? 0 : 1L << (i - 1);
+      long high = i == 0 ? 0 : (1L << i) - 1;
+      builder.append(lineSeparator).append(
+          String.format("  %d-%d: %d", low, high, turnHistogram[i]));
+    }
+    return builder.toString();
+  }
+}
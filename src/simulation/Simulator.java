@@ -0,0 +1,198 @@
+package simulation;
+
+import controller.Features;
+import controller.GameFactory;
+import model.Direction;
+import model.Game;
+import model.maze.MazeGenerationException;
+import model.player.ReadOnlyPlayer;
+
+import java.util.function.LongFunction;
+
+/**
+ * Plays games of Hunt the Wumpus without a view, letting a policy make
+ * every decision, and tallies how the games ended. Games are created by a
+ * factory from consecutive seeds, so a batch can be played again exactly.
+ * @author Liam Scholte
+ *
+ */
+public class Simulator {
+
+  private final GameFactory gameFactory;
+  private final int rowCount;
+  private final int colCount;
+  private final boolean wraps;
+  private final int batCount;
+  private final int pitCount;
+  private final int playerCount;
+  private final int arrowCount;
+  private final int maxTurns;
+
+  /**
+   * Constructs a simulator for games with the specified parameters.
+   * @param gameFactory the factory that creates the games
+   * @param rowCount the number of rows in each game's maze
+   * @param colCount the number of columns in each game's maze
+   * @param wraps whether or not the mazes wrap at the edges
+   * @param batCount the number of caves with bats
+   * @param pitCount the number of caves with pits
+   * @param playerCount the number of players in each game
+   * @param arrowCount the number of arrows each player starts with
+   * @param maxTurns the number of turns after which a game is stopped
+   * @throws IllegalArgumentException if the factory is null
+   *      or the maximum number of turns is not positive
+   */
+  public Simulator(
+      GameFactory gameFactory,
+      int rowCount,
+      int colCount,
+      boolean wraps,
+      int batCount,
+      int pitCount,
+      int playerCount,
+      int arrowCount,
+      int maxTurns) throws IllegalArgumentException {
+    if (gameFactory == null) {
+      throw new IllegalArgumentException("Game factory must not be null");
+    }
+    if (maxTurns < 1) {
+      throw new IllegalArgumentException("Maximum number of turns must be positive");
+    }
+    this.gameFactory = gameFactory;
+    this.rowCount = rowCount;
+    this.colCount = colCount;
+    this.wraps = wraps;
+    this.batCount = batCount;
+    this.pitCount = pitCount;
+    this.playerCount = playerCount;
+    this.arrowCount = arrowCount;
+    this.maxTurns = maxTurns;
+  }
+
+  /**
+   * Plays a game for each seed in a range.
+   * @param firstSeed the seed of the first game
+   * @param gameCount the number of games, each with the next seed
+   * @param policyFactory creates the policy for the game with a seed
+   * @return the outcome of the games
+   * @throws IllegalArgumentException if the number of games is negative,
+   *      the policy factory is null or the game parameters are invalid
+   * @throws MazeGenerationException if a maze for a game cannot be generated
+   */
+  public SimulationResult run(long firstSeed, int gameCount, LongFunction<Policy> policyFactory)
+      throws IllegalArgumentException, MazeGenerationException {
+    if (gameCount < 0) {
+      throw new IllegalArgumentException("Number of games must not be negative");
+    }
+    if (policyFactory == null) {
+      throw new IllegalArgumentException("Policy factory must not be null");
+    }
+
+    SimulationResult result = new SimulationResult();
+    long startTime = System.nanoTime();
+    for (int i = 0; i < gameCount; ++i) {
+      long seed = firstSeed + i;
+      playGame(seed, policyFactory.apply(seed), result);
+    }
+    result.setElapsedNanos(System.nanoTime() - startTime);
+    return result;
+  }
+
+  /**
+   * Plays a single game until it is over or reaches the
+   * limit on turns and adds its outcome to a result.
+   * @param seed the seed of the game
+   * @param policy the policy that makes the decisions
+   * @param result the result to add the outcome to
+   * @throws IllegalArgumentException if the policy or result is null
+   *      or the game parameters are invalid
+   * @throws MazeGenerationException if a maze for the game cannot be generated
+   */
+  public void playGame(long seed, Policy policy, SimulationResult result)
+      throws IllegalArgumentException, MazeGenerationException {
+    if (policy == null) {
+      throw new IllegalArgumentException("Policy must not be null");
+    }
+    if (result == null) {
+      throw new IllegalArgumentException("Result must not be null");
+    }
+
+    Game game = gameFactory.createGame(
+        rowCount,
+        colCount,
+        wraps,
+        batCount,
+        pitCount,
+        playerCount,
+        arrowCount,
+        seed);
+
+    //Remembers the most recent death, which decides how a lost game ended
+    Outcome[] lastDeath = new Outcome[1];
+    for (ReadOnlyPlayer player : game.getPlayers()) {
+      player.getFellIntoPitEvent().addListener(() -> lastDeath[0] = Outcome.PIT);
+      player.getKilledByWumpusEvent().addListener(() -> lastDeath[0] = Outcome.WUMPUS);
+    }
+
+    Features features = new GameFeatures(game);
+    int turns = 0;
+    while (!game.isOver() && turns < maxTurns) {
+      policy.takeTurn(game, features);
+      ++turns;
+    }
+
+    if (!game.isOver()) {
+      result.recordUnfinished(turns);
+    }
+    else if (game.getWinner() != null) {
+      result.recordWin(turns);
+    }
+    else if (game.getPlayers().stream().anyMatch(player -> player.isAlive())) {
+      result.recordOutOfArrows(turns);
+    }
+    else if (lastDeath[0] == Outcome.PIT) {
+      result.recordPitDeath(turns);
+    }
+    else if (lastDeath[0] == Outcome.WUMPUS) {
+      result.recordWumpusDeath(turns);
+    }
+    else {
+      result.recordOtherLoss(turns);
+    }
+  }
+
+  /**
+   * The ways a player can die during a game.
+   */
+  private enum Outcome {
+    PIT, WUMPUS
+  }
+
+  /**
+   * The features of a game played without a view.
+   * @author Liam Scholte
+   *
+   */
+  private static class GameFeatures implements Features {
+    private final Game game;
+
+    public GameFeatures(Game game) {
+      this.game = game;
+    }
+
+    @Override
+    public void move(Direction direction) {
+      game.move(direction);
+    }
+
+    @Override
+    public void shootArrow(Direction direction, int distance) {
+      game.shootArrow(direction, distance);
+    }
+
+    @Override
+    public void suicide() {
+      game.suicide();
+    }
+  }
+}
@@ -3,8 +3,10 @@ package view.graphical;
 import controller.Features;
 import controller.GameCreator;
 import model.Direction;
+import model.Hint;
 import model.Position;
 import model.ReadOnlyGame;
+import model.ReadOnlyRoom;
 import model.maze.MazeGenerationException;
 import model.player.ReadOnlyPlayer;
 import view.View;
@@ -259,6 +261,10 @@ public class GraphicalView extends JFrame implements View {
       else {
         message = "The game is not winnable for " + game.getCurrentPlayer().getName();
       }
+      Hint hint = game.getHint();
+      if (hint != null) {
+        message += System.lineSeparator() + "Shortest safe route: " + hint;
+      }
       JOptionPane.showMessageDialog(this, message, "Hint", JOptionPane.PLAIN_MESSAGE);
     });
     
@@ -348,28 +354,24 @@ public class GraphicalView extends JFrame implements View {
 
       @Override
       public void mouseReleased(MouseEvent e) {        
-        Position currentPosition =
-            game.getCurrentPlayer().getRoom().getPosition();
+        ReadOnlyRoom currentRoom = game.getCurrentPlayer().getRoom();
         Position targetRoomPosition =
             gui.mazePanel.getRoomPositionFromDrawingPosition(e.getPoint());
+        ReadOnlyRoom targetRoom = game.getMaze().getRoomAt(targetRoomPosition);
+        if (targetRoom == null) {
+          return;
+        }
         
+        //Looking at the neighbours rather than at the coordinates
+        //also allows moving through a wrapped edge
         try {
-          if (targetRoomPosition.equals(
-              new Position(currentPosition.getX() + 1, currentPosition.getY()))) {
-            features.move(Direction.EAST);
-          }
-          else if (targetRoomPosition.equals(
-              new Position(currentPosition.getX() - 1, currentPosition.getY()))) {
-            features.move(Direction.WEST);
-          }
-          else if (targetRoomPosition.equals(
-              new Position(currentPosition.getX(), currentPosition.getY() + 1))) {
-            features.move(Direction.SOUTH);
+          for (Direction direction : currentRoom.getAvailableDirections()) {
+            if (currentRoom.getNeighbour(direction).getPosition().equals(
+                targetRoom.getPosition())) {
+              features.move(direction);
+              break;
+            }
           }
-          else if (targetRoomPosition.equals(
-              new Position(currentPosition.getX(), currentPosition.getY() - 1))) {
-            features.move(Direction.NORTH);
-          } 
         }
         catch (Exception exception) {
           //Do nothing
@@ -3,8 +3,10 @@ package view.text;
 import controller.Features;
 import controller.GameCreator;
 import model.Direction;
+import model.Hint;
 import model.ReadOnlyGame;
 import model.maze.MazeGenerationException;
+import model.player.PlayerEventArgs;
 import model.player.ReadOnlyPlayer;
 import view.View;
 
@@ -14,6 +16,7 @@ import java.util.InputMismatchException;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Scanner;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -253,54 +256,55 @@ public class TextView implements View {
       
       player
           .getPositionChangedEvent()
-          .addListener(wrapThrowingRunnable(
-              () -> {
+          .subscribe(wrapThrowingConsumer(
+              args -> {
                 output
                     .append(
                         String.format(
                             "%s has moved to cave at position %s",
-                            player.getName(),
-                            player.getRoom().getPosition().toString()))
+                            args.getPlayer().getName(),
+                            args.getToRoom().getPosition().toString()))
                     .append(System.lineSeparator());
               }));
       
       player
           .getKilledByWumpusEvent()
-          .addListener(wrapThrowingRunnable(
-              () -> {
+          .subscribe(wrapThrowingConsumer(
+              args -> {
                 output
-                    .append(player.getName() + " has been killed by a wumpus")
+                    .append(args.getPlayer().getName() + " has been killed by a wumpus")
                     .append(System.lineSeparator());
               }));
       
       player
           .getFellIntoPitEvent()
-          .addListener(wrapThrowingRunnable(
-              () -> {
+          .subscribe(wrapThrowingConsumer(
+              args -> {
                 output
-                    .append(player.getName() + " has fallen into a pit and died")
+                    .append(args.getPlayer().getName() + " has fallen into a pit and died")
                     .append(System.lineSeparator());
               }));
 
       player
           .getKilledWumpusEvent()
-          .addListener(wrapThrowingRunnable(
-              () -> {
+          .subscribe(wrapThrowingConsumer(
+              args -> {
                 output
-                    .append(player.getName() + " has killed the wumpus")
+                    .append(args.getPlayer().getName() + " has killed the wumpus")
                     .append(System.lineSeparator());
               }));
 
       player
           .getArrowMissedEvent()
-          .addListener(wrapThrowingRunnable(
-              () -> {
+          .subscribe(wrapThrowingConsumer(
+              args -> {
                 output
-                    .append(player.getName() + " has missed a shot")
+                    .append(args.getPlayer().getName() + " has missed a shot")
                     .append(System.lineSeparator());
               }));
     }
   }
+
   
   private Map<String, Runnable> registerCommands(Features features) {
     Map<String, Runnable> commands = new HashMap<String, Runnable>();
@@ -322,6 +326,13 @@ public class TextView implements View {
           else {
             output.append("The game is not winnable").append(System.lineSeparator());
           }
+          Hint hint = game.getHint();
+          if (hint != null) {
+            output
+                .append("Shortest safe route: ")
+                .append(hint.toString())
+                .append(System.lineSeparator());
+          }
         }));
     
     commands.put("quit", () -> features.suicide());
@@ -366,5 +377,22 @@ public class TextView implements View {
   
     public void runThatThrows() throws Throwable;
   }
+  
+  private Consumer<PlayerEventArgs> wrapThrowingConsumer(
+      ThrowingConsumer<PlayerEventArgs> consumer) {
+    return args -> {
+      try {
+        consumer.acceptThatThrows(args);
+      }
+      catch (Throwable e) {
+        throw new RuntimeException(e);
+      }
+    };
+  }
+  
+  private interface ThrowingConsumer<T> {
+  
+    public void acceptThatThrows(T args) throws Throwable;
+  }
 
 }
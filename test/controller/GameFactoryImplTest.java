@@ -6,6 +6,7 @@ import model.Room;
 import model.maze.Maze;
 import model.maze.MazeGenerationException;
 import model.maze.MazeImpl;
+import model.maze.MazeTopologyCache;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -50,6 +51,29 @@ public class GameFactoryImplTest {
     game.getPlayers().forEach(player -> Assert.assertEquals(1, player.getArrowCount()));
   }
   
+  /**
+   * Tests that games created from the same parameters share
+   * a cached maze layout without sharing their rooms.
+   */
+  @Test
+  public void testCreateGameReusesCachedMaze()
+      throws IllegalArgumentException, MazeGenerationException {
+    MazeTopologyCache mazeCache = new MazeTopologyCache(4);
+    GameFactoryImpl gameFactory = new GameFactoryImpl(mazeCache);
+    
+    Game firstGame = gameFactory.createGame(6, 7, false, 2, 3, 1, 1, 99);
+    Game secondGame = gameFactory.createGame(6, 7, false, 2, 3, 1, 1, 99);
+    
+    Assert.assertEquals(1, mazeCache.getMissCount());
+    Assert.assertEquals(1, mazeCache.getHitCount());
+    Assert.assertNotSame(
+        firstGame.getMaze().getRooms().get(0),
+        secondGame.getMaze().getRooms().get(0));
+    Assert.assertEquals(
+        firstGame.getMaze().getRooms().get(0).getPosition(),
+        secondGame.getMaze().getRooms().get(0).getPosition());
+  }
+  
   /**
    * Tests that getStartingRooms with a null list
    * throws an IllegalArgumentException.
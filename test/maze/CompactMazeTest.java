@@ -0,0 +1,232 @@
+package maze;
+
+import model.Direction;
+import model.Position;
+import model.ReadOnlyRoom;
+import model.maze.ArrayMazeTopology;
+import model.maze.CompactMaze;
+import model.maze.MazeGenerationException;
+import model.maze.MazeImpl;
+import model.maze.MazeTopology;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Unit tests the CompactMaze class.
+ * @author Liam Scholte
+ *
+ */
+public class CompactMazeTest {
+
+  /**
+   * Tests that a topology with the wrong number of cells
+   * throws an IllegalArgumentException.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testTopologyWrongCellCount() {
+    new ArrayMazeTopology(2, 2, false, new byte[3], new byte[4]);
+  }
+
+  /**
+   * Tests that a compact maze cannot be constructed without a topology.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testConstructorNullTopology() {
+    new CompactMaze(null);
+  }
+
+  /**
+   * Tests a 1x2 maze built directly from exit masks and hazards.
+   */
+  @Test
+  public void testRoomsFromTopology() {
+    byte[] exits = {
+        (byte)Direction.EAST.getMask(),
+        (byte)Direction.WEST.getMask() };
+    byte[] hazards = { 0, MazeTopology.WUMPUS };
+    CompactMaze maze = new CompactMaze(new ArrayMazeTopology(1, 2, false, exits, hazards));
+
+    Assert.assertEquals(2, maze.getRooms().size());
+
+    ReadOnlyRoom room = maze.getRoom(maze.getRoomIndex(0, 0));
+    Assert.assertEquals(new Position(0, 0), room.getPosition());
+    Assert.assertEquals(1, room.getExitCount());
+    Assert.assertFalse(room.hasWumpus());
+    Assert.assertTrue(room.isWumpusNearby());
+    Assert.assertFalse(room.isPitNearby());
+    Assert.assertNull(room.getNeighbour(Direction.WEST));
+
+    ReadOnlyRoom otherRoom = room.getNeighbour(Direction.EAST);
+    Assert.assertEquals(maze.getRoom(maze.getRoomIndex(0, 1)), otherRoom);
+    Assert.assertTrue(otherRoom.hasWumpus());
+    Assert.assertEquals(room, otherRoom.getNonHallNeighbour(Direction.WEST).getRoom());
+  }
+
+  /**
+   * Tests that a row of hallways which wraps into a loop has
+   * no room at the end of its tunnels.
+   */
+  @Test
+  public void testHallwayLoop() {
+    byte exitMask = (byte)(Direction.EAST.getMask() | Direction.WEST.getMask());
+    byte[] exits = { exitMask, exitMask, exitMask };
+    CompactMaze maze = new CompactMaze(new ArrayMazeTopology(1, 3, true, exits, new byte[3]));
+
+    Assert.assertEquals(0, maze.getRooms().size());
+    ReadOnlyRoom hallway = maze.getRoomAt(0, 0);
+    Assert.assertNull(hallway.getNonHallNeighbour(Direction.EAST).getRoom());
+    Assert.assertNull(hallway.getNonHallNeighbour(Direction.WEST).getRoom());
+  }
+
+  /**
+   * Tests that a tunnel around a ring of hallways ends where it started,
+   * as it does in a maze with the same topology.
+   */
+  @Test
+  public void testHallwayLoopTunnelLength() {
+    byte exitMask = (byte)(Direction.EAST.getMask() | Direction.WEST.getMask());
+    MazeTopology topology =
+        new ArrayMazeTopology(1, 3, true, new byte[] { exitMask, exitMask, exitMask }, new byte[3]);
+    ReadOnlyRoom hallway = new CompactMaze(topology).getRoomAt(0, 0);
+    ReadOnlyRoom room = new MazeImpl(topology).getRoomAt(0, 0);
+
+    Assert.assertEquals(3, room.getTunnelLength(Direction.EAST));
+    Assert.assertEquals(3, hallway.getTunnelLength(Direction.EAST));
+    Assert.assertEquals(3, hallway.getTunnelLength(Direction.WEST));
+  }
+
+  /**
+   * Tests that exploring a cell is reflected by its room and by
+   * the explored rooms of the maze.
+   */
+  @Test
+  public void testExplore() {
+    CompactMaze maze =
+        new CompactMaze(new ArrayMazeTopology(1, 1, false, new byte[1], new byte[1]));
+
+    Assert.assertTrue(maze.getExploredRooms().isEmpty());
+    Assert.assertFalse(maze.getRoom(0).isExplored());
+
+    maze.explore(0);
+
+    Assert.assertTrue(maze.getRoom(0).isExplored());
+    Assert.assertEquals(1, maze.getExploredRooms().size());
+  }
+
+  /**
+   * Tests that a compact copy of a generated maze has the same
+   * layout, tunnels and hazards as the original.
+   */
+  @Test
+  public void testCopyOfMatchesMaze() throws MazeGenerationException {
+    for (boolean wraps : new boolean[] { false, true }) {
+      MazeImpl original = new MazeImpl(12, 9, 3, 4, wraps, new Random(7));
+      CompactMaze compact = new CompactMaze(ArrayMazeTopology.copyOf(original));
+
+      Assert.assertEquals(original.getSize(), compact.getSize());
+      Assert.assertEquals(wraps, compact.getTopology().wraps());
+
+      List<ReadOnlyRoom> compactRooms = compact.getRooms();
+      Assert.assertEquals(original.getRooms().size(), compactRooms.size());
+
+      Map<Position, ReadOnlyRoom> compactRoomsByPosition = new HashMap<Position, ReadOnlyRoom>();
+      compactRooms.forEach(room -> compactRoomsByPosition.put(room.getPosition(), room));
+
+      for (ReadOnlyRoom room : original.getRooms()) {
+        ReadOnlyRoom compactRoom = compactRoomsByPosition.get(room.getPosition());
+        Assert.assertNotNull(compactRoom);
+        Assert.assertEquals(room.getAvailableDirections(), compactRoom.getAvailableDirections());
+        Assert.assertEquals(room.hasBats(), compactRoom.hasBats());
+        Assert.assertEquals(room.hasPit(), compactRoom.hasPit());
+        Assert.assertEquals(room.hasWumpus(), compactRoom.hasWumpus());
+        Assert.assertEquals(room.isPitNearby(), compactRoom.isPitNearby());
+        Assert.assertEquals(room.isWumpusNearby(), compactRoom.isWumpusNearby());
+        Assert.assertEquals(room.areBatsNearby(), compactRoom.areBatsNearby());
+
+        for (Direction direction : room.getAvailableDirections()) {
+          Assert.assertEquals(
+              room.getNonHallNeighbour(direction).getRoom().getPosition(),
+              compactRoom.getNonHallNeighbour(direction).getRoom().getPosition());
+          Assert.assertEquals(
+              room.getNonHallNeighbour(direction).getDirection(),
+              compactRoom.getNonHallNeighbour(direction).getDirection());
+        }
+      }
+    }
+  }
+
+  /**
+   * Tests that generating a topology directly produces the same layout
+   * and hazards as a maze built from an identically seeded generator.
+   */
+  @Test
+  public void testGenerateMatchesMazeImpl() throws MazeGenerationException {
+    for (boolean wraps : new boolean[] { false, true }) {
+      MazeTopology expected =
+          ArrayMazeTopology.copyOf(new MazeImpl(15, 11, 4, 6, wraps, new Random(3)));
+      MazeTopology actual =
+          ArrayMazeTopology.generate(15, 11, 4, 6, wraps, new Random(3));
+
+      Assert.assertEquals(expected.wraps(), actual.wraps());
+      for (int index = 0; index < 15 * 11; ++index) {
+        Assert.assertEquals(expected.getExitMask(index), actual.getExitMask(index));
+        Assert.assertEquals(expected.getHazards(index), actual.getHazards(index));
+      }
+    }
+  }
+
+  /**
+   * Tests that rooms looked up by index match the list of rooms,
+   * which is only created once.
+   */
+  @Test
+  public void testRoomAt() {
+    CompactMaze maze = new CompactMaze(
+        ArrayMazeTopology.generate(9, 11, 3, 3, false, new Random(4)));
+    List<ReadOnlyRoom> rooms = maze.getRooms();
+    Assert.assertEquals(rooms.size(), maze.roomCount());
+    Assert.assertSame(rooms, maze.getRooms());
+
+    int[] visitedRooms = new int[1];
+    maze.forEachRoom(index -> {
+      Assert.assertEquals(rooms.get(index).getPosition(), maze.roomAt(index).getPosition());
+      ++visitedRooms[0];
+    });
+    Assert.assertEquals(rooms.size(), visitedRooms[0]);
+  }
+
+  /**
+   * Tests that looking up a room past the last room
+   * throws an IndexOutOfBoundsException.
+   */
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testRoomAtOutOfBounds() {
+    CompactMaze maze = new CompactMaze(
+        ArrayMazeTopology.generate(3, 3, 0, 0, false, new Random(4)));
+    maze.roomAt(maze.roomCount());
+  }
+
+  /**
+   * Tests that rooms looked up by position match the rooms of a maze
+   * with the same topology, including across wrapped edges.
+   */
+  @Test
+  public void testGetRoomAt() {
+    MazeTopology topology = ArrayMazeTopology.generate(5, 7, 2, 2, true, new Random(6));
+    CompactMaze compactMaze = new CompactMaze(topology);
+    MazeImpl maze = new MazeImpl(topology);
+    for (int y = -1; y <= 5; ++y) {
+      for (int x = -1; x <= 7; ++x) {
+        ReadOnlyRoom room = maze.getRoomAt(x, y);
+        ReadOnlyRoom compactRoom = compactMaze.getRoomAt(x, y);
+        Assert.assertEquals(room.getPosition(), compactRoom.getPosition());
+        Assert.assertEquals(room.getAvailableDirections(), compactRoom.getAvailableDirections());
+      }
+    }
+  }
+}
@@ -0,0 +1,158 @@
+package maze;
+
+import model.Direction;
+import model.maze.ArrayTopologySink;
+import model.maze.EllerMazeGenerator;
+import model.maze.MazeGenerationException;
+import model.maze.MazeTopology;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Unit tests the EllerMazeGenerator class.
+ * @author Liam Scholte
+ *
+ */
+public class EllerMazeGeneratorTest {
+
+  /**
+   * Tests that a generator with a negative number of pits throws
+   * an IllegalArgumentException.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testConstructorNegativePitCount() {
+    new EllerMazeGenerator(5, 5, 0, -1, false, new Random(1));
+  }
+
+  /**
+   * Tests that every row is supplied to the sink exactly once and in order.
+   */
+  @Test
+  public void testRowsSuppliedInOrder() throws MazeGenerationException, IOException {
+    List<Integer> suppliedRows = new ArrayList<Integer>();
+    new EllerMazeGenerator(7, 4, 0, 0, false, new Random(1))
+        .generate((row, exits) -> {
+          Assert.assertEquals(4, exits.length);
+          suppliedRows.add(row);
+        });
+
+    Assert.assertEquals(7, suppliedRows.size());
+    for (int row = 0; row < 7; ++row) {
+      Assert.assertEquals(row, (int)suppliedRows.get(row));
+    }
+  }
+
+  /**
+   * Tests that a maze with no entities to hold is a perfect maze,
+   * meaning every cell is connected by exactly one path.
+   */
+  @Test
+  public void testPerfectMaze() throws MazeGenerationException, IOException {
+    ArrayTopologySink sink = new ArrayTopologySink(20, 30, false);
+    new EllerMazeGenerator(20, 30, 0, 0, false, new Random(5)).generate(sink);
+    MazeTopology topology = sink.getTopology();
+
+    int passageCount = 0;
+    for (int index = 0; index < 20 * 30; ++index) {
+      passageCount += Integer.bitCount(topology.getExitMask(index));
+    }
+    Assert.assertEquals(2 * (20 * 30 - 1), passageCount);
+    assertConnected(topology);
+  }
+
+  /**
+   * Tests that mazes with many entities, with and without wrapping,
+   * are connected and have enough non-hallway rooms.
+   */
+  @Test
+  public void testEnoughRoomsForEntities() throws MazeGenerationException, IOException {
+    for (boolean wraps : new boolean[] { false, true }) {
+      ArrayTopologySink sink = new ArrayTopologySink(25, 18, wraps);
+      long caveCount =
+          new EllerMazeGenerator(25, 18, 150, 200, wraps, new Random(9)).generate(sink);
+      MazeTopology topology = sink.getTopology(150, 200, new Random(9));
+
+      int actualCaveCount = 0;
+      int batCount = 0;
+      int pitCount = 0;
+      int wumpusCount = 0;
+      for (int index = 0; index < 25 * 18; ++index) {
+        if (Integer.bitCount(topology.getExitMask(index)) != 2) {
+          ++actualCaveCount;
+        }
+        batCount += topology.getHazards(index) & MazeTopology.BATS;
+        pitCount += (topology.getHazards(index) & MazeTopology.PIT) != 0 ? 1 : 0;
+        wumpusCount += (topology.getHazards(index) & MazeTopology.WUMPUS) != 0 ? 1 : 0;
+      }
+
+      Assert.assertEquals(caveCount, actualCaveCount);
+      Assert.assertTrue(actualCaveCount >= 201);
+      Assert.assertEquals(150, batCount);
+      Assert.assertEquals(200, pitCount);
+      Assert.assertEquals(1, wumpusCount);
+      Assert.assertEquals(wraps, topology.wraps());
+      assertConnected(topology);
+    }
+  }
+
+  /**
+   * Asserts that exits are consistent between neighbouring cells, that
+   * only wrapping mazes have exits off the edge, and that every cell
+   * can be reached from the first cell.
+   */
+  private void assertConnected(MazeTopology topology) {
+    int rows = topology.getRows();
+    int cols = topology.getCols();
+    boolean[] visited = new boolean[rows * cols];
+    Deque<Integer> cellsToVisit = new ArrayDeque<Integer>();
+    cellsToVisit.add(0);
+    int visitedCount = 0;
+    while (!cellsToVisit.isEmpty()) {
+      int index = cellsToVisit.remove();
+      if (visited[index]) {
+        continue;
+      }
+      visited[index] = true;
+      ++visitedCount;
+
+      int row = index / cols;
+      int col = index % cols;
+      for (Direction direction : Direction.values()) {
+        if ((topology.getExitMask(index) & direction.getMask()) == 0) {
+          continue;
+        }
+        int nextRow = row;
+        int nextCol = col;
+        switch (direction) {
+          case NORTH:
+            --nextRow;
+            break;
+          case SOUTH:
+            ++nextRow;
+            break;
+          case EAST:
+            ++nextCol;
+            break;
+          default:
+            --nextCol;
+            break;
+        }
+        boolean offEdge = nextRow < 0 || nextRow >= rows || nextCol < 0 || nextCol >= cols;
+        Assert.assertTrue(!offEdge || topology.wraps());
+
+        int neighbour = ((nextRow + rows) % rows) * cols + (nextCol + cols) % cols;
+        Assert.assertNotEquals(
+            0, topology.getExitMask(neighbour) & direction.getOpposite().getMask());
+        cellsToVisit.add(neighbour);
+      }
+    }
+    Assert.assertEquals(rows * cols, visitedCount);
+  }
+}
@@ -0,0 +1,104 @@
+package maze;
+
+import model.maze.ArrayMazeTopology;
+import model.maze.CompactMaze;
+import model.maze.EllerMazeGenerator;
+import model.maze.MappedMazeTopology;
+import model.maze.MazeFile;
+import model.maze.MazeFileWriter;
+import model.maze.MazeGenerationException;
+import model.maze.MazeImpl;
+import model.maze.MazeTopology;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Unit tests the MazeFile class.
+ * @author Liam Scholte
+ *
+ */
+public class MazeFileTest {
+
+  private Path path;
+
+  /**
+   * Initializes data for testing.
+   */
+  @Before
+  public void setup() throws IOException {
+    path = Files.createTempFile("maze", ".bin");
+    path.toFile().deleteOnExit();
+  }
+
+  /**
+   * Tests that a file that does not start with the magic
+   * number throws an IOException.
+   */
+  @Test(expected = IOException.class)
+  public void testOpenNotMazeFile() throws IOException {
+    Files.write(path, new byte[MazeFile.HEADER_SIZE + 4]);
+    MazeFile.open(path);
+  }
+
+  /**
+   * Tests that a maze written to a file is read back
+   * exactly as MazeImpl generated it.
+   */
+  @Test
+  public void testRoundTripMatchesMazeImpl() throws IOException {
+    for (boolean wraps : new boolean[] { false, true }) {
+      MazeImpl maze = new MazeImpl(13, 17, 6, 9, wraps, new Random(2024));
+      MazeTopology expected = ArrayMazeTopology.copyOf(maze);
+      MazeFile.write(path, expected, 2024);
+
+      MappedMazeTopology actual = MazeFile.open(path);
+      Assert.assertEquals(13, actual.getRows());
+      Assert.assertEquals(17, actual.getCols());
+      Assert.assertEquals(wraps, actual.wraps());
+      Assert.assertEquals(2024, actual.getSeed());
+      Assert.assertEquals(MazeFile.HEADER_SIZE + 13 * 17, Files.size(path));
+      for (int index = 0; index < 13 * 17; ++index) {
+        Assert.assertEquals(expected.getExitMask(index), actual.getExitMask(index));
+        Assert.assertEquals(expected.getHazards(index), actual.getHazards(index));
+      }
+
+      Assert.assertEquals(maze.getRooms().size(), new CompactMaze(actual).getRooms().size());
+    }
+  }
+
+  /**
+   * Tests streaming a generated maze into a file and then
+   * placing entities in it.
+   */
+  @Test
+  public void testWriterAndPlaceEntities() throws IOException, MazeGenerationException {
+    try (MazeFileWriter writer = new MazeFileWriter(path, 40, 30, true, 5)) {
+      new EllerMazeGenerator(40, 30, 20, 25, true, new Random(5)).generate(writer);
+    }
+    MazeFile.placeEntities(path, 20, 25, new Random(5));
+
+    MappedMazeTopology topology = MazeFile.open(path);
+    int batCount = 0;
+    int pitCount = 0;
+    int wumpusCount = 0;
+    for (int index = 0; index < 40 * 30; ++index) {
+      int hazards = topology.getHazards(index);
+      if (hazards != 0) {
+        Assert.assertNotEquals(2, Integer.bitCount(topology.getExitMask(index)));
+      }
+      batCount += (hazards & MazeTopology.BATS) != 0 ? 1 : 0;
+      pitCount += (hazards & MazeTopology.PIT) != 0 ? 1 : 0;
+      wumpusCount += (hazards & MazeTopology.WUMPUS) != 0 ? 1 : 0;
+    }
+    Assert.assertEquals(20, batCount);
+    Assert.assertEquals(25, pitCount);
+    Assert.assertEquals(1, wumpusCount);
+    Assert.assertTrue(topology.wraps());
+  }
+}
@@ -3,14 +3,24 @@ package maze;
 import model.Direction;
 import model.Position;
 import model.ReadOnlyRoom;
+import model.Room;
+import model.SplitRandom;
+import model.maze.ArrayMazeTopology;
 import model.maze.Maze;
 import model.maze.MazeGenerationException;
 import model.maze.MazeImpl;
+import model.maze.MazeTopology;
+import model.player.ModelPlayer;
+import model.player.PlayerImpl;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Unit tests the Maze class.
@@ -65,6 +75,48 @@ public class MazeTest {
     new MazeImpl(1, 1, 0, -1, false, random);
   }
   
+  /**
+   * Tests that a 2x2 maze that does not wrap cannot hold
+   * more entities than the two dead ends of its only path.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testConstructor2x2TooManyPits() {
+    new MazeImpl(2, 2, 0, 2, false, random);
+  }
+  
+  /**
+   * Tests that a maze that needs every room to be a non-hallway
+   * room is generated rather than failing.
+   */
+  @Test
+  public void testConstructorEveryRoomRequired() {
+    Assert.assertEquals(42, new MazeImpl(6, 7, 0, 41, false, random).getRooms().size());
+    Assert.assertEquals(6, new MazeImpl(2, 3, 6, 5, false, random).getRooms().size());
+    Assert.assertEquals(25, new MazeImpl(5, 5, 25, 24, true, random).getRooms().size());
+  }
+  
+  /**
+   * Tests that mazes built from the same topology have the
+   * same layout but their own rooms.
+   */
+  @Test
+  public void testConstructorFromTopology() {
+    MazeTopology topology = ArrayMazeTopology.generate(8, 9, 3, 4, true, random);
+    Maze first = new MazeImpl(topology);
+    Maze second = new MazeImpl(topology);
+    
+    MazeTopology copy = ArrayMazeTopology.copyOf(first);
+    for (int index = 0; index < 8 * 9; ++index) {
+      Assert.assertEquals(topology.getExitMask(index), copy.getExitMask(index));
+      Assert.assertEquals(topology.getHazards(index), copy.getHazards(index));
+    }
+    
+    Assert.assertEquals(first.getRooms().size(), second.getRooms().size());
+    first.getMutableRooms().get(0).explore();
+    Assert.assertEquals(1, first.getExploredRooms().size());
+    Assert.assertEquals(0, second.getExploredRooms().size());
+  }
+  
   /**
    * Tests constructing a 1x1 maze that does not wrap.
    */
@@ -98,4 +150,244 @@ public class MazeTest {
     Assert.assertSame(room, room.getNeighbour(Direction.EAST));
     Assert.assertSame(room, room.getNeighbour(Direction.WEST));
   }
+  
+  /**
+   * Tests that generating a maze on multiple threads produces
+   * the same maze no matter how many threads are used.
+   */
+  @Test
+  public void testParallelConstructorIndependentOfThreadCount() throws MazeGenerationException {
+    ForkJoinPool singleThreadPool = new ForkJoinPool(1);
+    ForkJoinPool multiThreadPool = new ForkJoinPool(4);
+    try {
+      MazeTopology expected = ArrayMazeTopology.copyOf(
+          new MazeImpl(600, 530, 40, 60, true, new Random(3), singleThreadPool));
+      MazeTopology actual = ArrayMazeTopology.generate(
+          600, 530, 40, 60, true, new Random(3), multiThreadPool);
+      
+      for (int index = 0; index < 600 * 530; ++index) {
+        Assert.assertEquals(expected.getExitMask(index), actual.getExitMask(index));
+        Assert.assertEquals(expected.getHazards(index), actual.getHazards(index));
+      }
+    }
+    finally {
+      singleThreadPool.shutdown();
+      multiThreadPool.shutdown();
+    }
+  }
+  
+  /**
+   * Tests that the tiles of a maze generated on multiple threads
+   * are joined into a single perfect maze.
+   */
+  @Test
+  public void testParallelConstructorPerfectMaze() throws MazeGenerationException {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      int rows = 700;
+      int cols = 300;
+      MazeTopology topology = ArrayMazeTopology.generate(
+          rows, cols, 0, 0, false, random, pool);
+      
+      int passageCount = 0;
+      for (int index = 0; index < rows * cols; ++index) {
+        passageCount += Integer.bitCount(topology.getExitMask(index));
+      }
+      Assert.assertEquals(2 * (rows * cols - 1), passageCount);
+      
+      boolean[] visited = new boolean[rows * cols];
+      Deque<Integer> cellsToVisit = new ArrayDeque<Integer>();
+      cellsToVisit.add(0);
+      int visitedCount = 0;
+      while (!cellsToVisit.isEmpty()) {
+        int index = cellsToVisit.remove();
+        if (visited[index]) {
+          continue;
+        }
+        visited[index] = true;
+        ++visitedCount;
+        
+        int exits = topology.getExitMask(index);
+        if ((exits & Direction.NORTH.getMask()) != 0) {
+          cellsToVisit.add(index - cols);
+        }
+        if ((exits & Direction.SOUTH.getMask()) != 0) {
+          cellsToVisit.add(index + cols);
+        }
+        if ((exits & Direction.EAST.getMask()) != 0) {
+          cellsToVisit.add(index + 1);
+        }
+        if ((exits & Direction.WEST.getMask()) != 0) {
+          cellsToVisit.add(index - 1);
+        }
+      }
+      Assert.assertEquals(rows * cols, visitedCount);
+    }
+    finally {
+      pool.shutdown();
+    }
+  }
+  
+  /**
+   * Tests that the rooms explored since a version are
+   * exactly the rooms explored after that version.
+   */
+  @Test
+  public void testGetExploredRoomsSince() {
+    Maze maze = new MazeImpl(6, 6, 2, 2, false, random);
+    Assert.assertEquals(0, maze.getExplorationVersion());
+    
+    Room first = maze.getMutableRooms().get(0);
+    Direction direction = first.getAvailableDirections().iterator().next();
+    first.explore();
+    first.visitNonHallNeighbour(direction);
+    first.explore();
+    int version = maze.getExplorationVersion();
+    List<ReadOnlyRoom> exploredRooms = maze.getExploredRooms();
+    Assert.assertEquals(1 + first.getTunnelLength(direction), version);
+    Assert.assertEquals(version, exploredRooms.size());
+    Assert.assertSame(first, exploredRooms.get(0));
+    Assert.assertTrue(maze.getExploredRoomsSince(version).isEmpty());
+    
+    Room second = maze.getMutableRooms().get(maze.getMutableRooms().size() - 1);
+    Assert.assertFalse(second.isExplored());
+    second.explore();
+    Assert.assertEquals(version + 1, maze.getExplorationVersion());
+    Assert.assertEquals(version, exploredRooms.size());
+    
+    List<ReadOnlyRoom> newRooms = maze.getExploredRoomsSince(version);
+    Assert.assertEquals(1, newRooms.size());
+    Assert.assertSame(second, newRooms.get(0));
+  }
+  
+  /**
+   * Tests that a future exploration version is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testGetExploredRoomsSinceInvalidVersion() {
+    Maze maze = new MazeImpl(3, 3, 0, 0, false, random);
+    maze.getExploredRoomsSince(1);
+  }
+  
+  /**
+   * Tests that the rooms of a maze are an unmodifiable view
+   * that agrees with the indexed accessors.
+   */
+  @Test
+  public void testRoomViews() {
+    Maze maze = new MazeImpl(7, 5, 2, 2, true, random);
+    List<ReadOnlyRoom> rooms = maze.getRooms();
+    Assert.assertSame(rooms, maze.getRooms());
+    Assert.assertEquals(rooms.size(), maze.roomCount());
+    
+    int[] visitedRooms = new int[1];
+    maze.forEachRoom(index -> {
+      Assert.assertSame(rooms.get(index), maze.roomAt(index));
+      ++visitedRooms[0];
+    });
+    Assert.assertEquals(maze.roomCount(), visitedRooms[0]);
+  }
+  
+  /**
+   * Tests that the rooms of a maze cannot be modified through the view.
+   */
+  @Test(expected = UnsupportedOperationException.class)
+  public void testRoomViewUnmodifiable() {
+    Maze maze = new MazeImpl(3, 3, 0, 0, false, random);
+    maze.getRooms().clear();
+  }
+  
+  /**
+   * Tests that every room, including hallways, can be looked up by position.
+   */
+  @Test
+  public void testGetRoomAt() {
+    Maze maze = new MazeImpl(4, 6, 1, 1, false, random);
+    for (int y = 0; y < 4; ++y) {
+      for (int x = 0; x < 6; ++x) {
+        Assert.assertEquals(new Position(x, y), maze.getRoomAt(x, y).getPosition());
+        Assert.assertSame(maze.getRoomAt(x, y), maze.getRoomAt(new Position(x, y)));
+      }
+    }
+    for (ReadOnlyRoom room : maze.getRooms()) {
+      Assert.assertSame(room, maze.getRoomAt(room.getPosition()));
+    }
+    
+    Assert.assertFalse(maze.wraps());
+    Assert.assertNull(maze.getRoomAt(-1, 0));
+    Assert.assertNull(maze.getRoomAt(0, 4));
+    Assert.assertNull(maze.normalize(6, 0));
+  }
+  
+  /**
+   * Tests that positions outside a wrapping maze
+   * find the room on the opposite side.
+   */
+  @Test
+  public void testGetRoomAtWrapped() {
+    Maze maze = new MazeImpl(4, 6, 1, 1, true, random);
+    Assert.assertTrue(maze.wraps());
+    Assert.assertSame(maze.getRoomAt(5, 3), maze.getRoomAt(-1, -1));
+    Assert.assertSame(maze.getRoomAt(0, 0), maze.getRoomAt(6, 4));
+    Assert.assertEquals(new Position(5, 1), maze.normalize(-7, 9));
+  }
+  
+  /**
+   * Tests that normalized positions are the positions of the rooms.
+   */
+  @Test
+  public void testNormalizeReturnsRoomPosition() {
+    Maze maze = new MazeImpl(3, 4, 0, 0, true, random);
+    Assert.assertSame(maze.getRoomAt(1, 2).getPosition(), maze.normalize(5, -1));
+  }
+  
+  /**
+   * Tests that the bats of mazes built with identically seeded
+   * generators move players to the same rooms.
+   */
+  @Test
+  public void testBatsReplayFromSeed() {
+    MazeTopology topology = ArrayMazeTopology.generate(10, 10, 6, 1, true, random);
+    Maze first = new MazeImpl(topology, new SplitRandom(9));
+    Maze second = new MazeImpl(topology, new SplitRandom(9));
+    
+    for (int i = 0; i < first.roomCount(); ++i) {
+      Room firstRoom = first.getMutableRooms().get(i);
+      if (!firstRoom.hasBats()) {
+        continue;
+      }
+      Room secondRoom = second.getMutableRooms().get(i);
+      for (int attempt = 0; attempt < 5; ++attempt) {
+        ModelPlayer firstPlayer = new PlayerImpl("first", firstRoom, 1);
+        ModelPlayer secondPlayer = new PlayerImpl("second", secondRoom, 1);
+        firstRoom.getAction().perform(firstPlayer);
+        secondRoom.getAction().perform(secondPlayer);
+        Assert.assertEquals(
+            firstPlayer.getRoom().getPosition(),
+            secondPlayer.getRoom().getPosition());
+      }
+    }
+  }
+  
+  /**
+   * Tests that every room of a built maze has a fixed layout,
+   * so that its topology and safe regions stay true.
+   */
+  @Test
+  public void testLayoutFixed() {
+    MazeImpl maze = new MazeImpl(6, 6, 2, 2, true, random);
+    for (Room room : maze.getMutableRooms()) {
+      Assert.assertTrue(room.isLayoutFixed());
+    }
+    
+    Room room = maze.getMutableRooms().get(0);
+    Direction direction = room.getAvailableDirections().iterator().next();
+    try {
+      room.setNeighbour(direction, null);
+      Assert.fail("Expected an IllegalStateException");
+    }
+    catch (IllegalStateException e) {
+      Assert.assertNotNull(room.getNeighbour(direction));
+    }
+  }
 }
@@ -0,0 +1,73 @@
+package maze;
+
+import model.maze.ArrayMazeTopology;
+import model.maze.MazeTopologyCache;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests the MazeTopologyCache class.
+ * @author Liam Scholte
+ *
+ */
+public class MazeTopologyCacheTest {
+
+  /**
+   * Tests that a cache without room for any mazes
+   * throws an IllegalArgumentException.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testConstructorZeroCapacity() {
+    new MazeTopologyCache(0);
+  }
+
+  /**
+   * Tests that invalid maze parameters throw an IllegalArgumentException
+   * and are not cached.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testGetTopologyInvalidParameters() {
+    new MazeTopologyCache(2).getTopology(0, 5, false, 1, 1, 1);
+  }
+
+  /**
+   * Tests that the same parameters return the same topology
+   * and that different parameters do not.
+   */
+  @Test
+  public void testGetTopologyHit() {
+    MazeTopologyCache cache = new MazeTopologyCache(4);
+
+    ArrayMazeTopology topology = cache.getTopology(5, 6, true, 2, 3, 42);
+    Assert.assertSame(topology, cache.getTopology(5, 6, true, 2, 3, 42));
+    Assert.assertNotSame(topology, cache.getTopology(5, 6, true, 2, 3, 43));
+    Assert.assertNotSame(topology, cache.getTopology(5, 6, false, 2, 3, 42));
+
+    Assert.assertEquals(1, cache.getHitCount());
+    Assert.assertEquals(3, cache.getMissCount());
+    Assert.assertEquals(0, cache.getEvictionCount());
+    Assert.assertEquals(3, cache.size());
+  }
+
+  /**
+   * Tests that the least recently used topology is evicted
+   * once the cache is full.
+   */
+  @Test
+  public void testGetTopologyEvictsLeastRecentlyUsed() {
+    MazeTopologyCache cache = new MazeTopologyCache(2);
+
+    ArrayMazeTopology first = cache.getTopology(4, 4, false, 0, 0, 1);
+    ArrayMazeTopology second = cache.getTopology(4, 4, false, 0, 0, 2);
+
+    //Using the first topology makes the second the least recently used
+    Assert.assertSame(first, cache.getTopology(4, 4, false, 0, 0, 1));
+    cache.getTopology(4, 4, false, 0, 0, 3);
+
+    Assert.assertEquals(1, cache.getEvictionCount());
+    Assert.assertEquals(2, cache.size());
+    Assert.assertSame(first, cache.getTopology(4, 4, false, 0, 0, 1));
+    Assert.assertNotSame(second, cache.getTopology(4, 4, false, 0, 0, 2));
+    Assert.assertEquals(2, cache.getEvictionCount());
+  }
+}
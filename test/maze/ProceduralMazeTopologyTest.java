@@ -0,0 +1,129 @@
+package maze;
+
+import model.Direction;
+import model.ReadOnlyRoom;
+import model.maze.CompactMaze;
+import model.maze.MazeTopology;
+import model.maze.ProceduralMazeTopology;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Unit tests the ProceduralMazeTopology class.
+ * @author Liam Scholte
+ *
+ */
+public class ProceduralMazeTopologyTest {
+
+  /**
+   * Tests that a chunk capacity of zero throws an IllegalArgumentException.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testConstructorZeroChunkCapacity() {
+    new ProceduralMazeTopology(100, 100, false, 1, 1, 1, 0);
+  }
+
+  /**
+   * Tests that no chunks are generated until a cell is
+   * requested, and then only the chunk holding that cell.
+   */
+  @Test
+  public void testChunksGeneratedOnDemand() {
+    ProceduralMazeTopology topology =
+        new ProceduralMazeTopology(40000, 40000, false, 3, 3, 7, 16);
+    Assert.assertEquals(0, topology.getLoadedChunkCount());
+
+    CompactMaze maze = new CompactMaze(topology);
+    ReadOnlyRoom room = maze.getRoom(maze.getRoomIndex(20000, 30000));
+    Assert.assertEquals(30000, room.getPosition().getX());
+    Assert.assertTrue(room.getExitCount() > 0);
+    Assert.assertEquals(1, topology.getLoadedChunkCount());
+  }
+
+  /**
+   * Tests that an evicted chunk is generated again identically.
+   */
+  @Test
+  public void testEvictedChunkRegeneratedIdentically() {
+    ProceduralMazeTopology topology =
+        new ProceduralMazeTopology(300, 300, true, 5, 5, 11, 1);
+    int[] exits = new int[ProceduralMazeTopology.CHUNK_SIZE];
+    for (int col = 0; col < exits.length; ++col) {
+      exits[col] = topology.getExitMask(col);
+    }
+
+    //Reading a cell of another chunk evicts the first chunk
+    topology.getExitMask(299 * 300 + 299);
+    for (int col = 0; col < exits.length; ++col) {
+      Assert.assertEquals(exits[col], topology.getExitMask(col));
+    }
+    Assert.assertEquals(3, topology.getGeneratedChunkCount());
+    Assert.assertEquals(1, topology.getLoadedChunkCount());
+  }
+
+  /**
+   * Tests that the whole maze is connected, that neighbouring chunks agree
+   * on the passages between them and that there is exactly one wumpus.
+   */
+  @Test
+  public void testChunksJoined() {
+    for (boolean wraps : new boolean[] { false, true }) {
+      MazeTopology topology = new ProceduralMazeTopology(150, 200, wraps, 8, 6, 3, 2);
+      int rows = topology.getRows();
+      int cols = topology.getCols();
+
+      boolean[] visited = new boolean[rows * cols];
+      Deque<Integer> cellsToVisit = new ArrayDeque<Integer>();
+      cellsToVisit.add(0);
+      int visitedCount = 0;
+      int wumpusCount = 0;
+      while (!cellsToVisit.isEmpty()) {
+        int index = cellsToVisit.remove();
+        if (visited[index]) {
+          continue;
+        }
+        visited[index] = true;
+        ++visitedCount;
+        if ((topology.getHazards(index) & MazeTopology.WUMPUS) != 0) {
+          ++wumpusCount;
+        }
+
+        int row = index / cols;
+        int col = index % cols;
+        for (Direction direction : Direction.values()) {
+          if ((topology.getExitMask(index) & direction.getMask()) == 0) {
+            continue;
+          }
+          int nextRow = row;
+          int nextCol = col;
+          switch (direction) {
+            case NORTH:
+              --nextRow;
+              break;
+            case SOUTH:
+              ++nextRow;
+              break;
+            case EAST:
+              ++nextCol;
+              break;
+            default:
+              --nextCol;
+              break;
+          }
+          boolean offEdge = nextRow < 0 || nextRow >= rows || nextCol < 0 || nextCol >= cols;
+          Assert.assertTrue(!offEdge || wraps);
+
+          int neighbour = ((nextRow + rows) % rows) * cols + (nextCol + cols) % cols;
+          Assert.assertNotEquals(
+              0, topology.getExitMask(neighbour) & direction.getOpposite().getMask());
+          cellsToVisit.add(neighbour);
+        }
+      }
+      Assert.assertEquals(rows * cols, visitedCount);
+      Assert.assertEquals(1, wumpusCount);
+    }
+  }
+}
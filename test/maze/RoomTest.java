@@ -13,6 +13,9 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.EnumSet;
 import java.util.Random;
 
 /**
@@ -404,4 +407,207 @@ public class RoomTest {
     Assert.assertFalse(room.isWumpusNearby());
     Assert.assertFalse(room.areBatsNearby());
   }
+  
+  /**
+  * Tests that the non-hallway neighbour is found at the end of a tunnel.
+  */
+  @Test
+  public void testGetNonHallNeighbourThroughTunnel() {
+    Room firstHallway = new Room(expectedPosition);
+    Room secondHallway = new Room(expectedPosition);
+    Room end = new Room(expectedPosition);
+    room.setNeighbour(Direction.EAST, firstHallway);
+    firstHallway.setNeighbour(Direction.EAST, secondHallway);
+    secondHallway.setNeighbour(Direction.SOUTH, end);
+    
+    Assert.assertSame(end, room.getNonHallNeighbour(Direction.EAST).getRoom());
+    Assert.assertEquals(Direction.SOUTH, room.getNonHallNeighbour(Direction.EAST).getDirection());
+    Assert.assertEquals(3, room.getTunnelLength(Direction.EAST));
+    Assert.assertEquals(0, room.getTunnelLength(Direction.WEST));
+  }
+  
+  /**
+  * Tests that changing the neighbours of a hallway updates
+  * the tunnels that pass through it.
+  */
+  @Test
+  public void testGetNonHallNeighbourAfterTunnelChanges() {
+    Room hallway = new Room(expectedPosition);
+    Room end = new Room(expectedPosition);
+    Room sideRoom = new Room(expectedPosition);
+    room.setNeighbour(Direction.EAST, hallway);
+    hallway.setNeighbour(Direction.EAST, end);
+    Assert.assertSame(end, room.getNonHallNeighbour(Direction.EAST).getRoom());
+    Assert.assertSame(room, end.getNonHallNeighbour(Direction.WEST).getRoom());
+    
+    hallway.setNeighbour(Direction.NORTH, sideRoom);
+    Assert.assertSame(hallway, room.getNonHallNeighbour(Direction.EAST).getRoom());
+    Assert.assertSame(hallway, end.getNonHallNeighbour(Direction.WEST).getRoom());
+    Assert.assertEquals(1, room.getTunnelLength(Direction.EAST));
+    
+    hallway.setNeighbour(Direction.NORTH, null);
+    Assert.assertSame(end, room.getNonHallNeighbour(Direction.EAST).getRoom());
+    Assert.assertSame(room, end.getNonHallNeighbour(Direction.WEST).getRoom());
+    Assert.assertEquals(2, room.getTunnelLength(Direction.EAST));
+  }
+  
+  /**
+  * Tests that visiting the non-hallway neighbour
+  * explores every room in the tunnel.
+  */
+  @Test
+  public void testVisitNonHallNeighbourExploresTunnel() {
+    Room hallway = new Room(expectedPosition);
+    Room end = new Room(expectedPosition);
+    room.setNeighbour(Direction.SOUTH, hallway);
+    hallway.setNeighbour(Direction.SOUTH, end);
+    room.getNonHallNeighbour(Direction.SOUTH);
+    Assert.assertFalse(hallway.isExplored());
+    
+    Assert.assertSame(end, room.visitNonHallNeighbour(Direction.SOUTH).getMutableRoom());
+    Assert.assertTrue(hallway.isExplored());
+    Assert.assertTrue(end.isExplored());
+  }
+  
+  /**
+  * Tests that a hazard added after checking for nearby
+  * hazards is detected by the next check.
+  */
+  @Test
+  public void testIsPitNearbyAfterPitAdded() {
+    Room hallway = new Room(expectedPosition);
+    Room end = new Room(expectedPosition);
+    room.setNeighbour(Direction.WEST, hallway);
+    hallway.setNeighbour(Direction.WEST, end);
+    Assert.assertFalse(room.isPitNearby());
+    Assert.assertFalse(end.isWumpusNearby());
+    
+    end.addPit();
+    room.addWumpus();
+    Assert.assertTrue(room.isPitNearby());
+    Assert.assertFalse(room.isWumpusNearby());
+    Assert.assertTrue(end.isWumpusNearby());
+    Assert.assertFalse(end.isPitNearby());
+  }
+  
+  /**
+  * Tests that nearby hazards are checked again
+  * when the tunnel to a hazard changes.
+  */
+  @Test
+  public void testIsPitNearbyAfterTunnelChanges() {
+    Room hallway = new Room(expectedPosition);
+    Room end = new Room(expectedPosition);
+    room.setNeighbour(Direction.WEST, hallway);
+    hallway.setNeighbour(Direction.WEST, end);
+    end.addPit();
+    Assert.assertTrue(room.isPitNearby());
+    
+    hallway.setNeighbour(Direction.NORTH, new Room(expectedPosition));
+    Assert.assertFalse(room.isPitNearby());
+    Assert.assertTrue(hallway.isPitNearby());
+    
+    hallway.setNeighbour(Direction.NORTH, null);
+    Assert.assertTrue(room.isPitNearby());
+    Assert.assertFalse(hallway.isPitNearby());
+  }
+  
+  /**
+  * Tests that the available directions match the neighbours of the room.
+  */
+  @Test
+  public void testGetAvailableDirections() {
+    room.setNeighbour(Direction.NORTH, new Room(expectedPosition));
+    room.setNeighbour(Direction.WEST, new Room(expectedPosition));
+    Assert.assertEquals(
+        EnumSet.of(Direction.NORTH, Direction.WEST),
+        room.getAvailableDirections());
+    Assert.assertEquals(2, room.getExitCount());
+    Assert.assertTrue(room.isHallway());
+    
+    room.setNeighbour(Direction.NORTH, null);
+    Assert.assertEquals(EnumSet.of(Direction.WEST), room.getAvailableDirections());
+    Assert.assertEquals(1, room.getExitCount());
+    Assert.assertFalse(room.isHallway());
+  }
+  
+  /**
+  * Tests that the available directions cannot be modified.
+  */
+  @Test(expected = UnsupportedOperationException.class)
+  public void testGetAvailableDirectionsUnmodifiable() {
+    room.getAvailableDirections().add(Direction.NORTH);
+  }
+  
+  /**
+  * Tests that querying the exits and nearby hazards
+  * of a room does not allocate any memory.
+  */
+  @Test
+  public void testQueriesDoNotAllocate() {
+    ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    if (!(threadBean instanceof com.sun.management.ThreadMXBean)
+        || !((com.sun.management.ThreadMXBean)threadBean).isThreadAllocatedMemorySupported()) {
+      return;
+    }
+    com.sun.management.ThreadMXBean allocationBean =
+        (com.sun.management.ThreadMXBean)threadBean;
+    allocationBean.setThreadAllocatedMemoryEnabled(true);
+    long threadId = Thread.currentThread().getId();
+    
+    Room hallway = new Room(expectedPosition);
+    Room end = new Room(expectedPosition);
+    room.setNeighbour(Direction.EAST, hallway);
+    hallway.setNeighbour(Direction.SOUTH, end);
+    end.addPit();
+    
+    final int iterations = 100000;
+    int checksum = 0;
+    for (int round = 0; round < 2; ++round) {
+      long allocatedBytes = allocationBean.getThreadAllocatedBytes(threadId);
+      for (int i = 0; i < iterations; ++i) {
+        checksum += room.getExitCount();
+        checksum += hallway.isHallway() ? 1 : 0;
+        checksum += room.getAvailableDirections().size();
+        checksum += room.isPitNearby() ? 1 : 0;
+        checksum += room.getNonHallNeighbour(Direction.EAST).getRoom() == end ? 1 : 0;
+      }
+      allocatedBytes = allocationBean.getThreadAllocatedBytes(threadId) - allocatedBytes;
+      
+      //Only the first round may allocate, while the queries are compiled
+      if (round == 1) {
+        Assert.assertTrue(
+            "Allocated " + allocatedBytes + " bytes",
+            allocatedBytes < iterations);
+      }
+    }
+    Assert.assertEquals(2 * iterations * 5, checksum);
+  }
+  
+  /**
+   * Tests that a room with a fixed layout cannot gain a hazard.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testFixedLayoutAddPit() {
+    room.fixLayout();
+    room.addPit();
+  }
+  
+  /**
+   * Tests that a room cannot be joined to a room with a fixed layout,
+   * and that neither room changes.
+   */
+  @Test
+  public void testFixedLayoutSetNeighbour() {
+    Room otherRoom = new Room(expectedPosition);
+    otherRoom.fixLayout();
+    try {
+      room.setNeighbour(Direction.EAST, otherRoom);
+      Assert.fail("Expected an IllegalStateException");
+    }
+    catch (IllegalStateException e) {
+      Assert.assertNull(room.getNeighbour(Direction.EAST));
+      Assert.assertNull(otherRoom.getNeighbour(Direction.WEST));
+    }
+  }
 }
@@ -0,0 +1,143 @@
+package maze;
+
+import model.Direction;
+import model.maze.ArrayMazeTopology;
+import model.maze.MazeImpl;
+import model.maze.MazeTopology;
+import model.maze.SafeRegions;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.Random;
+
+/**
+ * Unit tests the SafeRegions class.
+ * @author Liam Scholte
+ *
+ */
+public class SafeRegionsTest {
+
+  /**
+   * Tests that regions cannot be found without a topology.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testConstructorNullTopology() {
+    new SafeRegions(null);
+  }
+
+  /**
+   * Tests that the region of a cell outside the maze cannot be found.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testRegionOutsideMaze() {
+    MazeTopology topology = ArrayMazeTopology.generate(3, 3, 0, 0, false, new Random(1));
+    new SafeRegions(topology).getRegion(-1);
+  }
+
+  /**
+   * Tests that a pit splits a corridor into two regions and
+   * that only the region next to the bats touches them.
+   */
+  @Test
+  public void testCorridorSplitByPit() {
+    byte[] exits = new byte[] {
+      (byte)Direction.EAST.getMask(),
+      (byte)(Direction.EAST.getMask() | Direction.WEST.getMask()),
+      (byte)(Direction.EAST.getMask() | Direction.WEST.getMask()),
+      (byte)(Direction.EAST.getMask() | Direction.WEST.getMask()),
+      (byte)Direction.WEST.getMask()
+    };
+    byte[] hazards = new byte[] {0, 0, MazeTopology.PIT, 0, MazeTopology.BATS};
+    SafeRegions regions = new SafeRegions(new ArrayMazeTopology(1, 5, false, exits, hazards));
+    
+    Assert.assertEquals(2, regions.getRegionCount());
+    Assert.assertTrue(regions.isConnected(0, 1));
+    Assert.assertFalse(regions.isConnected(1, 3));
+    Assert.assertFalse(regions.isConnected(2, 2));
+    Assert.assertEquals(SafeRegions.UNSAFE, regions.getRegion(4));
+    Assert.assertFalse(regions.touchesBats(regions.getRegion(0)));
+    Assert.assertTrue(regions.touchesBats(regions.getRegion(3)));
+  }
+
+  /**
+   * Tests that the regions agree with searching the safe cells of random mazes.
+   */
+  @Test
+  public void testMatchesSearch() {
+    Random random = new Random(3);
+    for (int i = 0; i < 20; ++i) {
+      MazeTopology topology = new MazeImpl(
+          1 + random.nextInt(30),
+          1 + random.nextInt(90),
+          random.nextInt(3),
+          random.nextInt(4),
+          random.nextBoolean(),
+          new Random(random.nextLong())).getTopology();
+      int cellCount = topology.getRows() * topology.getCols();
+      SafeRegions regions = new SafeRegions(topology);
+      
+      for (int index = 0; index < cellCount; ++index) {
+        if (topology.getHazards(index) != 0) {
+          Assert.assertEquals(SafeRegions.UNSAFE, regions.getRegion(index));
+          continue;
+        }
+        BitSet reachable = getSafeCellsReachable(topology, index);
+        boolean touchesBats = false;
+        for (int other = 0; other < cellCount; ++other) {
+          Assert.assertEquals(reachable.get(other), regions.isConnected(index, other));
+          if ((topology.getHazards(other) & MazeTopology.BATS) != 0
+              && isNextTo(topology, other, reachable)) {
+            touchesBats = true;
+          }
+        }
+        Assert.assertEquals(touchesBats, regions.touchesBats(regions.getRegion(index)));
+      }
+    }
+  }
+
+  /**
+   * Finds the safe cells that can be walked to from a safe cell, one cell at a time.
+   */
+  private static BitSet getSafeCellsReachable(MazeTopology topology, int startIndex) {
+    BitSet reached = new BitSet();
+    Deque<Integer> cellsToCheck = new ArrayDeque<Integer>();
+    reached.set(startIndex);
+    cellsToCheck.add(startIndex);
+    while (!cellsToCheck.isEmpty()) {
+      int index = cellsToCheck.remove();
+      for (int other : getNeighbours(topology, index)) {
+        if (other >= 0 && topology.getHazards(other) == 0 && !reached.get(other)) {
+          reached.set(other);
+          cellsToCheck.add(other);
+        }
+      }
+    }
+    return reached;
+  }
+
+  private static int[] getNeighbours(MazeTopology topology, int index) {
+    int rows = topology.getRows();
+    int cols = topology.getCols();
+    int row = index / cols;
+    int col = index % cols;
+    int exits = topology.getExitMask(index);
+    return new int[] {
+      (exits & Direction.NORTH.getMask()) != 0 ? Math.floorMod(row - 1, rows) * cols + col : -1,
+      (exits & Direction.SOUTH.getMask()) != 0 ? ((row + 1) % rows) * cols + col : -1,
+      (exits & Direction.EAST.getMask()) != 0 ? row * cols + (col + 1) % cols : -1,
+      (exits & Direction.WEST.getMask()) != 0 ? row * cols + Math.floorMod(col - 1, cols) : -1
+    };
+  }
+
+  private static boolean isNextTo(MazeTopology topology, int index, BitSet cells) {
+    for (int other : getNeighbours(topology, index)) {
+      if (other >= 0 && cells.get(other)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
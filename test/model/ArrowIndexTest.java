@@ -0,0 +1,154 @@
+package model;
+
+import model.maze.ArrayMazeTopology;
+import model.maze.CompactMaze;
+import model.maze.MazeImpl;
+import model.maze.MazeTopology;
+import model.player.PlayerImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests the ArrowIndex class.
+ * @author Liam Scholte
+ *
+ */
+public class ArrowIndexTest {
+  
+  /**
+   * Tests that an index cannot be constructed without rooms.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testConstructorNullRooms() {
+    new ArrowIndex(null, 5);
+  }
+  
+  /**
+   * Tests that an index must hold some distance.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testConstructorNoDistance() {
+    new ArrowIndex(new ArrayList<ReadOnlyRoom>(), 0);
+  }
+  
+  /**
+   * Tests that a shot farther than the index holds cannot be looked up.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testTargetTooFar() {
+    List<ReadOnlyRoom> rooms = new ArrayList<ReadOnlyRoom>();
+    rooms.add(new Room(new Position(0, 0)));
+    new ArrowIndex(rooms, 2).getTarget(rooms.get(0), Direction.EAST, 3);
+  }
+  
+  /**
+   * Tests that the index lands every shot in the same room as following
+   * the tunnels, and that every landing is listed as a firing solution.
+   */
+  @Test
+  public void testMatchesTunnelCursor() {
+    for (int seed = 0; seed < 10; ++seed) {
+      MazeImpl maze = new MazeImpl(9, 7, 2, 3, seed % 2 == 0, new Random(seed));
+      ArrowIndex index = new ArrowIndex(maze.getRooms(), 6);
+      TunnelCursor arrow = new TunnelCursor(maze.getRooms().get(0), Direction.NORTH);
+      
+      int solutionCount = 0;
+      for (ReadOnlyRoom room : maze.getRooms()) {
+        solutionCount += index.getFiringSolutions(room).size();
+        for (Direction direction : Direction.values()) {
+          for (int distance = 1; distance <= 6; ++distance) {
+            arrow.reset(room, direction);
+            ReadOnlyRoom expected = arrow.advance(distance) < distance ? null : arrow.getRoom();
+            ReadOnlyRoom target = index.getTarget(room, direction, distance);
+            Assert.assertSame(expected, target);
+            
+            if (target != null) {
+              boolean listed = false;
+              for (FiringSolution solution : index.getFiringSolutions(target)) {
+                listed |= solution.getRoom() == room
+                    && solution.getDirection() == direction
+                    && solution.getDistance() == distance;
+              }
+              Assert.assertTrue(listed);
+            }
+          }
+        }
+      }
+      
+      //Every listed solution is a shot that lands
+      int landingCount = 0;
+      for (ReadOnlyRoom room : maze.getRooms()) {
+        for (Direction direction : Direction.values()) {
+          for (int distance = 1; distance <= 6; ++distance) {
+            if (index.getTarget(room, direction, distance) != null) {
+              ++landingCount;
+            }
+          }
+        }
+      }
+      Assert.assertEquals(landingCount, solutionCount);
+    }
+  }
+  
+  /**
+   * Tests that a room outside the index has no target and no firing solutions.
+   */
+  @Test
+  public void testRoomOutsideIndex() {
+    List<ReadOnlyRoom> rooms = new ArrayList<ReadOnlyRoom>();
+    rooms.add(new Room(new Position(0, 0)));
+    ArrowIndex index = new ArrowIndex(rooms, 3);
+    Room other = new Room(new Position(1, 0));
+    
+    Assert.assertNull(index.getTarget(other, Direction.EAST, 1));
+    Assert.assertTrue(index.getFiringSolutions(other).isEmpty());
+  }
+  
+  /**
+   * Tests that rooms are found by their cells, so the views of a
+   * compact maze's cells are found whichever instance is used.
+   */
+  @Test
+  public void testRoomsFoundByCell() {
+    byte[] exits = {
+        (byte)Direction.EAST.getMask(),
+        (byte)Direction.WEST.getMask() };
+    byte[] hazards = { 0, MazeTopology.WUMPUS };
+    CompactMaze maze = new CompactMaze(new ArrayMazeTopology(1, 2, false, exits, hazards));
+    ArrowIndex index = new ArrowIndex(maze.getRooms(), 2);
+    
+    ReadOnlyRoom room = maze.getRoom(0);
+    Assert.assertEquals(0, room.getCellIndex());
+    Assert.assertEquals(maze.getRoom(1), index.getTarget(room, Direction.EAST, 1));
+    Assert.assertNull(index.getTarget(room, Direction.EAST, 2));
+    
+    List<FiringSolution> solutions = index.getFiringSolutions(maze.getRoom(1));
+    Assert.assertEquals(1, solutions.size());
+    Assert.assertEquals(room, solutions.get(0).getRoom());
+  }
+  
+  /**
+   * Tests that a player resolving shots with an index kills the wumpus.
+   */
+  @Test
+  public void testPlayerShootsWithIndex() {
+    Room room = new Room(new Position(0, 0));
+    Room otherRoom = new Room(new Position(1, 0));
+    room.setNeighbour(Direction.EAST, otherRoom);
+    otherRoom.addWumpus();
+    
+    List<ReadOnlyRoom> rooms = new ArrayList<ReadOnlyRoom>();
+    rooms.add(room);
+    PlayerImpl player = new PlayerImpl("Player", room, 2);
+    player.setArrowIndex(new ArrowIndex(rooms, player.getMaxShootDistance()));
+    
+    boolean[] killed = new boolean[1];
+    player.getKilledWumpusEvent().subscribe(args -> killed[0] = args.getToRoom() == otherRoom);
+    player.shootArrow(Direction.EAST, 1);
+    Assert.assertTrue(killed[0]);
+  }
+}
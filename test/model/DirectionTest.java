@@ -41,4 +41,19 @@ public class DirectionTest {
   public void testGetOppositeOfWest() {
     Assert.assertEquals(Direction.EAST, Direction.WEST.getOpposite());
   }
+  
+  /**
+   * Tests that each direction occupies its own bit
+   * in an exit mask.
+   */
+  @Test
+  public void testGetMask() {
+    int combinedMask = 0;
+    for (Direction direction : Direction.values()) {
+      Assert.assertEquals(1, Integer.bitCount(direction.getMask()));
+      Assert.assertEquals(0, combinedMask & direction.getMask());
+      combinedMask |= direction.getMask();
+    }
+    Assert.assertEquals(0xF, combinedMask);
+  }
 }
@@ -3,6 +3,8 @@ package model;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.function.Consumer;
+
 /**
  * Tests the Event class.
  * @author Liam Scholte
@@ -16,7 +18,7 @@ public class EventTest {
    */
   @Test(expected = IllegalArgumentException.class)
   public void testAddNullListener() {
-    Event event = new Event();
+    Event<String> event = new Event<String>();
     
     event.addListener(null);
   }
@@ -26,7 +28,7 @@ public class EventTest {
    */
   @Test
   public void testRaiseNoListeners() {
-    Event event = new Event();
+    Event<String> event = new Event<String>();
     
     try {
       event.raise();
@@ -42,7 +44,7 @@ public class EventTest {
    */
   @Test
   public void testListenerInvokedWhenEventRaised() {
-    Event event = new Event();
+    Event<String> event = new Event<String>();
     
     boolean[] invoked = new boolean[3];
     event.addListener(() -> invoked[0] = true);
@@ -59,4 +61,102 @@ public class EventTest {
     Assert.assertTrue(invoked[1]);
     Assert.assertTrue(invoked[2]);
   }
+  
+  /**
+   * Tests that subscribers receive the arguments of the
+   * event and that listeners are invoked in the order added.
+   */
+  @Test
+  public void testSubscriberReceivesArguments() {
+    Event<String> event = new Event<String>();
+    StringBuilder calls = new StringBuilder();
+    event.subscribe(args -> calls.append(args));
+    event.addListener(() -> calls.append("-"));
+    event.subscribe(args -> calls.append(args.length()));
+    
+    event.raise("abc");
+    Assert.assertEquals("abc-3", calls.toString());
+  }
+  
+  /**
+   * Tests that calling subscribe with a null
+   * listener throws an IllegalArgumentException.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testSubscribeNull() {
+    new Event<String>().subscribe(null);
+  }
+  
+  /**
+   * Tests that removed listeners are no longer invoked.
+   */
+  @Test
+  public void testRemoveListeners() {
+    Event<String> event = new Event<String>();
+    int[] calls = new int[2];
+    Runnable runnable = () -> ++calls[0];
+    Consumer<String> listener = args -> ++calls[1];
+    event.addListener(runnable);
+    event.subscribe(listener);
+    Assert.assertTrue(event.hasListeners());
+    
+    Assert.assertTrue(event.removeListener(runnable));
+    Assert.assertFalse(event.removeListener(runnable));
+    event.raise("a");
+    Assert.assertTrue(event.unsubscribe(listener));
+    event.raise("b");
+    
+    Assert.assertEquals(0, calls[0]);
+    Assert.assertEquals(1, calls[1]);
+    Assert.assertFalse(event.hasListeners());
+  }
+  
+  /**
+   * Tests that a listener removing itself while the event is
+   * raised does not stop the other listeners from being invoked.
+   */
+  @Test
+  public void testRemoveListenerWhileRaising() {
+    Event<String> event = new Event<String>();
+    int[] calls = new int[1];
+    Runnable[] selfRemoving = new Runnable[1];
+    selfRemoving[0] = () -> event.removeListener(selfRemoving[0]);
+    event.addListener(selfRemoving[0]);
+    event.addListener(() -> ++calls[0]);
+    
+    event.raise();
+    event.raise();
+    Assert.assertEquals(2, calls[0]);
+  }
+  
+  /**
+   * Tests that a listener that is both a Runnable and a Consumer is
+   * invoked the way it was added, so a subscriber receives the arguments.
+   */
+  @Test
+  public void testListenerImplementingBoth() {
+    StringBuilder calls = new StringBuilder();
+    class BothListener implements Runnable, Consumer<String> {
+      @Override
+      public void run() {
+        calls.append("run;");
+      }
+
+      @Override
+      public void accept(String args) {
+        calls.append(args).append(";");
+      }
+    }
+    
+    Event<String> event = new Event<String>();
+    BothListener listener = new BothListener();
+    event.subscribe(listener);
+    event.addListener(listener);
+    event.raise("abc");
+    Assert.assertEquals("abc;run;", calls.toString());
+    
+    Assert.assertTrue(event.removeListener(listener));
+    event.raise("def");
+    Assert.assertEquals("abc;run;def;", calls.toString());
+  }
 }
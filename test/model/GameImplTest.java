@@ -828,4 +828,337 @@ public class GameImplTest {
     game.move(Direction.EAST);
     Assert.assertEquals(player2, game.getCurrentPlayer());
   }
+  
+  /**
+   * Tests that a player who dies on their turn is skipped by every question
+   * about the current player, whether or not the current player was asked for first.
+   */
+  @Test
+  public void testDeadPlayerSkippedAfterTurn() {
+    List<Room> rooms = new ArrayList<Room>();
+    Room roomA = new Room(roomPosition);
+    rooms.add(roomA);
+    
+    Room roomB = new Room(roomPosition);
+    rooms.add(roomB);
+    
+    Room roomC = new Room(roomPosition);
+    rooms.add(roomC);
+    
+    Room roomD = new Room(roomPosition);
+    rooms.add(roomD);
+    
+    roomA.setNeighbour(Direction.WEST, roomB);
+    roomA.setNeighbour(Direction.EAST, roomC);
+    roomA.setNeighbour(Direction.SOUTH, roomD);
+    
+    roomB.addPit();
+    roomD.addWumpus();
+    
+    ReadOnlyMaze maze = new ReadOnlyMaze() {
+
+      @Override
+      public List<ReadOnlyRoom> getRooms() {
+        return rooms.stream().collect(Collectors.toList());
+      }
+
+      @Override
+      public List<ReadOnlyRoom> getExploredRooms() {
+        return null;
+      }
+
+      @Override
+      public Dimension getSize() {
+        return null;
+      }
+    };
+    
+    ModelPlayer player1 = new PlayerImpl("Player 1", roomA, 3);
+    ModelPlayer player2 = new PlayerImpl("Player 2", roomA, 3);
+    List<ModelPlayer> playerList = new ArrayList<ModelPlayer>();
+    playerList.add(player1);
+    playerList.add(player2);
+    GameImpl game = new GameImpl(maze, playerList);
+    
+    game.move(Direction.WEST);
+    Assert.assertFalse(player1.isAlive());
+    game.move(Direction.EAST);
+    
+    Assert.assertTrue(game.isWinnable());
+    Assert.assertEquals("move west, then shoot south 1 room", game.getHint().toString());
+    Assert.assertEquals(player2, game.getCurrentPlayer());
+    Assert.assertTrue(game.isWinnable());
+    Assert.assertEquals("move west, then shoot south 1 room", game.getHint().toString());
+  }
+  
+  /**
+   * Tests that the rooms accessible to the player are found without
+   * recursion, so that a very long maze does not overflow the stack,
+   * and that the answer stays the same as the player moves.
+   */
+  @Test
+  public void testIsWinnableInLongMaze() {
+    
+    List<Room> rooms = new ArrayList<Room>();
+    Room room = new Room(roomPosition);
+    rooms.add(room);
+    for (int i = 1; i <= 20000; ++i) {
+      Room newRoom = new Room(roomPosition);
+      rooms.add(newRoom);
+      
+      Room sideRoom = new Room(roomPosition);
+      rooms.add(sideRoom);
+      
+      room.setNeighbour(Direction.EAST, newRoom);
+      newRoom.setNeighbour(Direction.SOUTH, sideRoom);
+      room = newRoom;
+    }
+    Room newRoom = new Room(roomPosition);
+    rooms.add(newRoom);
+    
+    room.setNeighbour(Direction.EAST, newRoom);
+    newRoom.addWumpus();
+    
+    ReadOnlyMaze maze = new ReadOnlyMaze() {
+
+      @Override
+      public List<ReadOnlyRoom> getRooms() {
+        return rooms.stream().collect(Collectors.toList());
+      }
+
+      @Override
+      public List<ReadOnlyRoom> getExploredRooms() {
+        return null;
+      }
+
+      @Override
+      public Dimension getSize() {
+        return null;
+      }
+    };
+    
+    ModelPlayer player = new PlayerImpl("Player", rooms.get(0), 3);
+    List<ModelPlayer> playerList = new ArrayList<ModelPlayer>();
+    playerList.add(player);
+
+    GameImpl game = new GameImpl(maze, playerList);
+    
+    Assert.assertTrue(game.isWinnable());
+    Assert.assertTrue(game.isWinnable());
+    game.move(Direction.EAST);
+    game.move(Direction.SOUTH);
+    Assert.assertTrue(game.isWinnable());
+  }
+  
+  /**
+   * Tests that a game won by the current player is winnable.
+   */
+  @Test
+  public void testIsWinnableAfterWinning() {
+    Room room = new Room(roomPosition);
+    Room otherRoom = new Room(roomPosition);
+    room.setNeighbour(Direction.EAST, otherRoom);
+    otherRoom.addWumpus();
+    
+    List<Room> rooms = new ArrayList<Room>();
+    rooms.add(room);
+    rooms.add(otherRoom);
+    
+    ReadOnlyMaze maze = new ReadOnlyMaze() {
+
+      @Override
+      public List<ReadOnlyRoom> getRooms() {
+        return rooms.stream().collect(Collectors.toList());
+      }
+
+      @Override
+      public List<ReadOnlyRoom> getExploredRooms() {
+        return null;
+      }
+
+      @Override
+      public Dimension getSize() {
+        return null;
+      }
+    };
+    
+    ModelPlayer player = new PlayerImpl("Player", room, 3);
+    List<ModelPlayer> playerList = new ArrayList<ModelPlayer>();
+    playerList.add(player);
+
+    GameImpl game = new GameImpl(maze, playerList);
+    game.shootArrow(Direction.EAST, 1);
+    
+    Assert.assertTrue(game.isOver());
+    Assert.assertTrue(game.isWinnable());
+  }
+  
+  /**
+   * Tests that searching a maze cell by cell through its topology gives the
+   * same answers as searching the same maze room by room, as players move.
+   */
+  @Test
+  public void testIsWinnableSameWithTopology() {
+    for (int seed = 0; seed < 30; ++seed) {
+      MazeImpl cellMaze = new MazeImpl(8, 8, 3, 6, seed % 2 == 0, new Random(seed));
+      MazeImpl roomMaze = new MazeImpl(8, 8, 3, 6, seed % 2 == 0, new Random(seed));
+      
+      //Hides the topology so that the rooms are searched instead
+      ReadOnlyMaze roomOnlyMaze = new ReadOnlyMaze() {
+
+        @Override
+        public List<ReadOnlyRoom> getRooms() {
+          return roomMaze.getRooms();
+        }
+
+        @Override
+        public List<ReadOnlyRoom> getExploredRooms() {
+          return roomMaze.getExploredRooms();
+        }
+
+        @Override
+        public Dimension getSize() {
+          return roomMaze.getSize();
+        }
+      };
+      
+      int startIndex = 0;
+      while (cellMaze.getMutableRooms().get(startIndex).hasPit()
+          || cellMaze.getMutableRooms().get(startIndex).hasWumpus()
+          || cellMaze.getMutableRooms().get(startIndex).hasBats()) {
+        ++startIndex;
+      }
+      
+      List<ModelPlayer> cellPlayers = new ArrayList<ModelPlayer>();
+      cellPlayers.add(new PlayerImpl("Player", cellMaze.getMutableRooms().get(startIndex), 3));
+      List<ModelPlayer> roomPlayers = new ArrayList<ModelPlayer>();
+      roomPlayers.add(new PlayerImpl("Player", roomMaze.getMutableRooms().get(startIndex), 3));
+      GameImpl cellGame = new GameImpl(cellMaze, cellPlayers);
+      GameImpl roomGame = new GameImpl(roomOnlyMaze, roomPlayers);
+      
+      Random moves = new Random(seed);
+      while (!cellGame.isOver()) {
+        Assert.assertEquals(roomGame.isWinnable(), cellGame.isWinnable());
+        List<Direction> directions = new ArrayList<Direction>(
+            cellGame.getCurrentPlayer().getRoom().getAvailableDirections());
+        Direction direction = directions.get(moves.nextInt(directions.size()));
+        cellGame.move(direction);
+        roomGame.move(direction);
+      }
+      Assert.assertTrue(roomGame.isOver());
+    }
+  }
+  
+  /**
+   * Tests that following a hint kills the wumpus, that hints are only given
+   * when the game is winnable and that a room's hint is found only once.
+   */
+  @Test
+  public void testFollowingHintWins() {
+    int hintCount = 0;
+    for (int seed = 0; seed < 20; ++seed) {
+      MazeImpl maze = new MazeImpl(8, 8, 3, 6, seed % 2 == 0, new Random(seed));
+      int startIndex = 0;
+      while (maze.getMutableRooms().get(startIndex).hasPit()
+          || maze.getMutableRooms().get(startIndex).hasWumpus()
+          || maze.getMutableRooms().get(startIndex).hasBats()) {
+        ++startIndex;
+      }
+      
+      List<ModelPlayer> players = new ArrayList<ModelPlayer>();
+      players.add(new PlayerImpl("Player", maze.getMutableRooms().get(startIndex), 3));
+      GameImpl game = new GameImpl(maze, players);
+      
+      Hint hint = game.getHint();
+      if (hint == null) {
+        continue;
+      }
+      ++hintCount;
+      Assert.assertTrue(game.isWinnable());
+      Assert.assertSame(hint, game.getHint());
+      
+      for (Direction direction : hint.getMoves()) {
+        game.move(direction);
+      }
+      FiringSolution solution = hint.getFiringSolution();
+      Assert.assertSame(solution.getRoom(), game.getCurrentPlayer().getRoom());
+      Assert.assertTrue(game.getHint().getMoves().isEmpty());
+      
+      game.shootArrow(solution.getDirection(), solution.getDistance());
+      Assert.assertTrue(game.isOver());
+      Assert.assertSame(players.get(0), game.getWinner());
+      Assert.assertNull(game.getHint());
+    }
+    Assert.assertTrue(hintCount > 0);
+  }
+  
+  /**
+   * Tests that whether the game is winnable depends on how far the current
+   * player can shoot, rather than on the player who asked first.
+   */
+  @Test
+  public void testIsWinnableForEachShootDistance() {
+    Room start = new Room(new Position(0, 1));
+    Room pitRoom = new Room(new Position(1, 1));
+    Room deadEnd = new Room(new Position(1, 0));
+    Room wumpusRoom = new Room(new Position(2, 1));
+    start.setNeighbour(Direction.EAST, pitRoom);
+    pitRoom.setNeighbour(Direction.NORTH, deadEnd);
+    pitRoom.setNeighbour(Direction.EAST, wumpusRoom);
+    pitRoom.addPit();
+    wumpusRoom.addWumpus();
+    
+    List<Room> rooms = new ArrayList<Room>();
+    rooms.add(start);
+    rooms.add(pitRoom);
+    rooms.add(deadEnd);
+    rooms.add(wumpusRoom);
+    
+    ReadOnlyMaze maze = new ReadOnlyMaze() {
+
+      @Override
+      public List<ReadOnlyRoom> getRooms() {
+        return rooms.stream().collect(Collectors.toList());
+      }
+
+      @Override
+      public List<ReadOnlyRoom> getExploredRooms() {
+        return null;
+      }
+
+      @Override
+      public Dimension getSize() {
+        return null;
+      }
+    };
+    
+    ModelPlayer nearPlayer = new PlayerImpl("Near", start, 2) {
+      
+      @Override
+      public int getMaxShootDistance() {
+        return 1;
+      }
+    };
+    ModelPlayer farPlayer = new PlayerImpl("Far", start, 2) {
+      
+      @Override
+      public int getMaxShootDistance() {
+        return 2;
+      }
+    };
+    List<ModelPlayer> playerList = new ArrayList<ModelPlayer>();
+    playerList.add(nearPlayer);
+    playerList.add(farPlayer);
+    
+    GameImpl game = new GameImpl(maze, playerList);
+    Assert.assertFalse(game.isWinnable());
+    game.shootArrow(Direction.EAST, 1);
+    Assert.assertFalse(game.isOver());
+    
+    Assert.assertSame(farPlayer, game.getCurrentPlayer());
+    Assert.assertTrue(game.isWinnable());
+    game.shootArrow(Direction.EAST, 2);
+    Assert.assertTrue(game.isOver());
+    Assert.assertSame(farPlayer, game.getWinner());
+  }
 }
@@ -0,0 +1,210 @@
+package model;
+
+import model.maze.MazeImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Tests the HintEngine class.
+ * @author Liam Scholte
+ *
+ */
+public class HintEngineTest {
+
+  /**
+   * Tests that a hint engine cannot be constructed without an index.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testConstructorNullIndex() {
+    new HintEngine(null, new Room(new Position(0, 0)), 1);
+  }
+
+  /**
+   * Tests that a hint engine cannot shoot farther than its index holds.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testConstructorTooFar() {
+    List<ReadOnlyRoom> rooms = new ArrayList<ReadOnlyRoom>();
+    rooms.add(new Room(new Position(0, 0)));
+    new HintEngine(new ArrowIndex(rooms, 2), rooms.get(0), 3);
+  }
+
+  /**
+   * Tests that a player who can already shoot the wumpus is told to shoot from where they are.
+   */
+  @Test
+  public void testShootFromHere() {
+    List<Room> rooms = createCaves();
+    Room start = rooms.get(0);
+    Room wumpusRoom = rooms.get(4);
+
+    HintEngine engine = new HintEngine(new ArrowIndex(rooms, 2), wumpusRoom, 2);
+    Hint hint = engine.findHint(start);
+
+    Assert.assertTrue(hint.getMoves().isEmpty());
+    Assert.assertEquals(0, hint.getLength());
+    Assert.assertSame(start, hint.getFiringSolution().getRoom());
+    Assert.assertEquals(Direction.EAST, hint.getFiringSolution().getDirection());
+    Assert.assertEquals(2, hint.getFiringSolution().getDistance());
+    Assert.assertEquals("shoot east 2 rooms from here", hint.toString());
+  }
+
+  /**
+   * Tests that a player who must move first is led to the nearest room to shoot from.
+   */
+  @Test
+  public void testMoveThenShoot() {
+    List<Room> rooms = createCaves();
+    Room start = rooms.get(0);
+    Room wumpusRoom = rooms.get(4);
+
+    HintEngine engine = new HintEngine(new ArrowIndex(rooms, 1), wumpusRoom, 1);
+    Hint hint = engine.findHint(start);
+
+    Assert.assertEquals(1, hint.getMoves().size());
+    Assert.assertEquals(Direction.EAST, hint.getMoves().get(0));
+    Assert.assertEquals(1, hint.getLength());
+    Assert.assertSame(rooms.get(1), hint.getFiringSolution().getRoom());
+    Assert.assertEquals(Direction.EAST, hint.getFiringSolution().getDirection());
+    Assert.assertEquals(1, hint.getFiringSolution().getDistance());
+    Assert.assertEquals("move east, then shoot east 1 room", hint.toString());
+  }
+
+  /**
+   * Tests that there is no hint when the only room to shoot from has a pit.
+   */
+  @Test
+  public void testBlockedByPit() {
+    List<Room> rooms = createCaves();
+    rooms.get(1).addPit();
+
+    HintEngine engine = new HintEngine(new ArrowIndex(rooms, 1), rooms.get(4), 1);
+    Assert.assertNull(engine.findHint(rooms.get(0)));
+  }
+
+  /**
+   * Tests that the routes are as short as a search over every room
+   * finds, avoid hazards and end in a room that the wumpus can be shot from.
+   */
+  @Test
+  public void testShortestRoutes() {
+    for (int seed = 0; seed < 10; ++seed) {
+      MazeImpl maze = new MazeImpl(9, 9, 3, 6, seed % 2 == 0, new Random(seed));
+      ArrowIndex index = new ArrowIndex(maze.getRooms(), 3);
+      ReadOnlyRoom wumpusRoom = null;
+      for (ReadOnlyRoom room : maze.getRooms()) {
+        if (room.hasWumpus()) {
+          wumpusRoom = room;
+        }
+      }
+      HintEngine engine = new HintEngine(index, wumpusRoom, 3);
+      Map<ReadOnlyRoom, Integer> expectedLengths =
+          getRouteLengths(maze.getRooms(), index, wumpusRoom);
+
+      for (ReadOnlyRoom start : maze.getRooms()) {
+        if (!isSafe(start)) {
+          continue;
+        }
+        Hint hint = engine.findHint(start);
+        Integer expectedLength = expectedLengths.get(start);
+        if (expectedLength == null) {
+          Assert.assertNull(hint);
+          continue;
+        }
+        Assert.assertEquals(expectedLength.intValue(), hint.getLength());
+
+        ReadOnlyRoom room = start;
+        int length = 0;
+        for (Direction direction : hint.getMoves()) {
+          length += room.getTunnelLength(direction);
+          room = room.getNonHallNeighbour(direction).getRoom();
+          Assert.assertTrue(isSafe(room));
+        }
+        Assert.assertEquals(hint.getLength(), length);
+
+        FiringSolution solution = hint.getFiringSolution();
+        Assert.assertSame(room, solution.getRoom());
+        Assert.assertSame(
+            wumpusRoom,
+            index.getTarget(room, solution.getDirection(), solution.getDistance()));
+      }
+    }
+  }
+
+  /**
+   * Creates a row of caves from west to east, where the second cave is
+   * joined to the wumpus's cave by a hallway. The other caves are dead ends
+   * that keep the first two caves from being hallways. The hallway is left
+   * out of the list, so the wumpus's cave is the fifth.
+   */
+  private static List<Room> createCaves() {
+    List<Room> rooms = new ArrayList<Room>();
+    for (int i = 0; i < 9; ++i) {
+      rooms.add(new Room(new Position(i, 0)));
+    }
+    Room start = rooms.get(0);
+    Room shootingRoom = rooms.get(1);
+    Room hallway = rooms.get(4);
+    Room wumpusRoom = rooms.get(5);
+
+    start.setNeighbour(Direction.EAST, shootingRoom);
+    start.setNeighbour(Direction.NORTH, rooms.get(2));
+    start.setNeighbour(Direction.SOUTH, rooms.get(3));
+    shootingRoom.setNeighbour(Direction.EAST, hallway);
+    shootingRoom.setNeighbour(Direction.NORTH, rooms.get(6));
+    hallway.setNeighbour(Direction.EAST, wumpusRoom);
+    wumpusRoom.setNeighbour(Direction.NORTH, rooms.get(7));
+    wumpusRoom.setNeighbour(Direction.SOUTH, rooms.get(8));
+    wumpusRoom.addWumpus();
+
+    rooms.remove(hallway);
+    return rooms;
+  }
+
+  /**
+   * Finds the length of the shortest safe route from each room to a room
+   * the wumpus can be shot from by relaxing every tunnel until nothing changes.
+   */
+  private static Map<ReadOnlyRoom, Integer> getRouteLengths(
+      List<ReadOnlyRoom> rooms,
+      ArrowIndex index,
+      ReadOnlyRoom wumpusRoom) {
+    Map<ReadOnlyRoom, Integer> lengths = new HashMap<ReadOnlyRoom, Integer>();
+    for (FiringSolution solution : index.getFiringSolutions(wumpusRoom)) {
+      if (isSafe(solution.getRoom())) {
+        lengths.put(solution.getRoom(), 0);
+      }
+    }
+
+    boolean changed = true;
+    while (changed) {
+      changed = false;
+      for (ReadOnlyRoom room : rooms) {
+        for (Direction direction : room.getAvailableDirections()) {
+          ReadOnlyRoom next = room.getNonHallNeighbour(direction).getRoom();
+          Integer nextLength = lengths.get(next);
+          if (nextLength == null || !isSafe(next)) {
+            continue;
+          }
+          int length = nextLength + room.getTunnelLength(direction);
+          Integer currentLength = lengths.get(room);
+          if (currentLength == null || length < currentLength) {
+            lengths.put(room, length);
+            changed = true;
+          }
+        }
+      }
+    }
+    return lengths;
+  }
+
+  private static boolean isSafe(ReadOnlyRoom room) {
+    return !room.hasPit() && !room.hasWumpus() && !room.hasBats();
+  }
+}
@@ -37,5 +37,31 @@ public class PositionTest {
   public void testToString() {
     Assert.assertEquals("(-5, 10)", position.toString());
   }
+  
+  /**
+   * Tests that equal positions have equal hash codes.
+   */
+  @Test
+  public void testHashCode() {
+    Assert.assertEquals(position, new Position(-5, 10));
+    Assert.assertEquals(position.hashCode(), new Position(-5, 10).hashCode());
+    Assert.assertNotEquals(position.hashCode(), new Position(10, -5).hashCode());
+  }
+  
+  /**
+   * Tests that packed coordinates unpack to the same position.
+   */
+  @Test
+  public void testPack() {
+    long packedPosition = position.pack();
+    Assert.assertEquals(Position.pack(-5, 10), packedPosition);
+    Assert.assertEquals(-5, Position.unpackX(packedPosition));
+    Assert.assertEquals(10, Position.unpackY(packedPosition));
+    Assert.assertEquals(position, Position.unpack(packedPosition));
+    Assert.assertNotEquals(packedPosition, new Position(10, -5).pack());
+    
+    Position extremes = new Position(Integer.MIN_VALUE, -1);
+    Assert.assertEquals(extremes, Position.unpack(extremes.pack()));
+  }
 
 }
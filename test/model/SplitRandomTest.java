@@ -0,0 +1,77 @@
+package model;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Tests the SplitRandom class.
+ * @author Liam Scholte
+ *
+ */
+public class SplitRandomTest {
+  
+  /**
+   * Tests that generators with the same seed produce the same numbers.
+   */
+  @Test
+  public void testSameSeedSameNumbers() {
+    Random first = new SplitRandom(42);
+    Random second = new SplitRandom(42);
+    for (int i = 0; i < 100; ++i) {
+      Assert.assertEquals(first.nextInt(1000), second.nextInt(1000));
+      Assert.assertEquals(first.nextBoolean(), second.nextBoolean());
+      Assert.assertEquals(first.nextLong(), second.nextLong());
+      Assert.assertEquals(first.nextGaussian(), second.nextGaussian(), 0);
+    }
+  }
+  
+  /**
+   * Tests that splitting in the same order gives the same streams.
+   */
+  @Test
+  public void testSplitIsReproducible() {
+    SplitRandom first = new SplitRandom(7);
+    SplitRandom second = new SplitRandom(7);
+    SplitRandom firstChild = first.split();
+    SplitRandom secondChild = second.split();
+    for (int i = 0; i < 100; ++i) {
+      Assert.assertEquals(firstChild.nextLong(), secondChild.nextLong());
+      Assert.assertEquals(first.nextLong(), second.nextLong());
+    }
+  }
+  
+  /**
+   * Tests that the streams of a seed are reproducible and differ from each other.
+   */
+  @Test
+  public void testForStream() {
+    Assert.assertEquals(
+        SplitRandom.forStream(3, SplitRandom.BAT_STREAM).nextLong(),
+        SplitRandom.forStream(3, SplitRandom.BAT_STREAM).nextLong());
+    Assert.assertNotEquals(
+        SplitRandom.forStream(3, SplitRandom.LAYOUT_STREAM).nextLong(),
+        SplitRandom.forStream(3, SplitRandom.HAZARD_STREAM).nextLong());
+  }
+  
+  /**
+   * Tests that a negative stream throws an IllegalArgumentException.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testForStreamNegative() {
+    SplitRandom.forStream(3, -1);
+  }
+  
+  /**
+   * Tests that setting the seed restarts the generator.
+   */
+  @Test
+  public void testSetSeed() {
+    Random random = new SplitRandom(5);
+    long firstNumber = random.nextLong();
+    random.nextLong();
+    random.setSeed(5);
+    Assert.assertEquals(firstNumber, random.nextLong());
+  }
+}
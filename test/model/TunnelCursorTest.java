@@ -0,0 +1,93 @@
+package model;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the TunnelCursor class.
+ * @author Liam Scholte
+ *
+ */
+public class TunnelCursorTest {
+  
+  private Room start;
+  private Room middle;
+  private Room end;
+  
+  /**
+   * Initializes data for testing. The rooms are joined by
+   * hallways into the path start, middle, end going east
+   * and then turning south.
+   */
+  @Before
+  public void setup() {
+    start = new Room(new Position(0, 0));
+    middle = new Room(new Position(2, 0));
+    end = new Room(new Position(2, 2));
+    Room firstHallway = new Room(new Position(1, 0));
+    Room secondHallway = new Room(new Position(2, 1));
+    
+    start.setNeighbour(Direction.EAST, firstHallway);
+    firstHallway.setNeighbour(Direction.EAST, middle);
+    middle.setNeighbour(Direction.WEST, firstHallway);
+    middle.setNeighbour(Direction.NORTH, new Room(new Position(2, -1)));
+    middle.setNeighbour(Direction.SOUTH, secondHallway);
+    secondHallway.setNeighbour(Direction.SOUTH, end);
+  }
+  
+  /**
+   * Tests that a cursor cannot be constructed without a room.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testConstructorNullRoom() {
+    new TunnelCursor(null, Direction.NORTH);
+  }
+  
+  /**
+   * Tests that advancing moves to the next non-hallway room.
+   */
+  @Test
+  public void testAdvance() {
+    TunnelCursor cursor = new TunnelCursor(start, Direction.EAST);
+    Assert.assertTrue(cursor.advance());
+    Assert.assertSame(middle, cursor.getRoom());
+    Assert.assertEquals(Direction.EAST, cursor.getDirection());
+  }
+  
+  /**
+   * Tests that the cursor stays put when there is no exit ahead.
+   */
+  @Test
+  public void testAdvanceNoExit() {
+    TunnelCursor cursor = new TunnelCursor(start, Direction.WEST);
+    Assert.assertFalse(cursor.advance());
+    Assert.assertSame(start, cursor.getRoom());
+    Assert.assertEquals(Direction.WEST, cursor.getDirection());
+  }
+  
+  /**
+   * Tests that advancing a distance stops at a dead end
+   * and reports how far the cursor moved.
+   */
+  @Test
+  public void testAdvanceDistance() {
+    TunnelCursor cursor = new TunnelCursor(middle, Direction.SOUTH);
+    Assert.assertEquals(1, cursor.advance(3));
+    Assert.assertSame(end, cursor.getRoom());
+    
+    cursor.reset(end, Direction.NORTH);
+    Assert.assertEquals(1, cursor.advance(1));
+    Assert.assertSame(middle, cursor.getRoom());
+    Assert.assertEquals(Direction.NORTH, cursor.getDirection());
+    Assert.assertEquals(0, cursor.advance(0));
+  }
+  
+  /**
+   * Tests that a negative distance throws an IllegalArgumentException.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testAdvanceNegativeDistance() {
+    new TunnelCursor(start, Direction.EAST).advance(-1);
+  }
+}
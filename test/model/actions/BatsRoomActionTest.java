@@ -7,6 +7,7 @@ import model.maze.Maze;
 import model.maze.MazeGenerationException;
 import model.maze.MazeImpl;
 import model.player.ModelPlayer;
+import model.player.PlayerEventArgs;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -36,46 +37,46 @@ public class BatsRoomActionTest {
   
   private class MockPlayer implements ModelPlayer {
     
-    private Event takenByBatsEvent;
-    private Event dodgedBatsEvent;
+    private Event<PlayerEventArgs> takenByBatsEvent;
+    private Event<PlayerEventArgs> dodgedBatsEvent;
     
     public MockPlayer() {
-      takenByBatsEvent = new Event();
-      dodgedBatsEvent = new Event();
+      takenByBatsEvent = new Event<PlayerEventArgs>();
+      dodgedBatsEvent = new Event<PlayerEventArgs>();
     }
 
     @Override
-    public Event getFellIntoPitEvent() {
+    public Event<PlayerEventArgs> getFellIntoPitEvent() {
       return null;
     }
 
     @Override
-    public Event getKilledByWumpusEvent() {
+    public Event<PlayerEventArgs> getKilledByWumpusEvent() {
       return null;
     }
 
     @Override
-    public Event getTakenByBatsEvent() {
+    public Event<PlayerEventArgs> getTakenByBatsEvent() {
       return takenByBatsEvent;
     }
 
     @Override
-    public Event getDodgedBatsEvent() {
+    public Event<PlayerEventArgs> getDodgedBatsEvent() {
       return dodgedBatsEvent;
     }
 
     @Override
-    public Event getKilledWumpusEvent() {
+    public Event<PlayerEventArgs> getKilledWumpusEvent() {
       return null;
     }
 
     @Override
-    public Event getArrowMissedEvent() {
+    public Event<PlayerEventArgs> getArrowMissedEvent() {
       return null;
     }
 
     @Override
-    public Event getPositionChangedEvent() {
+    public Event<PlayerEventArgs> getPositionChangedEvent() {
       return null;
     }
 
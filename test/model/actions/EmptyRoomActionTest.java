@@ -5,6 +5,7 @@ import model.Event;
 import model.Room;
 import model.actions.EmptyRoomAction;
 import model.player.ModelPlayer;
+import model.player.PlayerEventArgs;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -18,37 +19,37 @@ public class EmptyRoomActionTest {
   private class MockPlayer implements ModelPlayer {
 
     @Override
-    public Event getFellIntoPitEvent() {
+    public Event<PlayerEventArgs> getFellIntoPitEvent() {
       return null;
     }
 
     @Override
-    public Event getKilledByWumpusEvent() {
+    public Event<PlayerEventArgs> getKilledByWumpusEvent() {
       return null;
     }
 
     @Override
-    public Event getTakenByBatsEvent() {
+    public Event<PlayerEventArgs> getTakenByBatsEvent() {
       return null;
     }
 
     @Override
-    public Event getDodgedBatsEvent() {
+    public Event<PlayerEventArgs> getDodgedBatsEvent() {
       return null;
     }
 
     @Override
-    public Event getKilledWumpusEvent() {
+    public Event<PlayerEventArgs> getKilledWumpusEvent() {
       return null;
     }
 
     @Override
-    public Event getArrowMissedEvent() {
+    public Event<PlayerEventArgs> getArrowMissedEvent() {
       return null;
     }
     
     @Override
-    public Event getPositionChangedEvent() {
+    public Event<PlayerEventArgs> getPositionChangedEvent() {
       return null;
     }
 
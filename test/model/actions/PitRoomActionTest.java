@@ -4,6 +4,7 @@ import model.Direction;
 import model.Event;
 import model.Room;
 import model.player.ModelPlayer;
+import model.player.PlayerEventArgs;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -17,45 +18,45 @@ public class PitRoomActionTest {
   private class MockPlayer implements ModelPlayer {
     
     private boolean isAlive;
-    private Event event;
+    private Event<PlayerEventArgs> event;
     
     public MockPlayer() {
       isAlive = true;
-      event = new Event();
+      event = new Event<PlayerEventArgs>();
     }
 
     @Override
-    public Event getFellIntoPitEvent() {
+    public Event<PlayerEventArgs> getFellIntoPitEvent() {
       return event;
     }
 
     @Override
-    public Event getKilledByWumpusEvent() {
+    public Event<PlayerEventArgs> getKilledByWumpusEvent() {
       return null;
     }
 
     @Override
-    public Event getTakenByBatsEvent() {
+    public Event<PlayerEventArgs> getTakenByBatsEvent() {
       return null;
     }
 
     @Override
-    public Event getDodgedBatsEvent() {
+    public Event<PlayerEventArgs> getDodgedBatsEvent() {
       return null;
     }
 
     @Override
-    public Event getKilledWumpusEvent() {
+    public Event<PlayerEventArgs> getKilledWumpusEvent() {
       return null;
     }
 
     @Override
-    public Event getArrowMissedEvent() {
+    public Event<PlayerEventArgs> getArrowMissedEvent() {
       return null;
     }
 
     @Override
-    public Event getPositionChangedEvent() {
+    public Event<PlayerEventArgs> getPositionChangedEvent() {
       return null;
     }
 
@@ -321,4 +321,35 @@ public class PlayerImplTest {
     
     Assert.assertEquals(roomWithoutNeighbours, player.getRoom());
   }
+
+  /**
+   * Tests that moving passes the rooms moved between
+   * to subscribers of the position changed event.
+   */
+  @Test
+  public void testMoveRaisesPositionChangedWithRooms() {
+    PlayerImpl player = new PlayerImpl(name, roomWithNeighbours, 1);
+    PlayerEventArgs[] raisedArgs = new PlayerEventArgs[1];
+    player.getPositionChangedEvent().subscribe(args -> raisedArgs[0] = args);
+
+    player.move(Direction.WEST);
+    Assert.assertSame(player, raisedArgs[0].getPlayer());
+    Assert.assertSame(roomWithNeighbours, raisedArgs[0].getFromRoom());
+    Assert.assertSame(roomToWest, raisedArgs[0].getToRoom());
+  }
+
+  /**
+   * Tests that a missed arrow passes the room the
+   * arrow stopped in to subscribers.
+   */
+  @Test
+  public void testArrowMissedRaisedWithRooms() {
+    PlayerImpl player = new PlayerImpl(name, roomWithNeighbours, 1);
+    PlayerEventArgs[] raisedArgs = new PlayerEventArgs[1];
+    player.getArrowMissedEvent().subscribe(args -> raisedArgs[0] = args);
+
+    player.shootArrow(Direction.NORTH, 1);
+    Assert.assertSame(roomWithNeighbours, raisedArgs[0].getFromRoom());
+    Assert.assertSame(roomToNorth, raisedArgs[0].getToRoom());
+  }
 }
@@ -0,0 +1,85 @@
+package simulation;
+
+import controller.GameFactoryImpl;
+import model.SplitRandom;
+import model.maze.MazeGenerationException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.function.LongFunction;
+
+/**
+ * Tests the ParallelSimulator class.
+ * @author Liam Scholte
+ *
+ */
+public class ParallelSimulatorTest {
+  
+  private ParallelSimulator simulator;
+  private LongFunction<Policy> policyFactory;
+  
+  /**
+   * Initializes data for testing.
+   */
+  @Before
+  public void setup() {
+    simulator = new ParallelSimulator(
+        () -> new Simulator(new GameFactoryImpl(), 6, 6, true, 2, 2, 2, 3, 500),
+        16);
+    policyFactory = seed -> new RandomPolicy(SplitRandom.forStream(seed, SplitRandom.POLICY_STREAM));
+  }
+  
+  /**
+   * Tests that a parallel simulator cannot be constructed without a simulator factory.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullSimulatorFactory() {
+    new ParallelSimulator(null);
+  }
+  
+  /**
+   * Tests that tasks must play at least one game.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testEmptyTasks() {
+    new ParallelSimulator(
+        () -> new Simulator(new GameFactoryImpl(), 6, 6, true, 2, 2, 2, 3, 500),
+        0);
+  }
+  
+  /**
+   * Tests that games cannot be played without any threads.
+   * @throws MazeGenerationException if the maze cannot be generated
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoThreads() throws MazeGenerationException {
+    simulator.run(0, 10, policyFactory, 0);
+  }
+  
+  /**
+   * Tests that the outcome is the same for any number of threads
+   * and the same as playing the games on a single simulator.
+   * @throws MazeGenerationException if the maze cannot be generated
+   */
+  @Test
+  public void testSameOutcomeForAnyThreadCount() throws MazeGenerationException {
+    SimulationResult sequential = new Simulator(new GameFactoryImpl(), 6, 6, true, 2, 2, 2, 3, 500)
+        .run(7, 300, policyFactory);
+    for (int threadCount = 1; threadCount <= 4; ++threadCount) {
+      SimulationResult parallel = simulator.run(7, 300, policyFactory, threadCount);
+      Assert.assertTrue(parallel.hasSameOutcomes(sequential));
+    }
+  }
+  
+  /**
+   * Tests that invalid game parameters are reported from the tasks.
+   * @throws MazeGenerationException if the maze cannot be generated
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidGame() throws MazeGenerationException {
+    new ParallelSimulator(
+        () -> new Simulator(new GameFactoryImpl(), -1, 6, true, 2, 2, 2, 3, 500))
+        .run(0, 10, policyFactory, 2);
+  }
+}
@@ -0,0 +1,138 @@
+package simulation;
+
+import controller.GameFactoryImpl;
+import model.SplitRandom;
+import model.maze.MazeGenerationException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.function.LongFunction;
+
+/**
+ * Tests the Simulator class.
+ * @author Liam Scholte
+ *
+ */
+public class SimulatorTest {
+  
+  private Simulator simulator;
+  private LongFunction<Policy> policyFactory;
+  
+  /**
+   * Initializes data for testing.
+   */
+  @Before
+  public void setup() {
+    simulator = new Simulator(new GameFactoryImpl(), 6, 6, false, 2, 2, 2, 3, 500);
+    policyFactory = seed -> new RandomPolicy(SplitRandom.forStream(seed, SplitRandom.POLICY_STREAM));
+  }
+  
+  /**
+   * Tests that a simulator cannot be constructed without a game factory.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullFactory() {
+    new Simulator(null, 6, 6, false, 2, 2, 2, 3, 500);
+  }
+  
+  /**
+   * Tests that a simulator cannot be constructed without any turns.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoTurns() {
+    new Simulator(new GameFactoryImpl(), 6, 6, false, 2, 2, 2, 3, 0);
+  }
+  
+  /**
+   * Tests that a negative number of games cannot be run.
+   * @throws MazeGenerationException if the maze cannot be generated
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeGameCount() throws MazeGenerationException {
+    simulator.run(0, -1, policyFactory);
+  }
+  
+  /**
+   * Tests that every game ends in exactly one outcome.
+   * @throws MazeGenerationException if the maze cannot be generated
+   */
+  @Test
+  public void testOutcomesAddUp() throws MazeGenerationException {
+    SimulationResult result = simulator.run(0, 200, policyFactory);
+    Assert.assertEquals(200, result.getGameCount());
+    Assert.assertEquals(
+        result.getGameCount(),
+        result.getWinCount()
+        + result.getPitDeathCount()
+        + result.getWumpusDeathCount()
+        + result.getOutOfArrowsCount()
+        + result.getOtherLossCount()
+        + result.getUnfinishedCount());
+    Assert.assertTrue(result.getTurnCount() >= result.getGameCount());
+  }
+  
+  /**
+   * Tests that running the same seeds again gives the same outcome.
+   * @throws MazeGenerationException if the maze cannot be generated
+   */
+  @Test
+  public void testReplayFromSeed() throws MazeGenerationException {
+    SimulationResult first = simulator.run(42, 100, policyFactory);
+    SimulationResult second = simulator.run(42, 100, policyFactory);
+    Assert.assertEquals(first.getWinCount(), second.getWinCount());
+    Assert.assertEquals(first.getPitDeathCount(), second.getPitDeathCount());
+    Assert.assertEquals(first.getWumpusDeathCount(), second.getWumpusDeathCount());
+    Assert.assertEquals(first.getOutOfArrowsCount(), second.getOutOfArrowsCount());
+    Assert.assertEquals(first.getTurnCount(), second.getTurnCount());
+  }
+  
+  /**
+   * Tests that results of separate batches add up to the result of the whole.
+   * @throws MazeGenerationException if the maze cannot be generated
+   */
+  @Test
+  public void testAddResults() throws MazeGenerationException {
+    SimulationResult whole = simulator.run(0, 100, policyFactory);
+    SimulationResult parts = simulator.run(0, 60, policyFactory);
+    parts.add(simulator.run(60, 40, policyFactory));
+    Assert.assertEquals(whole.getGameCount(), parts.getGameCount());
+    Assert.assertEquals(whole.getWinCount(), parts.getWinCount());
+    Assert.assertEquals(whole.getTurnCount(), parts.getTurnCount());
+    Assert.assertTrue(whole.hasSameOutcomes(parts));
+  }
+  
+  /**
+   * Tests that the histogram of turns counts every game in the bucket of its length.
+   * @throws MazeGenerationException if the maze cannot be generated
+   */
+  @Test
+  public void testTurnHistogram() throws MazeGenerationException {
+    Assert.assertEquals(0, SimulationResult.getTurnBucket(0));
+    Assert.assertEquals(1, SimulationResult.getTurnBucket(1));
+    Assert.assertEquals(2, SimulationResult.getTurnBucket(3));
+    Assert.assertEquals(3, SimulationResult.getTurnBucket(4));
+    
+    SimulationResult result = simulator.run(0, 100, policyFactory);
+    long total = 0;
+    for (long count : result.getTurnHistogram()) {
+      total += count;
+    }
+    Assert.assertEquals(result.getGameCount(), total);
+  }
+  
+  /**
+   * Tests that games reaching the limit on turns are counted as unfinished.
+   * @throws MazeGenerationException if the maze cannot be generated
+   */
+  @Test
+  public void testTurnLimit() throws MazeGenerationException {
+    Simulator limited = new Simulator(new GameFactoryImpl(), 20, 20, false, 0, 0, 1, 3, 1);
+    SimulationResult result = limited.run(0, 50, policyFactory);
+    Assert.assertEquals(50, result.getTurnCount());
+    Assert.assertEquals(
+        result.getGameCount(),
+        result.getUnfinishedCount() + result.getWinCount() + result.getOutOfArrowsCount()
+        + result.getWumpusDeathCount());
+  }
+}
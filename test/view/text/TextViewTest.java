@@ -11,6 +11,7 @@ import model.ReadOnlyRoom;
 import model.maze.MazeGenerationException;
 import model.maze.ReadOnlyMaze;
 import model.player.Player;
+import model.player.PlayerEventArgs;
 import model.player.ReadOnlyPlayer;
 import org.junit.Assert;
 import org.junit.Before;
@@ -166,56 +167,56 @@ public class TextViewTest {
   
   private class MockPlayer implements ReadOnlyPlayer {
     
-    private Event fellIntoPitEvent;
-    private Event killedByWumpusEvent;
-    private Event takenByBatsEvent;
-    private Event dodgedBatsEvent;
-    private Event killedWumpusEvent;
-    private Event arrowMissedEvent;
-    private Event positionChangedEvent;
+    private Event<PlayerEventArgs> fellIntoPitEvent;
+    private Event<PlayerEventArgs> killedByWumpusEvent;
+    private Event<PlayerEventArgs> takenByBatsEvent;
+    private Event<PlayerEventArgs> dodgedBatsEvent;
+    private Event<PlayerEventArgs> killedWumpusEvent;
+    private Event<PlayerEventArgs> arrowMissedEvent;
+    private Event<PlayerEventArgs> positionChangedEvent;
     
     public MockPlayer() {
-      fellIntoPitEvent = new Event();
-      killedByWumpusEvent = new Event();
-      takenByBatsEvent = new Event();
-      dodgedBatsEvent = new Event();
-      killedWumpusEvent = new Event();
-      arrowMissedEvent = new Event();
-      positionChangedEvent = new Event();
+      fellIntoPitEvent = new Event<PlayerEventArgs>();
+      killedByWumpusEvent = new Event<PlayerEventArgs>();
+      takenByBatsEvent = new Event<PlayerEventArgs>();
+      dodgedBatsEvent = new Event<PlayerEventArgs>();
+      killedWumpusEvent = new Event<PlayerEventArgs>();
+      arrowMissedEvent = new Event<PlayerEventArgs>();
+      positionChangedEvent = new Event<PlayerEventArgs>();
     }
 
     @Override
-    public Event getFellIntoPitEvent() {
+    public Event<PlayerEventArgs> getFellIntoPitEvent() {
       return fellIntoPitEvent;
     }
 
     @Override
-    public Event getKilledByWumpusEvent() {
+    public Event<PlayerEventArgs> getKilledByWumpusEvent() {
       return killedByWumpusEvent;
     }
 
     @Override
-    public Event getTakenByBatsEvent() {
+    public Event<PlayerEventArgs> getTakenByBatsEvent() {
       return takenByBatsEvent;
     }
 
     @Override
-    public Event getDodgedBatsEvent() {
+    public Event<PlayerEventArgs> getDodgedBatsEvent() {
       return dodgedBatsEvent;
     }
 
     @Override
-    public Event getKilledWumpusEvent() {
+    public Event<PlayerEventArgs> getKilledWumpusEvent() {
       return killedWumpusEvent;
     }
 
     @Override
-    public Event getArrowMissedEvent() {
+    public Event<PlayerEventArgs> getArrowMissedEvent() {
       return arrowMissedEvent;
     }
 
     @Override
-    public Event getPositionChangedEvent() {
+    public Event<PlayerEventArgs> getPositionChangedEvent() {
       return positionChangedEvent;
     }
 